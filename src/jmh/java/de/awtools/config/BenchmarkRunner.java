@@ -0,0 +1,67 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet die Benchmarks nacheinander für mehrere Thread-Anzahlen. Die
+ * Anzahlen stehen kommagetrennt in der System-Property
+ * <code>jmh.threads</code> (Vorgabe <code>1,4</code>). Alle Argumente
+ * werden an JMH weitergereicht.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class BenchmarkRunner {
+
+    /** Utility Klasse. */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Startet die Benchmarks.
+     *
+     * @param args Die Argumente für JMH.
+     * @throws CommandLineOptionException Ungültige Argumente.
+     * @throws RunnerException Fehler beim Ausführen.
+     */
+    public static void main(final String[] args)
+            throws CommandLineOptionException, RunnerException {
+
+        CommandLineOptions options = new CommandLineOptions(args);
+        String[] threads = System.getProperty("jmh.threads", "1,4").split(",");
+        for (String thread : threads) {
+            new Runner(new OptionsBuilder().parent(options)
+                .threads(Integer.parseInt(thread.trim())).build()).run();
+        }
+    }
+
+}
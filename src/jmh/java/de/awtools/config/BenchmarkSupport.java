@@ -0,0 +1,153 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Testdaten für die Benchmarks.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class BenchmarkSupport {
+
+    /** Utility Klasse. */
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Liefert den Schlüssel mit der Nummer <code>index</code>. Die
+     * Schlüssel ähneln Feature-Flags pro Mandant.
+     *
+     * @param index Die Nummer des Schlüssels.
+     * @return Der Schlüssel.
+     */
+    static String key(final int index) {
+        return "tenant." + (index / 100) + ".feature.flag" + (index % 100);
+    }
+
+    /**
+     * Liefert die Schlüssel mit den Nummern <code>0</code> bis
+     * <code>entries - 1</code>.
+     *
+     * @param entries Die Anzahl der Schlüssel.
+     * @return Die Schlüssel.
+     */
+    static String[] keys(final int entries) {
+        String[] keys = new String[entries];
+        for (int index = 0; index < entries; index++) {
+            keys[index] = key(index);
+        }
+        return keys;
+    }
+
+    /**
+     * Liefert Schlüssel, die keiner Eigenschaft entsprechen.
+     *
+     * @param entries Die Anzahl der Schlüssel.
+     * @return Die Schlüssel.
+     */
+    static String[] missingKeys(final int entries) {
+        String[] keys = new String[entries];
+        for (int index = 0; index < entries; index++) {
+            keys[index] = key(index) + ".missing";
+        }
+        return keys;
+    }
+
+    /**
+     * Liefert den Wert mit der Nummer <code>index</code>.
+     *
+     * @param index Die Nummer des Werts.
+     * @return Der Wert.
+     */
+    static String value(final int index) {
+        return (index % 3 == 0) ? "true" : "value-" + index;
+    }
+
+    /**
+     * Verteilt die Eigenschaften reihum auf mehrere {@link MapGlueConfig}s.
+     *
+     * @param layers Die Anzahl der Konfigurationen.
+     * @param entries Die Anzahl der Eigenschaften.
+     * @return Die kombinierte Konfiguration.
+     */
+    static CombinedGlueConfig createCombined(final int layers,
+        final int entries) {
+
+        List<Map<String, String>> maps = new ArrayList<Map<String, String>>();
+        for (int layer = 0; layer < layers; layer++) {
+            maps.add(new HashMap<String, String>());
+        }
+        for (int index = 0; index < entries; index++) {
+            maps.get(index % layers).put(key(index), value(index));
+        }
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        for (Map<String, String> map : maps) {
+            combined.addConfig(new MapGlueConfig(map));
+        }
+        return combined;
+    }
+
+    /**
+     * Schreibt eine temporäre Property-Datei.
+     *
+     * @param entries Die Anzahl der Einträge.
+     * @return Die Datei.
+     * @throws IOException Fehler beim Schreiben.
+     */
+    static File createPropertiesFile(final int entries) throws IOException {
+        File file = File.createTempFile("glueconfigbenchmark", ".properties");
+        file.deleteOnExit();
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(file), "ISO-8859-1"));
+        try {
+            out.write("# Generiert für die Benchmarks\n");
+            for (int index = 0; index < entries; index++) {
+                out.write(key(index));
+                out.write(" = ");
+                out.write(value(index));
+                out.write('\n');
+            }
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+        return file;
+    }
+
+}
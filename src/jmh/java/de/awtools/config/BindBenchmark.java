@@ -0,0 +1,127 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.beans.ConstructorProperties;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vergleicht das Neuerzeugen eines gebundenen Objekts (siehe
+ * {@link GlueConfig#bind(Class, String)}) mit handgeschriebenen
+ * <code>getInt</code>/<code>getString</code> Aufrufen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    private GlueConfig config;
+
+    private BeanProperty<PoolSettings> handle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("db.pool.size", "10");
+        properties.put("db.pool.timeout", "30000");
+        properties.put("db.pool.enabled", "true");
+        properties.put("db.pool.name", "main");
+        properties.put("db.pool.max.idle", "4");
+        config = new MapGlueConfig(properties);
+        handle = config.bind(PoolSettings.class, "db.pool.");
+    }
+
+    @Benchmark
+    public PoolSettings rebind() {
+        handle.refresh(config);
+        return handle.get();
+    }
+
+    @Benchmark
+    public PoolSettings handWritten() {
+        return new PoolSettings(config.getInt("db.pool.size"),
+            config.getLong("db.pool.timeout"),
+            config.getBool("db.pool.enabled"),
+            config.getString("db.pool.name"),
+            Integer.valueOf(config.getInt("db.pool.max.idle")));
+    }
+
+    @Benchmark
+    public PoolSettings get() {
+        return handle.get();
+    }
+
+    /**
+     * Die gebundene Klasse.
+     */
+    public static final class PoolSettings {
+
+        private final int size;
+
+        private final long timeout;
+
+        private final boolean enabled;
+
+        private final String name;
+
+        private final Integer maxIdle;
+
+        @ConstructorProperties({ "size", "timeout", "enabled", "name",
+                "max.idle" })
+        public PoolSettings(final int _size, final long _timeout,
+            final boolean _enabled, final String _name,
+            final Integer _maxIdle) {
+
+            size = _size;
+            timeout = _timeout;
+            enabled = _enabled;
+            name = _name;
+            maxIdle = _maxIdle;
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst Operationen über alle Eigenschaften: {@link GlueConfig#load()}
+ * großer Dateien, {@link GlueConfig#getProperties()},
+ * {@link GlueConfig#asProperties()} und die Schlüssel unter einem Präfix
+ * über {@link GlueConfig#subset(String)} im Vergleich zum Durchlaufen aller
+ * Schlüssel.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkBenchmark {
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "1000", "100000" })
+    private int entries;
+
+    private File file;
+
+    private PropertiesGlueConfig properties;
+
+    private CombinedGlueConfig combined;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = BenchmarkSupport.createPropertiesFile(entries);
+        properties = new PropertiesGlueConfig(file.toURI().toURL());
+        properties.load();
+        combined = BenchmarkSupport.createCombined(4, entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public PropertiesGlueConfig load() throws IOException {
+        properties.load();
+        return properties;
+    }
+
+    @Benchmark
+    public Properties getProperties() {
+        return properties.getProperties();
+    }
+
+    @Benchmark
+    public Properties getPropertiesCombined() {
+        return combined.getProperties();
+    }
+
+    @Benchmark
+    public Map<String, String> snapshotCombined() {
+        return combined.snapshot();
+    }
+
+    @Benchmark
+    public int subset() {
+        int count = 0;
+        GlueConfig subset = properties.subset("tenant.7.");
+        for (Iterator<String> i = subset.getKeyIterator(); i.hasNext();) {
+            count += subset.getString(i.next()).length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int prefixScan() {
+        int count = 0;
+        for (Iterator<String> i = properties.getKeyIterator(); i.hasNext();) {
+            String key = i.next();
+            if (key.startsWith("tenant.7.")) {
+                count += properties.getString(key).length();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Properties asProperties() {
+        return properties.asProperties();
+    }
+
+    @Benchmark
+    public Properties asPropertiesCombined() {
+        return combined.asProperties();
+    }
+
+}
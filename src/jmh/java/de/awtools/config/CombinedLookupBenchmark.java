@@ -0,0 +1,102 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst die Abfrage einzelner Eigenschaften einer
+ * {@link CombinedGlueConfig} in Abhängigkeit von der Anzahl der
+ * Konfigurationen. Die Eigenschaften sind reihum auf die Konfigurationen
+ * verteilt, eine Abfrage durchläuft also im Mittel die Hälfte der
+ * Konfigurationen. Eine fehlende Eigenschaft durchläuft alle.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombinedLookupBenchmark {
+
+    /** Die Anzahl der Konfigurationen. */
+    @Param({ "1", "4", "16" })
+    private int layers;
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "100", "10000" })
+    private int entries;
+
+    /** Kompilierter Modus an/aus. */
+    @Param({ "false", "true" })
+    private boolean compiled;
+
+    private CombinedGlueConfig config;
+
+    private String[] keys;
+
+    private String[] missingKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = BenchmarkSupport.keys(entries);
+        missingKeys = BenchmarkSupport.missingKeys(entries);
+        config = BenchmarkSupport.createCombined(layers, entries);
+        config.setCompiled(compiled);
+    }
+
+    @Benchmark
+    public String getString(final KeyCursor cursor) {
+        return config.getString(cursor.next(keys));
+    }
+
+    @Benchmark
+    public String getStringMissing(final KeyCursor cursor) {
+        return config.getString(cursor.next(missingKeys));
+    }
+
+    @Benchmark
+    public int getInt(final KeyCursor cursor) {
+        return config.getInt(cursor.next(keys), -1);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vergleicht eine {@link MapGlueConfig} mit {@link java.util.HashMap}
+ * (<code>hashMap</code>) und mit {@link CompactMap} (<code>compact</code>)
+ * beim Abfragen und beim Durchlaufen aller Schlüssel.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactMapBenchmark {
+
+    /** Die Implementierung. */
+    @Param({ "hashMap", "compact" })
+    private String type;
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "1000", "100000" })
+    private int entries;
+
+    private MapGlueConfig config;
+
+    private String[] keys;
+
+    private String[] missingKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = BenchmarkSupport.keys(entries);
+        missingKeys = BenchmarkSupport.missingKeys(entries);
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int index = 0; index < entries; index++) {
+            properties.put(keys[index], BenchmarkSupport.value(index));
+        }
+        if ("hashMap".equals(type)) {
+            config = new MapGlueConfig(properties);
+        } else if ("compact".equals(type)) {
+            config = MapGlueConfig.compact(properties);
+        } else {
+            throw new IllegalArgumentException(type);
+        }
+    }
+
+    @Benchmark
+    public String getString(final KeyCursor cursor) {
+        return config.getString(cursor.next(keys));
+    }
+
+    @Benchmark
+    public String getStringMissing(final KeyCursor cursor) {
+        return config.getString(cursor.next(missingKeys));
+    }
+
+    @Benchmark
+    public int iterateKeys() {
+        int length = 0;
+        for (Iterator<String> i = config.getKeyIterator(); i.hasNext();) {
+            length += i.next().length();
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vergleicht {@link AbstractGlueConfig#interpolatedConfiguration()} mit dem
+ * früheren Verfahren, das jeden Wert einzeln mit
+ * {@link StringUtils#replace(String, String, String)} bearbeitet hat.
+ * Jeder zweite Wert referenziert einen anderen Wert, so dass Ketten der
+ * Länge <code>depth</code> entstehen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolationBenchmark {
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "1000", "10000" })
+    private int entries;
+
+    /** Die Länge der Platzhalter-Ketten. */
+    @Param({ "1", "8" })
+    private int depth;
+
+    private MapGlueConfig config;
+
+    private Map<String, String> placeholders;
+
+    private String template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int index = 0; index < entries; index++) {
+            String value = BenchmarkSupport.value(index);
+            if (index % 2 == 1 && index % (2 * depth) != 1) {
+                value = "${" + BenchmarkSupport.key(index - 2) + "}/" + value;
+            } else if (index % 2 == 1) {
+                value = "${" + BenchmarkSupport.key(index - 1) + "}/" + value;
+            }
+            properties.put(BenchmarkSupport.key(index), value);
+        }
+        config = new MapGlueConfig(properties);
+        placeholders = config.snapshot();
+        template = "jdbc:${" + BenchmarkSupport.key(0) + "}://${"
+            + BenchmarkSupport.key(1) + "}/${" + BenchmarkSupport.key(2) + "}";
+    }
+
+    @Benchmark
+    public GlueConfig interpolatedConfiguration() {
+        return config.interpolatedConfiguration();
+    }
+
+    @Benchmark
+    public String replacePlaceholder() {
+        return AbstractGlueConfig.replacePlaceholder(template, placeholders);
+    }
+
+    @Benchmark
+    public Map<String, String> legacyReplacePlaceholder() {
+        Map<String, String> substitutes = config.snapshot();
+        substitutes = new HashMap<String, String>(substitutes);
+        for (String key : substitutes.keySet()) {
+            String result = substitutes.get(key);
+            String[] keys = StringUtils.substringsBetween(result, "${", "}");
+            if (keys != null) {
+                for (String placeholder : keys) {
+                    String value = substitutes.get(placeholder);
+                    if (value != null) {
+                        result = StringUtils.replace(result,
+                            "${" + placeholder + "}", value);
+                    }
+                }
+            }
+            substitutes.put(key, result);
+        }
+        return substitutes;
+    }
+
+}
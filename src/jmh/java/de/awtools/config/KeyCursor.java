@@ -0,0 +1,55 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Läuft pro Benchmark-Thread reihum über eine Liste von Schlüsseln. Damit
+ * greifen mehrere Threads auf verschiedene Schlüssel zu, ohne sich einen
+ * Zähler zu teilen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Thread)
+public class KeyCursor {
+
+    private int index;
+
+    /**
+     * Liefert den nächsten Schlüssel.
+     *
+     * @param keys Die Schlüssel.
+     * @return Der nächste Schlüssel.
+     */
+    String next(final String[] keys) {
+        index = (index + 1 == keys.length) ? 0 : index + 1;
+        return keys[index];
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst die Abfrage einzelner Eigenschaften für die einfachen
+ * {@link GlueConfig} Implementierungen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    /** Die Implementierung. */
+    @Param({ "map", "properties", "system", "systemSnapshot", "mapped",
+        "environment", "metered" })
+    private String type;
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "100", "10000" })
+    private int entries;
+
+    private GlueConfig config;
+
+    private String[] keys;
+
+    private String[] missingKeys;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = BenchmarkSupport.keys(entries);
+        missingKeys = BenchmarkSupport.missingKeys(entries);
+        file = BenchmarkSupport.createPropertiesFile(entries);
+
+        if ("map".equals(type)) {
+            Map<String, String> properties = new HashMap<String, String>();
+            for (int index = 0; index < entries; index++) {
+                properties.put(keys[index], BenchmarkSupport.value(index));
+            }
+            config = new MapGlueConfig(properties);
+        } else if ("properties".equals(type)) {
+            config = new PropertiesGlueConfig(file.toURI().toURL());
+            config.load();
+        } else if ("system".equals(type)) {
+            for (int index = 0; index < entries; index++) {
+                System.setProperty(keys[index], BenchmarkSupport.value(index));
+            }
+            config = new SystemGlueConfig();
+        } else if ("systemSnapshot".equals(type)) {
+            for (int index = 0; index < entries; index++) {
+                System.setProperty(keys[index], BenchmarkSupport.value(index));
+            }
+            config = new SystemGlueConfig(true, false);
+        } else if ("mapped".equals(type)) {
+            File mapped = new File(file.getPath() + ".bin");
+            mapped.deleteOnExit();
+            MappedGlueConfigWriter.write(file.toURI().toURL(), mapped);
+            config = new MappedGlueConfig(mapped);
+            config.load();
+        } else if ("environment".equals(type)) {
+            // Die Schlüssel werden über ihre gelockerten Namen gefunden.
+            Map<String, String> environment = new HashMap<String, String>();
+            for (int index = 0; index < entries; index++) {
+                environment.put(keys[index].toUpperCase(Locale.ROOT)
+                    .replace('.', '_'), BenchmarkSupport.value(index));
+            }
+            config = new EnvironmentGlueConfig(environment);
+        } else if ("metered".equals(type)) {
+            Map<String, String> properties = new HashMap<String, String>();
+            for (int index = 0; index < entries; index++) {
+                properties.put(keys[index], BenchmarkSupport.value(index));
+            }
+            config = new MeteredGlueConfig(new MapGlueConfig(properties));
+        } else {
+            throw new IllegalArgumentException(type);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public String getString(final KeyCursor cursor) {
+        return config.getString(cursor.next(keys));
+    }
+
+    @Benchmark
+    public String getStringMissing(final KeyCursor cursor) {
+        return config.getString(cursor.next(missingKeys));
+    }
+
+    @Benchmark
+    public boolean getBool(final KeyCursor cursor) {
+        return config.getBool(cursor.next(keys), false);
+    }
+
+}
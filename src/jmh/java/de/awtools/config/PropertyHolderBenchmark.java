@@ -0,0 +1,116 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.SystemUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst die Abfrage einzelner Eigenschaften über einen
+ * {@link PropertyHolder}. Die Eigenschaften liegen in einer temporären
+ * Datei im Home-Verzeichnis, die am Ende wieder gelöscht wird.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyHolderBenchmark {
+
+    /** Die Anzahl der Eigenschaften. */
+    @Param({ "100", "10000" })
+    private int entries;
+
+    private PropertyHolder holder;
+
+    private File userHomeFile;
+
+    private String[] keys;
+
+    private IntProperty handle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = BenchmarkSupport.keys(entries);
+        File file = BenchmarkSupport.createPropertiesFile(entries);
+        userHomeFile = new File(SystemUtils.USER_HOME, file.getName());
+        userHomeFile.deleteOnExit();
+        FileUtils.copyFile(file, userHomeFile);
+        file.delete();
+
+        holder = new PropertyHolder(userHomeFile.getName(),
+            "/de/awtools/config/test.properties");
+        holder.load();
+        handle = holder.intHandle("test.int.10", -1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userHomeFile.delete();
+    }
+
+    @Benchmark
+    public String getString(final KeyCursor cursor) {
+        return holder.getString(cursor.next(keys));
+    }
+
+    @Benchmark
+    public String getStringClasspath() {
+        return holder.getString("test.string.andre");
+    }
+
+    @Benchmark
+    public int getInt() {
+        return holder.getInt("test.int.10", -1);
+    }
+
+    @Benchmark
+    public int intHandle() {
+        return handle.getAsInt();
+    }
+
+}
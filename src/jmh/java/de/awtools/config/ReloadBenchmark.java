@@ -0,0 +1,108 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst {@link PropertiesGlueConfig#load()} für eine unveränderte Datei:
+ * mit unverändertem Zeitstempel (<code>unchanged</code>), mit neuem
+ * Zeitstempel aber gleichem Inhalt (<code>touched</code>) und im Vergleich
+ * dazu das vollständige Parsen (<code>parse</code>).
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReloadBenchmark {
+
+    /** Die Anzahl der Einträge der Property-Datei. */
+    @Param({ "1000", "100000" })
+    private int entries;
+
+    private File file;
+
+    private PropertiesGlueConfig config;
+
+    private long modified;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = BenchmarkSupport.createPropertiesFile(entries);
+        modified = System.currentTimeMillis() - 60000;
+        file.setLastModified(modified);
+        config = new PropertiesGlueConfig(file.toURI().toURL());
+        config.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Map<String, String> unchanged() throws IOException {
+        config.load();
+        return config.asMap();
+    }
+
+    @Benchmark
+    public Map<String, String> touched() throws IOException {
+        // Jeder Aufruf sieht einen neuen Zeitstempel.
+        modified += 1000;
+        file.setLastModified(modified);
+        config.load();
+        return config.asMap();
+    }
+
+    @Benchmark
+    public Map<String, String> parse() throws IOException {
+        return PropertiesParser.parse(file);
+    }
+
+}
@@ -26,18 +26,46 @@
 package de.awtools.config;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Utility Klasse für {@link GlueConfig} Implementierungen.
+ * <p>
+ * Die Ergebnisse von {@link #getInt(String, int)},
+ * {@link #getLong(String, long)} und {@link #getBool(String, boolean)}
+ * werden pro Schlüssel zwischengespeichert. Wiederholte Abfragen einer
+ * unveränderten Eigenschaft parsen den Wert nicht erneut.
+ * </p>
+ * <p>
+ * Implementierungen melden jede Änderung über
+ * {@link #propertyChanged(String)} bzw. {@link #propertiesChanged()}. Damit
+ * werden der Zwischenspeicher verworfen, die ausgegebenen Handles (siehe
+ * {@link #intHandle(String, int)}) aktualisiert, die registrierten
+ * {@link ConfigChangeListener} und übergeordnete
+ * {@link CombinedGlueConfig}s benachrichtigt.
+ * </p>
+ * <p>
+ * Zu jeder Momentaufnahme wird bei Bedarf ein sortierter Schlüsselindex
+ * aufgebaut, über den {@link #subset(String)} die Schlüssel zu einem
+ * Präfix findet.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 2319 $ $Date: 2010-07-30 15:46:58 +0200 (Fr, 30 Jul 2010) $
@@ -47,6 +75,40 @@ abstract class AbstractGlueConfig implements GlueConfig {
     /** Ein Logger für die Klasse. */
     private final Logger log = LoggerFactory.getLogger(AbstractGlueConfig.class);
 
+    /** Die bereits geparsten Werte pro Schlüssel. */
+    private final ConcurrentMap<String, TypedValue> typedValues =
+            new ConcurrentHashMap<String, TypedValue>();
+
+    /** Die ausgegebenen Handles. */
+    private final PropertyHandles handles = new PropertyHandles();
+
+    /** Die registrierten Listener. */
+    private final ChangeListeners listeners = new ChangeListeners();
+
+    /**
+     * Die Konfigurationen, die diese Konfiguration einbetten. Sie werden nur
+     * schwach referenziert, damit kurzlebige Sichten nicht an ihrer Quelle
+     * hängen bleiben.
+     */
+    private final List<WeakReference<AbstractGlueConfig>> dependents =
+            new CopyOnWriteArrayList<WeakReference<AbstractGlueConfig>>();
+
+    /** Die Sicht mit aufgelösten Platzhaltern, wird bei Bedarf angelegt. */
+    private volatile InterpolatingGlueConfig interpolatedView;
+
+    /** Die Sichten pro Präfix, siehe {@link #subset(String)}. */
+    private final ConcurrentMap<String, SubsetGlueConfig> subsets =
+            new ConcurrentHashMap<String, SubsetGlueConfig>();
+
+    /** Der Schlüsselindex der zuletzt verwendeten Momentaufnahme. */
+    private volatile KeyIndex keyIndex;
+
+    /**
+     * Wird bei jeder gemeldeten Änderung hochgezählt, siehe
+     * {@link #keyIndex()}.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
     public boolean getBool(final String key) {
         return (getBool(key, false));
     }
@@ -55,7 +117,7 @@ abstract class AbstractGlueConfig implements GlueConfig {
         String bool = getString(key);
         boolean result = defaultValue;
         if (StringUtils.isNotBlank(bool)) {
-            result = Boolean.parseBoolean(bool);
+            result = typedValue(key, bool).boolValue;
         }
         return result;
     }
@@ -81,10 +143,9 @@ abstract class AbstractGlueConfig implements GlueConfig {
         String value = getString(key);
         int result = defaultValue;
         if (StringUtils.isNotBlank(value)) {
-            try {
-                result = Integer.parseInt(value);
-            } catch (NumberFormatException ex) {
-                log.debug("NumberFormatException", ex);
+            TypedValue typedValue = typedValue(key, value);
+            if (typedValue.intValid) {
+                result = typedValue.intValue;
             }
         }
         return result;
@@ -98,15 +159,74 @@ abstract class AbstractGlueConfig implements GlueConfig {
         String value = getString(key);
         long result = defaultValue;
         if (StringUtils.isNotBlank(value)) {
-            try {
-                result = Long.parseLong(value);
-            } catch (NumberFormatException ex) {
-                log.debug("NumberFormatException", ex);
+            TypedValue typedValue = typedValue(key, value);
+            if (typedValue.longValid) {
+                result = typedValue.longValue;
             }
         }
         return result;
     }
 
+    public final IntProperty intHandle(final String key,
+        final int defaultValue) {
+
+        return handles.register(new IntProperty(key, defaultValue), this);
+    }
+
+    public final LongProperty longHandle(final String key,
+        final long defaultValue) {
+
+        return handles.register(new LongProperty(key, defaultValue), this);
+    }
+
+    public final BooleanProperty boolHandle(final String key,
+        final boolean defaultValue) {
+
+        return handles.register(new BooleanProperty(key, defaultValue), this);
+    }
+
+    public final <T> BeanProperty<T> bind(final Class<T> type,
+        final String prefix) {
+
+        Validate.notNull(prefix);
+        return handles.register(new BeanProperty<T>(prefix, Binder.of(type)),
+            this);
+    }
+
+    public final void addChangeListener(final ConfigChangeListener listener) {
+        listeners.add(this, null, false, listener);
+    }
+
+    public final void addPrefixChangeListener(final String prefix,
+        final ConfigChangeListener listener) {
+
+        listeners.add(this, prefix, true, listener);
+    }
+
+    public final void addKeyChangeListener(final String key,
+        final ConfigChangeListener listener) {
+
+        listeners.add(this, key, false, listener);
+    }
+
+    public final void removeChangeListener(
+        final ConfigChangeListener listener) {
+
+        listeners.remove(listener);
+    }
+
+    /**
+     * Setzt den Executor, über den die {@link ConfigChangeListener}
+     * informiert werden. Ohne Executor wird ein gemeinsamer
+     * Hintergrund-Thread verwendet, der die Reihenfolge der Änderungen
+     * einhält.
+     *
+     * @param executor Der Executor oder <code>null</code>.
+     */
+    public final void setChangeExecutor(final Executor executor) {
+        listeners.setExecutor(executor);
+    }
+
     public final String getString(final String key) {
         return (getString(key, null));
     }
@@ -121,38 +241,80 @@ abstract class AbstractGlueConfig implements GlueConfig {
     }
 
     public final Object getProperty(final String key, final Object defaultValue) {
-        Object value = doGetProperty(key);
+        Object value = ConfigEvents.lookupsEnabled
+            ? ConfigEvents.lookup(this, key) : doGetProperty(key);
         return ((value == null) ? defaultValue : value);
     }
 
     public final Properties getProperties() {
         Properties clone = new Properties();
-        for (Iterator<String> i = getKeyIterator(); i.hasNext();) {
-            String key = i.next();
-            Object value = getProperty(key);
-            if (value != null) {
-                clone.put(key, value);
+        for (Map.Entry<String, String> entry : snapshot().entrySet()) {
+            if (entry.getValue() != null) {
+                clone.put(entry.getKey(), entry.getValue());
             }
         }
         return clone;
     }
 
+    public int size() {
+        return snapshot().size();
+    }
+
+    public final boolean containsKey(final String key) {
+        return (doGetProperty(key) != null);
+    }
+
+    public final Map<String, String> asMap() {
+        return snapshot();
+    }
+
+    public final Properties asProperties() {
+        return new SnapshotProperties(snapshot());
+    }
+
     public final GlueConfig interpolatedConfiguration() {
-        Map<String, String> substitutes = new HashMap<String, String>();
-        for (Iterator<String> i = getKeyIterator(); i.hasNext();) {
-            String key = i.next();
-            substitutes.put(key, getString(key));
-        }
+        Object event = ConfigEvents.INTERPOLATION.begin();
+        Map<String, String> snapshot = snapshot();
+        GlueConfig result = MapGlueConfig.adopt(
+            StringPool.SHARED.intern(Interpolator.interpolate(snapshot)));
+        ConfigEvents.INTERPOLATION.commit(event, toString(),
+            Integer.valueOf(snapshot.size()));
+        return result;
+    }
 
-        for (String key : substitutes.keySet()) {
-            String value = substitutes.get(key);
-            value = AbstractGlueConfig.replacePlaceholder(value, substitutes);
-            if (value != null) {
-                substitutes.put(key, value);
+    public final GlueConfig interpolatedView() {
+        InterpolatingGlueConfig view = interpolatedView;
+        if (view == null) {
+            synchronized (this) {
+                view = interpolatedView;
+                if (view == null) {
+                    view = new InterpolatingGlueConfig(this);
+                    interpolatedView = view;
+                }
             }
         }
+        return view;
+    }
 
-        return (new MapGlueConfig(substitutes));
+    public final GlueConfig subset(final String prefix) {
+        Validate.notNull(prefix);
+        if (this instanceof SubsetGlueConfig) {
+            // Verschachtelte Sichten greifen direkt auf den Index der
+            // obersten Konfiguration zu.
+            SubsetGlueConfig outer = (SubsetGlueConfig) this;
+            return outer.getParent().subset(outer.getPrefix().concat(prefix));
+        }
+        SubsetGlueConfig subset = subsets.get(prefix);
+        if (subset == null) {
+            synchronized (subsets) {
+                subset = subsets.get(prefix);
+                if (subset == null) {
+                    subset = new SubsetGlueConfig(this, prefix);
+                    subsets.put(prefix, subset);
+                }
+            }
+        }
+        return subset;
     }
 
     public String debugOutput() {
@@ -174,13 +336,206 @@ abstract class AbstractGlueConfig implements GlueConfig {
      */
     protected abstract Object doGetProperty(final String key);
 
+    /**
+     * Liefert eine unveränderliche Momentaufnahme aller Eigenschaften, so
+     * wie sie über {@link #getString(String)} sichtbar sind. Die
+     * Standardimplementierung baut die Momentaufnahme bei jedem Aufruf neu
+     * auf. Implementierungen, die ihre Eigenschaften bereits als
+     * unveränderliche Map halten, liefern diese direkt. Sie enthält genau
+     * die Schlüssel, für die {@link #containsKey(String)} <code>true</code>
+     * liefert, ausgenommen die Aliase aus {@link #aliases()}, und keine
+     * <code>null</code> Werte.
+     *
+     * @return Eine Momentaufnahme der Eigenschaften.
+     */
+    Map<String, String> snapshot() {
+        Map<String, String> snapshot = new HashMap<String, String>();
+        for (Iterator<String> i = getKeyIterator(); i.hasNext();) {
+            String key = i.next();
+            Object value = doGetProperty(key);
+            if (value != null) {
+                snapshot.put(key, value.toString());
+            }
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Liefert den sortierten Schlüsselindex der aktuellen Momentaufnahme.
+     * Meldet die Konfiguration alle Änderungen (siehe
+     * {@link #reportsAllChanges()}), bleibt der Index bis zur nächsten
+     * Änderung gültig, ohne dass die Momentaufnahme erneut ermittelt wird.
+     * Sonst wird der Index nur neu aufgebaut, wenn sich die Momentaufnahme
+     * geändert hat.
+     *
+     * @return Der Schlüsselindex.
+     */
+    final KeyIndex keyIndex() {
+        // Den Zähler vor der Momentaufnahme lesen: Eine Änderung dazwischen
+        // macht den Index bei der nächsten Abfrage ungültig.
+        long current = generation.get();
+        KeyIndex index = keyIndex;
+        if (index != null && index.generation == current
+            && reportsAllChanges()) {
+
+            return index;
+        }
+        Map<String, String> snapshot = snapshot();
+        if (index == null || index.snapshot != snapshot) {
+            index = new KeyIndex(snapshot, current);
+        } else if (index.generation != current) {
+            index = new KeyIndex(index, current);
+        } else {
+            return index;
+        }
+        keyIndex = index;
+        return index;
+    }
+
+    /**
+     * Meldet die Änderung einer einzelnen Eigenschaft.
+     *
+     * @param key Der geänderte Schlüssel.
+     */
+    protected final void propertyChanged(final String key) {
+        generation.incrementAndGet();
+        typedValues.remove(key);
+        handles.refresh(this, key);
+        listeners.fire(this, key);
+        for (WeakReference<AbstractGlueConfig> dependent : dependents) {
+            AbstractGlueConfig config = dependent.get();
+            if (config == null) {
+                dependents.remove(dependent);
+            } else {
+                config.layerChanged(this, key);
+            }
+        }
+    }
+
+    /**
+     * Meldet die Änderung aller Eigenschaften, z.B. nach dem Laden.
+     */
+    protected final void propertiesChanged() {
+        generation.incrementAndGet();
+        typedValues.clear();
+        handles.refresh(this, null);
+        listeners.fire(this, null);
+        for (WeakReference<AbstractGlueConfig> dependent : dependents) {
+            AbstractGlueConfig config = dependent.get();
+            if (config == null) {
+                dependents.remove(dependent);
+            } else {
+                config.layerChanged(this, null);
+            }
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der beim letzten Laden gelesenen Bytes, z.B. für
+     * das {@link ConfigEvents#LOAD} Ereignis einer einbettenden
+     * Konfiguration.
+     *
+     * @return Die Standardimplementierung liefert <code>0</code>.
+     */
+    long loadedBytes() {
+        return 0;
+    }
+
+    /**
+     * Liefert die Aliase dieser Konfiguration: Schlüssel, unter denen
+     * {@link #doGetProperty(String)} einen Wert findet, die aber nicht in
+     * der Momentaufnahme stehen (z.B. die gelockerten Namen der
+     * {@link EnvironmentGlueConfig}).
+     *
+     * @return Die Aliase mit ihren Werten. Die Standardimplementierung
+     *     liefert eine leere Map.
+     */
+    Map<String, String> aliases() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Meldet diese Konfiguration jede Änderung ihrer Eigenschaften über
+     * {@link #propertyChanged(String)} bzw. {@link #propertiesChanged()}?
+     * Nur dann dürfen einbettende Konfigurationen Ergebnisse
+     * zwischenspeichern, die aus dieser Konfiguration abgeleitet sind.
+     *
+     * @return Die Standardimplementierung liefert <code>true</code>.
+     */
+    boolean reportsAllChanges() {
+        return true;
+    }
+
+    /**
+     * Eine eingebettete Konfiguration hat sich geändert. Die
+     * Standardimplementierung macht nichts.
+     *
+     * @param layer Die geänderte Konfiguration.
+     * @param key Der geänderte Schlüssel oder <code>null</code>, wenn sich
+     *     alle Eigenschaften geändert haben können.
+     */
+    void layerChanged(final GlueConfig layer, final String key) {
+        // Nix zu tun.
+    }
+
+    /**
+     * Registriert eine Konfiguration, die über Änderungen dieser
+     * Konfiguration informiert werden möchte.
+     *
+     * @param dependent Die einbettende Konfiguration.
+     */
+    final void addDependent(final AbstractGlueConfig dependent) {
+        dependents.add(new WeakReference<AbstractGlueConfig>(dependent));
+    }
+
+    /**
+     * Entfernt eine mit {@link #addDependent(AbstractGlueConfig)}
+     * registrierte Konfiguration.
+     *
+     * @param dependent Die einbettende Konfiguration.
+     */
+    final void removeDependent(final AbstractGlueConfig dependent) {
+        for (WeakReference<AbstractGlueConfig> reference : dependents) {
+            AbstractGlueConfig config = reference.get();
+            if (config == null || config == dependent) {
+                dependents.remove(reference);
+            }
+        }
+    }
+
+    /**
+     * Liefert die geparsten Werte einer Eigenschaft. Passt der
+     * zwischengespeicherte Eintrag nicht mehr zum aktuellen Wert (z.B. weil
+     * eine eingebettete Konfiguration direkt geändert wurde), wird der Wert
+     * neu geparst.
+     *
+     * @param key Der Schlüssel.
+     * @param value Der aktuelle Wert der Eigenschaft.
+     * @return Die geparsten Werte.
+     */
+    private TypedValue typedValue(final String key, final String value) {
+        TypedValue typedValue = typedValues.get(key);
+        if (typedValue == null || (typedValue.source != value
+                && !typedValue.source.equals(value))) {
+
+            typedValue = new TypedValue(value);
+            if (!typedValue.longValid && log.isDebugEnabled()) {
+                log.debug("Property '" + key + "' is not a number: " + value);
+            }
+            typedValues.put(key, typedValue);
+        }
+        return typedValue;
+    }
+
     // --------------------------------------------------------------------------------------------
 
     /**
      * Ersetzt die ${...} Platzhalter in einem String. Die Ersetzung werden
      * in einer Map gelagert. Die Schlüssel repräsentieren die Platzhalter
      * im String. Die Ersetzungen sind die Werte der Schlüssel in der
-     * <code>placeholders</code> Map.
+     * <code>placeholders</code> Map. Der String wird in einem Durchgang
+     * bearbeitet, eingesetzte Werte werden nicht erneut ersetzt. Für
+     * verschachtelte Platzhalter siehe {@link #interpolatedConfiguration()}.
      *
      * @param string Der zu prüfende String.
      * @param placeholders Die Ersetzungen.
@@ -189,21 +544,7 @@ abstract class AbstractGlueConfig implements GlueConfig {
     public static String replacePlaceholder(final String string,
         final Map<String, String> placeholders) {
 
-        String result = string;
-        String[] keys = StringUtils.substringsBetween(string, "${", "}");
-
-        if (keys != null) {
-            for (String key : keys) {
-                String value = placeholders.get(key);
-                if (value != null) {
-                    StringBuilder sb =
-                            new StringBuilder("${").append(key).append("}");
-                    result = StringUtils.replace(result, sb.toString(), value);
-                }
-            }
-        }
-
-        return result;
+        return Interpolator.replace(string, placeholders);
     }
 
 }
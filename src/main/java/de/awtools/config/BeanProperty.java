@@ -0,0 +1,115 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ein an einen Präfix gebundenes Objekt. Das Objekt wird beim Laden der
+ * Konfiguration und bei jeder Änderung einer Eigenschaft unterhalb des
+ * Präfix neu erzeugt; {@link #get()} liest nur noch ein Feld. Jede Aktualisierung liefert ein
+ * neues Objekt, ein bereits ausgegebenes Objekt wird nicht verändert.
+ * {@link #getKey()} liefert den Präfix.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @param <T> Die Klasse des gebundenen Objekts.
+ *
+ * @see GlueConfig#bind(Class, String)
+ */
+public final class BeanProperty<T> extends PropertyHandle
+        implements Supplier<T> {
+
+    /** Der Logger der Klasse. */
+    private final Logger log = LoggerFactory.getLogger(BeanProperty.class);
+
+    /** Erzeugt die Objekte. */
+    private final Binder<T> binder;
+
+    /** Die Schlüssel der Eigenschaften. */
+    private final String[] keys;
+
+    /** Das aktuelle Objekt. */
+    private volatile T value;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _prefix Der Präfix der Eigenschaften.
+     * @param _binder Erzeugt die Objekte.
+     */
+    BeanProperty(final String _prefix, final Binder<T> _binder) {
+        super(_prefix);
+        binder = _binder;
+        keys = _binder.keys(_prefix);
+    }
+
+    /**
+     * Liefert das aktuelle Objekt.
+     *
+     * @return Das Objekt.
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Das Objekt wird nur bei Änderungen unterhalb des Präfix neu erzeugt.
+     *
+     * @param changedKey Der geänderte Schlüssel.
+     * @return <code>true</code>, wenn der Schlüssel mit dem Präfix beginnt.
+     */
+    @Override
+    boolean isAffectedBy(final String changedKey) {
+        return changedKey.startsWith(getKey());
+    }
+
+    /**
+     * Erzeugt das Objekt neu. Schlägt das Erzeugen fehl (z.B. weil der
+     * Konstruktor einen Wert ablehnt), bleibt das bisherige Objekt erhalten.
+     * Nur beim ersten Erzeugen wird der Fehler geworfen.
+     */
+    @Override
+    void refresh(final GlueConfig config) {
+        T bound;
+        try {
+            bound = binder.bind(config, keys);
+        } catch (RuntimeException ex) {
+            if (value == null) {
+                throw ex;
+            }
+            log.warn("Binding '" + getKey() + "' failed. Keeping the"
+                + " previous instance.", ex);
+            return;
+        }
+        value = bound;
+    }
+
+}
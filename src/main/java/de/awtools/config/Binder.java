@@ -0,0 +1,372 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.beans.ConstructorProperties;
+import java.beans.Introspector;
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Erzeugt Objekte einer Klasse aus den Eigenschaften einer
+ * {@link GlueConfig}. Die Klasse wird nur einmal untersucht, ein
+ * <code>Binder</code> wird pro Klasse zwischengespeichert (siehe
+ * {@link #of(Class)}). Das Erzeugen eines Objekts ruft nur noch die
+ * vorbereiteten {@link MethodHandle}s auf, ohne Reflection.
+ * <p>
+ * Unterstützt werden zwei Arten von Klassen:
+ * </p>
+ * <ul>
+ * <li>Unveränderliche Klassen mit einem öffentlichen Konstruktor, der mit
+ * {@link ConstructorProperties} annotiert ist. Die Namen der Annotation
+ * sind die Schlüssel unterhalb des Präfix. Fehlende Eigenschaften werden
+ * als <code>0</code>, <code>false</code> bzw. <code>null</code>
+ * übergeben.</li>
+ * <li>Klassen mit einem öffentlichen Konstruktor ohne Parameter und
+ * öffentlichen Settern. Der Name des Setters ohne <code>set</code> ist der
+ * Schlüssel unterhalb des Präfix. Setter für fehlende Eigenschaften werden
+ * nicht aufgerufen, Setter anderer Typen werden ignoriert.</li>
+ * </ul>
+ * Die Werte werden über {@link GlueConfig#getInt(String)},
+ * {@link GlueConfig#getLong(String)}, {@link GlueConfig#getBool(String)},
+ * {@link GlueConfig#getString(String)} und
+ * {@link GlueConfig#getFile(String)} gelesen. Unterstützt werden diese
+ * Typen und die Wrapper-Klassen <code>Integer</code>, <code>Long</code> und
+ * <code>Boolean</code>.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @param <T> Die Klasse der erzeugten Objekte.
+ */
+final class Binder<T> {
+
+    /** Die Binder pro Klasse. */
+    private static final ClassValue<Binder<?>> BINDERS =
+            new ClassValue<Binder<?>>() {
+                @Override
+                protected Binder<?> computeValue(final Class<?> type) {
+                    return create(type);
+                }
+            };
+
+    /** Ein <code>int</code> Wert. */
+    private static final int INT = 0;
+
+    /** Ein <code>long</code> Wert. */
+    private static final int LONG = 1;
+
+    /** Ein <code>boolean</code> Wert. */
+    private static final int BOOLEAN = 2;
+
+    /** Ein String. */
+    private static final int STRING = 3;
+
+    /** Eine Datei. */
+    private static final int FILE = 4;
+
+    /** Die erzeugte Klasse. */
+    private final Class<T> type;
+
+    /** Die Namen der Eigenschaften. */
+    private final String[] names;
+
+    /** Die Art jeder Eigenschaft, siehe {@link #INT} usw. */
+    private final int[] kinds;
+
+    /** Ist die Eigenschaft ein primitiver Typ? */
+    private final boolean[] primitives;
+
+    /**
+     * Der Konstruktor. Mit Settern vom Typ <code>()Object</code>, sonst
+     * vom Typ <code>(Object[])Object</code>.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Die Setter vom Typ <code>(Object, Object)void</code> oder
+     * <code>null</code>, wenn alle Werte an den Konstruktor gehen.
+     */
+    private final MethodHandle[] setters;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _type Die erzeugte Klasse.
+     * @param _names Die Namen der Eigenschaften.
+     * @param types Die Typen der Eigenschaften.
+     * @param _constructor Der Konstruktor.
+     * @param _setters Die Setter oder <code>null</code>.
+     */
+    private Binder(final Class<T> _type, final String[] _names,
+        final Class<?>[] types, final MethodHandle _constructor,
+        final MethodHandle[] _setters) {
+
+        type = _type;
+        names = _names;
+        kinds = new int[types.length];
+        primitives = new boolean[types.length];
+        for (int index = 0; index < types.length; index++) {
+            kinds[index] = kind(types[index]);
+            primitives[index] = types[index].isPrimitive();
+        }
+        constructor = _constructor;
+        setters = _setters;
+    }
+
+    /**
+     * Liefert den Binder einer Klasse. Die Klasse wird nur beim ersten
+     * Aufruf untersucht.
+     *
+     * @param type Die Klasse.
+     * @return Der Binder.
+     * @throws IllegalArgumentException Die Klasse kann nicht gebunden
+     *     werden.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Binder<T> of(final Class<T> type) {
+        return (Binder<T>) BINDERS.get(type);
+    }
+
+    /**
+     * Liefert die Schlüssel der Eigenschaften unterhalb eines Präfix.
+     *
+     * @param prefix Der Präfix.
+     * @return Die Schlüssel in der Reihenfolge der Eigenschaften.
+     */
+    String[] keys(final String prefix) {
+        String[] keys = new String[names.length];
+        for (int index = 0; index < names.length; index++) {
+            keys[index] = prefix + names[index];
+        }
+        return keys;
+    }
+
+    /**
+     * Erzeugt ein neues Objekt aus den Eigenschaften einer Konfiguration.
+     *
+     * @param config Die Konfiguration.
+     * @param keys Die Schlüssel, siehe {@link #keys(String)}.
+     * @return Das neue Objekt.
+     */
+    T bind(final GlueConfig config, final String[] keys) {
+        try {
+            if (setters == null) {
+                Object[] args = new Object[keys.length];
+                for (int index = 0; index < keys.length; index++) {
+                    args[index] = value(config, keys[index], index);
+                }
+                return type.cast((Object) constructor.invokeExact(args));
+            }
+
+            Object bean = (Object) constructor.invokeExact();
+            for (int index = 0; index < keys.length; index++) {
+                if (config.getString(keys[index]) != null) {
+                    Object value = value(config, keys[index], index);
+                    setters[index].invokeExact(bean, value);
+                }
+            }
+            return type.cast(bean);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Binding " + type.getName()
+                + " failed.", ex);
+        }
+    }
+
+    /**
+     * Liest den Wert einer Eigenschaft.
+     *
+     * @param config Die Konfiguration.
+     * @param key Der Schlüssel.
+     * @param index Der Index der Eigenschaft.
+     * @return Der Wert. <code>null</code> für eine fehlende Eigenschaft mit
+     *     nicht primitivem Typ.
+     */
+    private Object value(final GlueConfig config, final String key,
+        final int index) {
+
+        if (!primitives[index] && kinds[index] != STRING
+                && config.getString(key) == null) {
+            return null;
+        }
+        switch (kinds[index]) {
+            case INT:
+                return Integer.valueOf(config.getInt(key));
+            case LONG:
+                return Long.valueOf(config.getLong(key));
+            case BOOLEAN:
+                return Boolean.valueOf(config.getBool(key));
+            case FILE:
+                return config.getFile(key);
+            default:
+                return config.getString(key);
+        }
+    }
+
+    /**
+     * Untersucht eine Klasse.
+     *
+     * @param type Die Klasse.
+     * @return Der Binder der Klasse.
+     * @throws IllegalArgumentException Die Klasse kann nicht gebunden
+     *     werden.
+     */
+    private static <T> Binder<T> create(final Class<T> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            for (Constructor<?> candidate : type.getConstructors()) {
+                ConstructorProperties properties =
+                        candidate.getAnnotation(ConstructorProperties.class);
+                if (properties != null) {
+                    return createForConstructor(type, lookup, candidate,
+                        properties.value());
+                }
+            }
+            return createForSetters(type, lookup);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("Can not bind "
+                + type.getName(), ex);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(type.getName()
+                + " needs a public no-arg or @ConstructorProperties"
+                + " constructor.", ex);
+        }
+    }
+
+    /**
+     * Erzeugt einen Binder für einen Konstruktor mit
+     * {@link ConstructorProperties}.
+     *
+     * @param type Die Klasse.
+     * @param lookup Der Lookup für die MethodHandles.
+     * @param candidate Der Konstruktor.
+     * @param names Die Namen der Parameter.
+     * @return Der Binder.
+     * @throws IllegalAccessException Kein Zugriff auf den Konstruktor.
+     */
+    private static <T> Binder<T> createForConstructor(final Class<T> type,
+        final MethodHandles.Lookup lookup, final Constructor<?> candidate,
+        final String[] names) throws IllegalAccessException {
+
+        Class<?>[] types = candidate.getParameterTypes();
+        if (names.length != types.length) {
+            throw new IllegalArgumentException("@ConstructorProperties of "
+                + type.getName() + " does not match the parameters.");
+        }
+        for (Class<?> parameter : types) {
+            if (kind(parameter) < 0) {
+                throw new IllegalArgumentException("Unsupported type "
+                    + parameter.getName() + " in " + type.getName());
+            }
+        }
+        MethodHandle handle = lookup.unreflectConstructor(candidate)
+            .asSpreader(Object[].class, types.length)
+            .asType(MethodType.methodType(Object.class, Object[].class));
+        return new Binder<T>(type, names, types, handle, null);
+    }
+
+    /**
+     * Erzeugt einen Binder für einen Konstruktor ohne Parameter und
+     * Setter.
+     *
+     * @param type Die Klasse.
+     * @param lookup Der Lookup für die MethodHandles.
+     * @return Der Binder.
+     * @throws IllegalAccessException Kein Zugriff auf Konstruktor oder
+     *     Setter.
+     * @throws NoSuchMethodException Kein Konstruktor ohne Parameter.
+     */
+    private static <T> Binder<T> createForSetters(final Class<T> type,
+        final MethodHandles.Lookup lookup)
+            throws IllegalAccessException, NoSuchMethodException {
+
+        MethodHandle handle = lookup.unreflectConstructor(
+            type.getConstructor()).asType(MethodType.methodType(Object.class));
+
+        List<String> names = new ArrayList<String>();
+        List<Class<?>> types = new ArrayList<Class<?>>();
+        List<MethodHandle> setters = new ArrayList<MethodHandle>();
+        Set<String> known = new HashSet<String>();
+        MethodType setterType =
+                MethodType.methodType(void.class, Object.class, Object.class);
+        for (Method method : type.getMethods()) {
+            String name = method.getName();
+            if (name.length() > 3 && name.startsWith("set")
+                    && method.getParameterTypes().length == 1
+                    && !Modifier.isStatic(method.getModifiers())
+                    && !method.isBridge()
+                    && kind(method.getParameterTypes()[0]) >= 0) {
+
+                String property = Introspector.decapitalize(name.substring(3));
+                if (known.add(property)) {
+                    names.add(property);
+                    types.add(method.getParameterTypes()[0]);
+                    setters.add(lookup.unreflect(method).asType(setterType));
+                }
+            }
+        }
+        return new Binder<T>(type, names.toArray(new String[names.size()]),
+            types.toArray(new Class<?>[types.size()]), handle,
+            setters.toArray(new MethodHandle[setters.size()]));
+    }
+
+    /**
+     * Liefert die Art eines Typs.
+     *
+     * @param type Der Typ.
+     * @return {@link #INT}, {@link #LONG}, {@link #BOOLEAN},
+     *     {@link #STRING}, {@link #FILE} oder <code>-1</code> für einen
+     *     nicht unterstützten Typ.
+     */
+    private static int kind(final Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return INT;
+        } else if (type == long.class || type == Long.class) {
+            return LONG;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type == File.class) {
+            return FILE;
+        }
+        return -1;
+    }
+
+}
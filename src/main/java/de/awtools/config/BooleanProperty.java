@@ -0,0 +1,74 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Eine an einen Schlüssel gebundene <code>boolean</code> Eigenschaft. Der Wert
+ * wird beim Laden der Konfiguration aufgelöst; {@link #getAsBoolean()} liest nur
+ * noch ein Feld.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see GlueConfig#boolHandle(String, boolean)
+ */
+public final class BooleanProperty extends PropertyHandle implements BooleanSupplier {
+
+    /** Der Defaultwert. */
+    private final boolean defaultValue;
+
+    /** Der aufgelöste Wert. */
+    private volatile boolean value;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _key Der Schlüssel der Eigenschaft.
+     * @param _defaultValue Der Defaultwert.
+     */
+    BooleanProperty(final String _key, final boolean _defaultValue) {
+        super(_key);
+        defaultValue = _defaultValue;
+        value = _defaultValue;
+    }
+
+    /**
+     * Liefert den aktuellen Wert der Eigenschaft.
+     *
+     * @return Der Wert der Eigenschaft.
+     */
+    public boolean getAsBoolean() {
+        return value;
+    }
+
+    @Override
+    void refresh(final GlueConfig config) {
+        value = config.getBool(getKey(), defaultValue);
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verwaltet die {@link ConfigChangeListener} einer Konfiguration. Die Werte
+ * der letzten Benachrichtigung werden in einer eigenen Kopie gehalten. Bei
+ * der Änderung eines einzelnen Schlüssels wird nur dieser Schlüssel
+ * verglichen, sonst die aktuelle Momentaufnahme mit der Kopie. Die Listener
+ * werden über einen {@link Executor} informiert, so dass ein langsamer
+ * Listener das Laden der Konfiguration nicht aufhält. Solange kein Listener
+ * registriert ist, wird keine Kopie gehalten.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class ChangeListeners {
+
+    /** Der Logger der Klasse. */
+    private final Logger log =
+            LoggerFactory.getLogger(ChangeListeners.class);
+
+    /** Die registrierten Listener. */
+    private final List<Registration> registrations =
+            new CopyOnWriteArrayList<Registration>();
+
+    /** Der Executor für die Benachrichtigungen. */
+    private volatile Executor executor;
+
+    /**
+     * Die Werte der letzten Benachrichtigung. Ist <code>null</code>, solange
+     * kein Listener registriert ist.
+     */
+    private Map<String, String> lastValues;
+
+    /**
+     * Registriert einen Listener.
+     *
+     * @param config Die Konfiguration, deren Änderungen gemeldet werden.
+     * @param key Der Schlüssel oder das Präfix der relevanten Schlüssel.
+     *     <code>null</code> steht für alle Schlüssel.
+     * @param prefix <code>true</code>, wenn <code>key</code> ein Präfix ist.
+     * @param listener Der Listener.
+     */
+    synchronized void add(final AbstractGlueConfig config, final String key,
+        final boolean prefix, final ConfigChangeListener listener) {
+
+        Validate.notNull(listener);
+        if (lastValues == null) {
+            lastValues = new HashMap<String, String>(config.snapshot());
+        }
+        registrations.add(new Registration(key, prefix, listener));
+    }
+
+    /**
+     * Entfernt alle Registrierungen eines Listeners.
+     *
+     * @param listener Der Listener.
+     */
+    synchronized void remove(final ConfigChangeListener listener) {
+        for (Registration registration : registrations) {
+            if (registration.listener == listener) {
+                registrations.remove(registration);
+            }
+        }
+        if (registrations.isEmpty()) {
+            lastValues = null;
+        }
+    }
+
+    /**
+     * Setzt den Executor für die Benachrichtigungen.
+     *
+     * @param _executor Der Executor. <code>null</code> verwendet einen
+     *     gemeinsamen Hintergrund-Thread.
+     */
+    void setExecutor(final Executor _executor) {
+        executor = _executor;
+    }
+
+    /**
+     * Vergleicht die aktuellen Werte der Konfiguration mit denen der
+     * letzten Benachrichtigung und informiert die betroffenen Listener.
+     *
+     * @param config Die geänderte Konfiguration.
+     * @param key Der geänderte Schlüssel oder <code>null</code>, wenn sich
+     *     alle Eigenschaften geändert haben können.
+     */
+    synchronized void fire(final AbstractGlueConfig config, final String key) {
+        if (lastValues == null) {
+            return;
+        }
+
+        Map<String, String> oldValues = new HashMap<String, String>();
+        Map<String, String> newValues = new HashMap<String, String>();
+        if (key != null) {
+            Object value = config.doGetProperty(key);
+            String newValue = (value == null) ? null : value.toString();
+            String oldValue = lastValues.get(key);
+            if (ObjectUtils.equals(oldValue, newValue)) {
+                return;
+            }
+            if (oldValue != null) {
+                oldValues.put(key, oldValue);
+            }
+            if (newValue != null) {
+                newValues.put(key, newValue);
+                lastValues.put(key, newValue);
+            } else {
+                lastValues.remove(key);
+            }
+        } else {
+            Map<String, String> snapshot = config.snapshot();
+            for (Map.Entry<String, String> entry : snapshot.entrySet()) {
+                String oldValue = lastValues.get(entry.getKey());
+                if (!ObjectUtils.equals(entry.getValue(), oldValue)) {
+                    if (oldValue != null) {
+                        oldValues.put(entry.getKey(), oldValue);
+                    }
+                    newValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, String> entry : lastValues.entrySet()) {
+                if (!snapshot.containsKey(entry.getKey())) {
+                    oldValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            lastValues = new HashMap<String, String>(snapshot);
+        }
+        if (oldValues.isEmpty() && newValues.isEmpty()) {
+            return;
+        }
+
+        // Innerhalb der Sperre übergeben, damit die Reihenfolge erhalten
+        // bleibt.
+        Executor current = executor;
+        if (current == null) {
+            current = DefaultExecutor.INSTANCE;
+        }
+        for (final Registration registration : registrations) {
+            final ConfigChangeEvent event =
+                    registration.filter(oldValues, newValues);
+            if (!event.isEmpty()) {
+                current.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            registration.listener.configurationChanged(event);
+                        } catch (RuntimeException ex) {
+                            log.warn("ConfigChangeListener failed.", ex);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Die Registrierung eines Listeners.
+     */
+    private static final class Registration {
+
+        /** Schlüssel, Präfix oder <code>null</code> für alle Schlüssel. */
+        private final String key;
+
+        /** Ist {@link #key} ein Präfix? */
+        private final boolean prefix;
+
+        /** Der Listener. */
+        private final ConfigChangeListener listener;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _key Schlüssel, Präfix oder <code>null</code>.
+         * @param _prefix Ist <code>_key</code> ein Präfix?
+         * @param _listener Der Listener.
+         */
+        private Registration(final String _key, final boolean _prefix,
+            final ConfigChangeListener _listener) {
+
+            key = _key;
+            prefix = _prefix;
+            listener = _listener;
+        }
+
+        /**
+         * Beschränkt die Änderungen auf die für den Listener relevanten
+         * Schlüssel.
+         *
+         * @param oldValues Die alten Werte.
+         * @param newValues Die neuen Werte.
+         * @return Das Ereignis für den Listener.
+         */
+        private ConfigChangeEvent filter(final Map<String, String> oldValues,
+            final Map<String, String> newValues) {
+
+            if (key == null) {
+                return new ConfigChangeEvent(oldValues, newValues);
+            }
+            return new ConfigChangeEvent(select(oldValues), select(newValues));
+        }
+
+        /**
+         * Wählt die relevanten Schlüssel aus.
+         *
+         * @param values Die Werte.
+         * @return Die Werte der relevanten Schlüssel.
+         */
+        private Map<String, String> select(final Map<String, String> values) {
+            Map<String, String> result = new HashMap<String, String>();
+            if (prefix) {
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    if (entry.getKey().startsWith(key)) {
+                        result.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            } else if (values.containsKey(key)) {
+                result.put(key, values.get(key));
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Der gemeinsame Hintergrund-Thread für die Benachrichtigungen. Wird
+     * erst bei Bedarf angelegt.
+     */
+    private static final class DefaultExecutor {
+
+        /** Der Executor. */
+        private static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    public Thread newThread(final Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                            "awtools-config-listener");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+    }
+
+}
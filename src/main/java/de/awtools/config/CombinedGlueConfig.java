@@ -26,22 +26,79 @@
 package de.awtools.config;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.commons.collections.IteratorUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Verwaltet mehrere {@link GlueConfig}s. Eine Konfiguration überschreibt
  * ggf. die Eigenschaften der nachfolgenden Konfiguration.
+ * <p>
+ * Im kompilierten Modus (siehe {@link #setCompiled(boolean)}) werden die
+ * Konfigurationen nach dem Laden einmalig zu einer unveränderlichen Map
+ * zusammengeführt. Die Rangfolge der Konfigurationen ist in dieser Map
+ * bereits berücksichtigt, so dass eine Abfrage nur noch einen Zugriff auf
+ * die Map benötigt. Die Map wird durch {@link #load()},
+ * {@link #setProperty(String, String)} und {@link #addConfig(GlueConfig)}
+ * verworfen und bei der nächsten Abfrage neu aufgebaut. Das gilt auch für
+ * Änderungen an einer eingebetteten {@link AbstractGlueConfig}
+ * Implementierung, die diese Konfiguration über
+ * {@link #layerChanged(GlueConfig, String)} erreichen.
+ * </p>
+ * <p>
+ * Lesende Zugriffe sind ohne Sperren möglich. Die Liste der
+ * Konfigurationen ist eine {@link CopyOnWriteArrayList}, die kompilierte
+ * Map wird über eine {@link AtomicReference} veröffentlicht. Eine während
+ * einer Änderung gebaute Map wird verworfen und nicht veröffentlicht.
+ * {@link #asMap()} und {@link #asProperties()} liefern diese Map ohne
+ * weitere Kopie.
+ * </p>
+ * <p>
+ * Außerhalb des kompilierten Modus hält die Konfiguration pro verwalteter
+ * Konfiguration einen Bloom-Filter über deren Schlüssel. Eine Abfrage
+ * überspringt alle Konfigurationen, die den Schlüssel sicher nicht
+ * enthalten. Zusätzlich werden bis zu 4096 Schlüssel gemerkt, die in
+ * keiner Konfiguration mit Filter vorkommen. Für sie werden nur noch die
+ * Konfigurationen ohne Filter gefragt, die ihre Änderungen nicht melden.
+ * Filter und Schlüssel werden bei jeder gemeldeten Änderung verworfen.
+ * </p>
+ * <p>
+ * Mit {@link #setLoadExecutor(Executor)} lädt {@link #load()} die
+ * Konfigurationen parallel. Pro Konfiguration lassen sich eine Zeitgrenze
+ * und eine {@link LoadFailurePolicy} festlegen, siehe
+ * {@link #addConfig(GlueConfig, LoadFailurePolicy, long)}.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 3054 $ $Date: 2011-12-19 18:51:55 +0100 (Mo, 19 Dez 2011) $
  */
 public final class CombinedGlueConfig extends AbstractGlueConfig {
 
+    /** Ein Logger für die Klasse. */
+    private final Logger log =
+            LoggerFactory.getLogger(CombinedGlueConfig.class);
+
     /**
      * Die Liste der verwalteten Konfigurationen. Die Reihenfolge definiert
      * eine Ordnung über die Konfigurationen. Auf der Suche nach einer
@@ -51,7 +108,66 @@ public final class CombinedGlueConfig extends AbstractGlueConfig {
      * Die Konfiguration an Position 0 wird für das Ändern und die Neuanlage
      * von Eigenschaften verwendet.
      */
-    private final List<GlueConfig> configs = new LinkedList<GlueConfig>();
+    private final List<GlueConfig> configs =
+            new CopyOnWriteArrayList<GlueConfig>();
+
+    /** Kompilierter Modus an/aus. */
+    private volatile boolean compiled = false;
+
+    /**
+     * Die zusammengeführten Eigenschaften aller Konfigurationen. Jede
+     * Änderung setzt einen neuen, leeren {@link Compilation} Eintrag. Eine
+     * neu gebaute Map wird nur veröffentlicht, wenn seit Beginn des Baus
+     * keine Änderung stattgefunden hat.
+     */
+    private final AtomicReference<Compilation> compilation =
+            new AtomicReference<Compilation>(new Compilation(null, null, null));
+
+    /**
+     * Ist <code>true</code>, während {@link #load()} die eingebetteten
+     * Konfigurationen lädt. Deren Änderungsmeldungen werden dann erst am
+     * Ende gesammelt weitergegeben.
+     */
+    private volatile boolean loading = false;
+
+    /**
+     * Ist <code>true</code>, wenn eine Konfiguration während
+     * {@link #load()} eine Änderung gemeldet hat.
+     */
+    private volatile boolean changedWhileLoading = false;
+
+    /**
+     * Der Inhalt der Konfigurationen, die ihre Änderungen nicht melden, beim
+     * letzten {@link #load()} (siehe {@link #liveContents()}).
+     */
+    private volatile List<Map<String, String>> loadedLiveContents;
+
+    /**
+     * Ist <code>true</code>, sobald eine Konfiguration verwaltet wird, die
+     * keine {@link AbstractGlueConfig} ist und ihre Änderungen nicht meldet.
+     */
+    private volatile boolean foreignLayers = false;
+
+    /**
+     * Die Bloom-Filter der Konfigurationen und die Menge der zuletzt nicht
+     * gefundenen Schlüssel. Wird wie {@link #compilation} bei jeder
+     * Änderung verworfen und bei Bedarf neu aufgebaut.
+     */
+    private final AtomicReference<LayerFilters> filters =
+            new AtomicReference<LayerFilters>(new LayerFilters(null, null, false));
+
+    /** Fehlerbehandlung und Zeitgrenze pro Konfiguration. */
+    private final Map<GlueConfig, LoadOptions> loadOptions =
+            new IdentityHashMap<GlueConfig, LoadOptions>();
+
+    /** Lädt die Konfigurationen parallel. Ohne Executor nacheinander. */
+    private volatile Executor loadExecutor;
+
+    /**
+     * Zählt die Treffer pro Konfiguration. Ist <code>null</code>, solange
+     * keine {@link MeteredGlueConfig} die Suchen beobachtet.
+     */
+    private volatile LayerCounters layerCounters;
 
     /**
      * Eine weitere Konfiguration hinzufügen.
@@ -60,13 +176,263 @@ public final class CombinedGlueConfig extends AbstractGlueConfig {
      *
      * @see #configs
      */
-    public void addConfig(final GlueConfig config) {
+    public synchronized void addConfig(final GlueConfig config) {
+        addConfig(config, LoadFailurePolicy.FAIL, 0);
+    }
+
+    /**
+     * Eine weitere Konfiguration hinzufügen.
+     *
+     * @param config Eine Konfiguration.
+     * @param policy Die Reaktion auf einen Fehler beim Laden dieser
+     *     Konfiguration.
+     * @param timeoutMillis Die Zeitgrenze für das Laden dieser Konfiguration
+     *     in Millisekunden, <code>0</code> für keine Zeitgrenze. Die
+     *     Zeitgrenze gilt nur für das parallele Laden, siehe
+     *     {@link #setLoadExecutor(Executor)}.
+     * @throws IllegalArgumentException Die Konfiguration wurde bereits
+     *     hinzugefügt.
+     *
+     * @see #configs
+     */
+    public synchronized void addConfig(final GlueConfig config,
+        final LoadFailurePolicy policy, final long timeoutMillis) {
+
+        Validate.notNull(config);
+        Validate.notNull(policy);
+        Validate.isTrue(timeoutMillis >= 0);
+        Validate.isTrue(!loadOptions.containsKey(config),
+            "The configuration was already added.");
+
+        loadOptions.put(config, new LoadOptions(policy, timeoutMillis));
         configs.add(config);
+        if (config instanceof AbstractGlueConfig) {
+            ((AbstractGlueConfig) config).addDependent(this);
+        } else {
+            foreignLayers = true;
+        }
+        discardCompilation();
+        propertiesChanged();
+    }
+
+    /**
+     * Schaltet den kompilierten Modus an oder aus. Im kompilierten Modus
+     * werden die Eigenschaften aller Konfigurationen einmalig
+     * zusammengeführt und alle Abfragen aus dieser Zusammenführung
+     * beantwortet. Änderungen an einer verwalteten Konfiguration, die keine
+     * {@link AbstractGlueConfig} ist, sind erst nach einem erneuten
+     * {@link #load()} sichtbar.
+     *
+     * @param _compiled <code>true</code> schaltet den kompilierten Modus an.
+     */
+    public void setCompiled(final boolean _compiled) {
+        compiled = _compiled;
+        discardCompilation();
+    }
+
+    /**
+     * Ist der kompilierte Modus eingeschaltet?
+     *
+     * @return <code>true</code>, wenn der kompilierte Modus aktiv ist.
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Setzt den Executor, über den {@link #load()} die Konfigurationen
+     * parallel lädt. Die Rangfolge der Konfigurationen hängt nicht von der
+     * Reihenfolge ab, in der sie fertig werden. {@link #load()} kehrt erst
+     * zurück, wenn alle Konfigurationen geladen sind oder ihre Zeitgrenze
+     * überschritten haben. Nach Ablauf der Zeitgrenze wird der Ladevorgang
+     * abgebrochen und sein Thread unterbrochen. Reagiert die Konfiguration
+     * darauf nicht, kann sie ihren neuen Stand noch später veröffentlichen;
+     * die Änderung wird dann wie jede andere Änderung der Konfiguration
+     * gemeldet. Ohne Executor werden die Konfigurationen nacheinander im
+     * aufrufenden Thread geladen.
+     *
+     * @param executor Der Executor oder <code>null</code>.
+     */
+    public void setLoadExecutor(final Executor executor) {
+        loadExecutor = executor;
+    }
+
+    /**
+     * Lädt alle Konfigurationen. Schlägt das Laden einer Konfiguration fehl,
+     * entscheidet deren {@link LoadFailurePolicy}. Beim parallelen Laden
+     * wird der Fehler der ranghöchsten Konfiguration mit
+     * {@link LoadFailurePolicy#FAIL} geworfen, die übrigen Fehler hängen
+     * als <i>suppressed</i> Exceptions daran. Meldet keine Konfiguration
+     * eine Änderung, bleibt die zusammengeführte Map erhalten und es werden
+     * keine Änderungen gemeldet.
+     *
+     * @throws IOException Fehler beim Laden.
+     */
+    public synchronized void load() throws IOException {
+        Object event = ConfigEvents.LOAD.begin();
+        changedWhileLoading = false;
+        loading = true;
+        boolean changed = true;
+        boolean loaded = false;
+        try {
+            Executor executor = loadExecutor;
+            if (executor == null) {
+                loadSequential();
+            } else {
+                loadParallel(executor);
+            }
+            loaded = true;
+        } finally {
+            loading = false;
+            // Ohne gemeldete Änderung und bei unverändertem Inhalt der
+            // übrigen Konfigurationen bleibt die Zusammenführung gültig.
+            List<Map<String, String>> live = liveContents();
+            changed = changedWhileLoading || !live.equals(loadedLiveContents);
+            loadedLiveContents = live;
+            if (changed) {
+                discardCompilation();
+                propertiesChanged();
+            }
+            ConfigEvents.LOAD.commit(event, toString(),
+                Long.valueOf(loadedBytes()), Boolean.valueOf(changed));
+        }
+        // Erst nach erfolgreichem Laden aller Konfigurationen zusammenführen.
+        // Nach einem Fehler geschieht das erst bei der nächsten Abfrage.
+        if (loaded && changed && compiled) {
+            compiledProperties();
+        }
     }
 
-    public void load() throws IOException {
+    /**
+     * Lädt die Konfigurationen nacheinander.
+     *
+     * @throws IOException Fehler beim Laden.
+     */
+    private void loadSequential() throws IOException {
+        for (GlueConfig cc : configs) {
+            try {
+                cc.load();
+            } catch (IOException ex) {
+                rethrow(failed(cc, ex, null));
+            } catch (RuntimeException ex) {
+                rethrow(failed(cc, ex, null));
+            }
+        }
+    }
+
+    /**
+     * Lädt die Konfigurationen parallel und wartet auf alle. Lehnt der
+     * Executor eine Konfiguration ab, wird das wie ein Fehler beim Laden
+     * dieser Konfiguration behandelt. Führt der Fehler zum Abbruch, werden
+     * die bereits übergebenen Ladevorgänge abgebrochen.
+     *
+     * @param executor Der Executor.
+     * @throws IOException Fehler beim Laden.
+     */
+    private void loadParallel(final Executor executor) throws IOException {
+        List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>();
+        Exception failure = null;
+        for (final GlueConfig cc : configs) {
+            FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+                public Void call() throws IOException {
+                    cc.load();
+                    return null;
+                }
+            });
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                failure = failed(cc, ex, failure);
+                if (failure != null) {
+                    for (FutureTask<Void> submitted : tasks) {
+                        if (submitted != null) {
+                            submitted.cancel(true);
+                        }
+                    }
+                    rethrow(failure);
+                }
+                task = null;
+            }
+            tasks.add(task);
+        }
+
+        long start = System.nanoTime();
+        int index = 0;
         for (GlueConfig cc : configs) {
-            cc.load();
+            FutureTask<Void> task = tasks.get(index++);
+            if (task == null) {
+                // Vom Executor abgelehnt und ignoriert.
+                continue;
+            }
+            long timeout = loadOptions.get(cc).timeoutMillis;
+            try {
+                if (timeout > 0) {
+                    long remaining = TimeUnit.MILLISECONDS.toNanos(timeout)
+                        - (System.nanoTime() - start);
+                    task.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } else {
+                    task.get();
+                }
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                failure = failed(cc, (Exception) cause, failure);
+            } catch (TimeoutException ex) {
+                task.cancel(true);
+                failure = failed(cc, new InterruptedIOException(
+                    "Loading timed out after " + timeout + " ms: " + cc),
+                    failure);
+            } catch (InterruptedException ex) {
+                for (FutureTask<Void> pending : tasks) {
+                    if (pending != null) {
+                        pending.cancel(true);
+                    }
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Loading interrupted.");
+            }
+        }
+        rethrow(failure);
+    }
+
+    /**
+     * Behandelt den Fehler einer Konfiguration gemäß ihrer
+     * {@link LoadFailurePolicy}.
+     *
+     * @param cc Die Konfiguration.
+     * @param ex Der Fehler.
+     * @param failure Der bisher gesammelte Fehler oder <code>null</code>.
+     * @return Der gesammelte Fehler oder <code>null</code>.
+     */
+    private Exception failed(final GlueConfig cc, final Exception ex,
+        final Exception failure) {
+
+        if (loadOptions.get(cc).policy == LoadFailurePolicy.IGNORE) {
+            log.warn("Loading of configuration " + cc + " failed.", ex);
+            return failure;
+        } else if (failure == null) {
+            return ex;
+        } else {
+            failure.addSuppressed(ex);
+            return failure;
+        }
+    }
+
+    /**
+     * Wirft einen gesammelten Fehler.
+     *
+     * @param failure Der Fehler oder <code>null</code>.
+     * @throws IOException Der Fehler.
+     */
+    private static void rethrow(final Exception failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
         }
     }
 
@@ -94,6 +460,24 @@ public final class CombinedGlueConfig extends AbstractGlueConfig {
         }
         GlueConfig cc = configs.get(0);
         cc.setProperty(key, value);
+        if (!(cc instanceof AbstractGlueConfig)) {
+            // Nur eine AbstractGlueConfig meldet ihre Änderungen selbst.
+            layerChanged(cc, key);
+        }
+    }
+
+    @Override
+    void layerChanged(final GlueConfig layer, final String key) {
+        if (loading) {
+            changedWhileLoading = true;
+        } else {
+            discardCompilation();
+            if (key == null) {
+                propertiesChanged();
+            } else {
+                propertyChanged(key);
+            }
+        }
     }
 
     /**
@@ -105,27 +489,456 @@ public final class CombinedGlueConfig extends AbstractGlueConfig {
      */
     @Override
     protected Object doGetProperty(final String key) {
-        Object result = null;
+        if (compiled) {
+            Compilation current = currentCompilation();
+            String value = current.properties.get(key);
+            return (value != null) ? value : current.aliases.get(key);
+        }
+        return lookup(key);
+    }
+
+    /**
+     * Liefert die zusammengeführten Eigenschaften. Fehlen diese, werden sie
+     * neu zusammengeführt.
+     *
+     * @return Die zusammengeführten Eigenschaften.
+     */
+    private Map<String, String> compiledProperties() {
+        return currentCompilation().properties;
+    }
+
+    /**
+     * Liefert die Zusammenführung. Fehlt diese, wird sie neu gebaut.
+     *
+     * @return Die Zusammenführung.
+     */
+    private Compilation currentCompilation() {
+        Compilation current = compilation.get();
+        if (current.properties == null) {
+            Compilation result = compile(null);
+            compilation.compareAndSet(current, result);
+            return result;
+        }
+        return current;
+    }
+
+    /**
+     * Liefert die zusammengeführten Eigenschaften. Melden alle verwalteten
+     * Konfigurationen ihre Änderungen, wird die Zusammenführung auch
+     * außerhalb des kompilierten Modus wiederverwendet, bis sich eine
+     * Konfiguration ändert. Sonst wird sie wiederverwendet, solange
+     * zusätzlich der Inhalt der Konfigurationen gleich bleibt, die ihre
+     * Änderungen nicht melden (z.B. {@link SystemGlueConfig} ohne
+     * Momentaufnahme). Geprüft wird dann nur deren Inhalt.
+     */
+    @Override
+    Map<String, String> snapshot() {
+        if (compiled || reportsAllChanges()) {
+            return compiledProperties();
+        }
+        Compilation current = compilation.get();
+        List<Map<String, String>> live = liveContents();
+        if (current.properties != null && live.equals(current.live)) {
+            return current.properties;
+        }
+        Compilation result = compile(live);
+        compilation.compareAndSet(current, result);
+        return result.properties;
+    }
+
+    /**
+     * Liefert die Aliase der verwalteten Konfigurationen, soweit sie keinen
+     * Schlüssel der zusammengeführten Eigenschaften überdecken.
+     */
+    @Override
+    Map<String, String> aliases() {
+        return currentCompilation().aliases;
+    }
+
+    /**
+     * Liefert den aktuellen Inhalt der Konfigurationen, die ihre Änderungen
+     * nicht melden. Für alle anderen Konfigurationen steht an ihrer Stelle
+     * <code>null</code>.
+     *
+     * @return Der Inhalt in der Rangfolge der Konfigurationen.
+     */
+    private List<Map<String, String>> liveContents() {
+        List<Map<String, String>> contents =
+                new ArrayList<Map<String, String>>(configs.size());
         for (GlueConfig gc : configs) {
-            String value = gc.getString(key);
-            if (StringUtils.isNotBlank(value)) {
-                result = value;
-                break;
-            }   
+            if (!(gc instanceof AbstractGlueConfig)) {
+                Map<String, String> properties =
+                        new HashMap<String, String>();
+                for (Iterator<String> i = gc.getKeyIterator(); i.hasNext();) {
+                    String key = i.next();
+                    String value = gc.getString(key);
+                    if (value != null) {
+                        properties.put(key, value);
+                    }
+                }
+                contents.add(properties);
+            } else if (((AbstractGlueConfig) gc).reportsAllChanges()) {
+                contents.add(null);
+            } else {
+                contents.add(((AbstractGlueConfig) gc).snapshot());
+            }
         }
-        return result;
+        return contents;
     }
 
-    @SuppressWarnings("unchecked")
-	public Iterator<String> getKeyIterator() {
-        @SuppressWarnings("rawtypes")
-		Iterator[] iterators = new Iterator[configs.size()];
-        int index = 0;
+    /**
+     * Liefert die Summe der beim letzten Laden gelesenen Bytes aller
+     * Konfigurationen.
+     */
+    @Override
+    long loadedBytes() {
+        long bytes = 0;
+        for (GlueConfig gc : configs) {
+            if (gc instanceof AbstractGlueConfig) {
+                bytes += ((AbstractGlueConfig) gc).loadedBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Melden alle verwalteten Konfigurationen ihre Änderungen?
+     */
+    @Override
+    boolean reportsAllChanges() {
+        if (foreignLayers) {
+            return false;
+        }
+        for (GlueConfig gc : configs) {
+            if (!((AbstractGlueConfig) gc).reportsAllChanges()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verwirft die zusammengeführten Eigenschaften, die Bloom-Filter und
+     * die nicht gefundenen Schlüssel.
+     */
+    private void discardCompilation() {
+        compilation.set(new Compilation(null, null, null));
+        filters.set(new LayerFilters(null, null, false));
+    }
+
+    /**
+     * Sucht eine Eigenschaft in der Reihenfolge der verwalteten
+     * Konfigurationen. Konfigurationen, deren Bloom-Filter den Schlüssel
+     * ausschließt, werden übersprungen. Ein Schlüssel, den keine
+     * Konfiguration mit Filter enthält, wird bis zur nächsten Änderung
+     * gemerkt. Danach werden für ihn nur noch die Konfigurationen ohne
+     * Filter gefragt.
+     *
+     * @param key Der Schlüssel.
+     * @return Die gefundene Eigenschaft oder <code>null</code>.
+     */
+    private String lookup(final String key) {
+        LayerFilters current = layerFilters();
+        LayerCounters counters = layerCounters;
+        boolean absent = current.isAbsent(key);
+        for (int index = 0; index < current.layers.length; index++) {
+            KeyFilter filter = current.filters[index];
+            if (filter == null || (!absent && filter.mightContain(key))) {
+                String value = current.layers[index].getString(key);
+                if (StringUtils.isNotBlank(value)) {
+                    if (counters != null) {
+                        counters.hit(current.layers[index]);
+                    }
+                    return value;
+                }
+            }
+        }
+        if (!absent) {
+            current.remember(key);
+        }
+        if (counters != null) {
+            counters.miss();
+        }
+        return null;
+    }
+
+    /**
+     * Liefert die Zähler für die Treffer pro Konfiguration. Erst der erste
+     * Aufruf schaltet das Zählen ein.
+     *
+     * @return Die Zähler.
+     */
+    synchronized LayerCounters layerCounters() {
+        if (layerCounters == null) {
+            layerCounters = new LayerCounters();
+        }
+        return layerCounters;
+    }
+
+    /**
+     * Liefert die verwalteten Konfigurationen in ihrer Rangfolge.
+     *
+     * @return Die Konfigurationen. Nicht veränderbar.
+     */
+    List<GlueConfig> layers() {
+        return Collections.unmodifiableList(configs);
+    }
+
+    /**
+     * Schätzt den Speicherbedarf der Schlüssel und Werte aller
+     * Konfigurationen und die dabei durch gemeinsame Strings gesparten
+     * Bytes. Der Bericht liest alle Eigenschaften und ist nicht für häufige
+     * Aufrufe gedacht.
+     *
+     * @return Der Bericht.
+     */
+    public FootprintReport footprint() {
+        return FootprintReport.of(configs);
+    }
+
+    /**
+     * Liefert die Bloom-Filter der Konfigurationen. Fehlen diese, werden
+     * sie neu aufgebaut. Einen Filter bekommen nur Konfigurationen, die
+     * alle Änderungen melden. Die Menge der nicht gefundenen Schlüssel gilt
+     * nur für diese Konfigurationen und wird geführt, sobald eine
+     * Konfiguration einen Filter hat.
+     *
+     * @return Die Bloom-Filter.
+     */
+    private LayerFilters layerFilters() {
+        LayerFilters current = filters.get();
+        if (current.layers != null) {
+            return current;
+        }
+
+        GlueConfig[] layers = configs.toArray(new GlueConfig[0]);
+        KeyFilter[] layerFilters = new KeyFilter[layers.length];
+        boolean filtered = false;
+        for (int index = 0; index < layers.length; index++) {
+            GlueConfig gc = layers[index];
+            if (gc instanceof AbstractGlueConfig
+                    && ((AbstractGlueConfig) gc).reportsAllChanges()) {
+                layerFilters[index] = keyFilter((AbstractGlueConfig) gc);
+                filtered = true;
+            }
+        }
+        LayerFilters built = new LayerFilters(layers, layerFilters, filtered);
+        filters.compareAndSet(current, built);
+        return built;
+    }
+
+    /**
+     * Baut den Bloom-Filter über die Schlüssel und Aliase einer
+     * Konfiguration.
+     *
+     * @param agc Die Konfiguration.
+     * @return Der Bloom-Filter.
+     */
+    private static KeyFilter keyFilter(final AbstractGlueConfig agc) {
+        Map<String, String> aliases = agc.aliases();
+        if (aliases.isEmpty()) {
+            return new KeyFilter(agc.getKeyIterator(), agc.size());
+        }
+        List<String> keys = new ArrayList<String>(agc.snapshot().keySet());
+        keys.addAll(aliases.keySet());
+        return new KeyFilter(keys.iterator(), keys.size());
+    }
+
+    /**
+     * Führt die Eigenschaften aller Konfigurationen unter Beachtung der
+     * Rangfolge zu einer unveränderlichen Map zusammen. Die Konfigurationen
+     * werden in ihrer Rangfolge durchlaufen, der erste nicht leere Wert
+     * eines Schlüssels gewinnt. Jede Eigenschaft jeder Konfiguration wird
+     * damit genau einmal gelesen.
+     * <p>
+     * Die Aliase einer Konfiguration (siehe
+     * {@link AbstractGlueConfig#aliases()}) werden getrennt gesammelt. Ist
+     * ein Alias zugleich Schlüssel einer nachrangigen Konfiguration,
+     * gewinnt der Wert des Alias und steht unter diesem Schlüssel in den
+     * Eigenschaften.
+     * </p>
+     *
+     * @param live Der Inhalt der nicht meldenden Konfigurationen oder
+     *     <code>null</code>.
+     * @return Die Zusammenführung.
+     */
+    private Compilation compile(final List<Map<String, String>> live) {
+        Map<String, String> merged = new HashMap<String, String>();
+        Map<String, String> aliases = new HashMap<String, String>();
         for (GlueConfig gc : configs) {
-            iterators[index] = gc.getKeyIterator();
-            index++;
+            for (Iterator<String> i = gc.getKeyIterator(); i.hasNext();) {
+                String key = i.next();
+                if (!merged.containsKey(key)) {
+                    String value = aliases.remove(key);
+                    if (value == null) {
+                        value = gc.getString(key);
+                    }
+                    if (StringUtils.isNotBlank(value)) {
+                        merged.put(key, value);
+                    }
+                }
+            }
+            if (gc instanceof AbstractGlueConfig) {
+                for (Map.Entry<String, String> alias
+                        : ((AbstractGlueConfig) gc).aliases().entrySet()) {
+
+                    String key = alias.getKey();
+                    if (!merged.containsKey(key) && !aliases.containsKey(key)
+                            && StringUtils.isNotBlank(alias.getValue())) {
+
+                        aliases.put(key, alias.getValue());
+                    }
+                }
+            }
         }
-        return (IteratorUtils.chainedIterator(iterators));
+        return new Compilation(Collections.unmodifiableMap(merged),
+            Collections.unmodifiableMap(aliases), live);
+    }
+
+    /**
+     * Liefert jeden wirksamen Schlüssel genau einmal. Schlüssel, die in
+     * keiner Konfiguration einen Wert haben, werden übersprungen. Die
+     * Schlüsselmenge stammt aus der aktuellen Momentaufnahme und wird nur
+     * nach einer Änderung neu aufgebaut.
+     *
+     * @return Ein Iterator über die Schlüssel.
+     */
+    public Iterator<String> getKeyIterator() {
+        return snapshot().keySet().iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "CombinedGlueConfig[" + configs.size() + " layers]";
+    }
+
+    /**
+     * Die Bloom-Filter zu einem Stand der Konfigurationen.
+     */
+    private static final class LayerFilters {
+
+        /** Die maximale Anzahl gemerkter, nicht gefundener Schlüssel. */
+        private static final int MAX_ABSENT_KEYS = 4096;
+
+        /** Die Konfigurationen oder <code>null</code>. */
+        private final GlueConfig[] layers;
+
+        /** Die Filter. <code>null</code> für Konfigurationen ohne Filter. */
+        private final KeyFilter[] filters;
+
+        /**
+         * Die Schlüssel, die in keiner Konfiguration mit Filter vorkommen,
+         * oder <code>null</code>.
+         */
+        private final ConcurrentMap<String, Boolean> absentKeys;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _layers Die Konfigurationen oder <code>null</code>.
+         * @param _filters Die Filter oder <code>null</code>.
+         * @param _trackAbsentKeys Nicht gefundene Schlüssel merken?
+         */
+        private LayerFilters(final GlueConfig[] _layers,
+            final KeyFilter[] _filters, final boolean _trackAbsentKeys) {
+
+            layers = _layers;
+            filters = _filters;
+            absentKeys = _trackAbsentKeys
+                ? new ConcurrentHashMap<String, Boolean>() : null;
+        }
+
+        /**
+         * Wurde der Schlüssel bereits nicht gefunden?
+         *
+         * @param key Der Schlüssel.
+         * @return <code>true</code>, wenn der Schlüssel in allen
+         *     Konfigurationen mit Filter sicher fehlt.
+         */
+        private boolean isAbsent(final String key) {
+            return (absentKeys != null) && absentKeys.containsKey(key);
+        }
+
+        /**
+         * Merkt sich einen nicht gefundenen Schlüssel. Ist die Menge voll,
+         * wird sie geleert.
+         *
+         * @param key Der Schlüssel.
+         */
+        private void remember(final String key) {
+            if (absentKeys != null) {
+                if (absentKeys.size() >= MAX_ABSENT_KEYS) {
+                    absentKeys.clear();
+                }
+                absentKeys.put(key, Boolean.TRUE);
+            }
+        }
+
+    }
+
+    /**
+     * Fehlerbehandlung und Zeitgrenze einer Konfiguration.
+     */
+    private static final class LoadOptions {
+
+        /** Die Reaktion auf einen Fehler. */
+        private final LoadFailurePolicy policy;
+
+        /** Die Zeitgrenze in Millisekunden oder <code>0</code>. */
+        private final long timeoutMillis;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _policy Die Reaktion auf einen Fehler.
+         * @param _timeoutMillis Die Zeitgrenze in Millisekunden.
+         */
+        private LoadOptions(final LoadFailurePolicy _policy,
+            final long _timeoutMillis) {
+
+            policy = _policy;
+            timeoutMillis = _timeoutMillis;
+        }
+
+    }
+
+    /**
+     * Ein Stand der zusammengeführten Eigenschaften.
+     */
+    private static final class Compilation {
+
+        /** Die Eigenschaften oder <code>null</code>. */
+        private final Map<String, String> properties;
+
+        /**
+         * Die Aliase, die keinen Schlüssel der Eigenschaften überdecken,
+         * oder <code>null</code>.
+         */
+        private final Map<String, String> aliases;
+
+        /**
+         * Der Inhalt der Konfigurationen, die ihre Änderungen nicht melden,
+         * beim Zusammenführen (siehe {@link #liveContents()}) oder
+         * <code>null</code>.
+         */
+        private final List<Map<String, String>> live;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _properties Die Eigenschaften oder <code>null</code>.
+         * @param _aliases Die Aliase oder <code>null</code>.
+         * @param _live Der Inhalt der nicht meldenden Konfigurationen.
+         */
+        private Compilation(final Map<String, String> _properties,
+            final Map<String, String> _aliases,
+            final List<Map<String, String>> _live) {
+
+            properties = _properties;
+            aliases = _aliases;
+            live = _live;
+        }
+
     }
 
 }
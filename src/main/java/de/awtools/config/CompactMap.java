@@ -0,0 +1,267 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Eine unveränderliche Map für Konfigurationen mit vielen Schlüsseln.
+ * Schlüssel, Werte und die Hashwerte der Schlüssel liegen in drei
+ * parallelen Arrays, Kollisionen werden per linearer Sondierung aufgelöst.
+ * Gegenüber einer {@link java.util.HashMap} entfällt das Entry-Objekt pro
+ * Schlüssel, und eine Suche liest benachbarte Array-Elemente.
+ * <p>
+ * Die Tabelle ist höchstens zu zwei Dritteln gefüllt. Verändernde Methoden
+ * werfen eine {@link UnsupportedOperationException}. Schlüssel dürfen nicht
+ * <code>null</code> sein, Werte schon.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see MapGlueConfig#compact(Map)
+ */
+final class CompactMap extends AbstractMap<String, String> {
+
+    /** Die Schlüssel. <code>null</code> markiert einen freien Platz. */
+    private final String[] keys;
+
+    /** Die Werte zu {@link #keys}. */
+    private final String[] values;
+
+    /** Die Hashwerte zu {@link #keys}. */
+    private final int[] hashes;
+
+    /** Die Anzahl der Einträge. */
+    private final int size;
+
+    /** Die Verschiebung für {@link #slot(int)}: 32 minus log2(Kapazität). */
+    private final int shift;
+
+    /** Die Sicht auf die Schlüssel. Wird bei Bedarf angelegt. */
+    private transient Set<String> keySet;
+
+    /** Die Sicht auf die Einträge. Wird bei Bedarf angelegt. */
+    private transient Set<Map.Entry<String, String>> entrySet;
+
+    /**
+     * Konstruktor.
+     *
+     * @param properties Die zu übernehmenden Eigenschaften.
+     */
+    CompactMap(final Map<String, String> properties) {
+        size = properties.size();
+        int capacity = 4;
+        while (capacity * 2 < size * 3) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        int mask = capacity - 1;
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            String key = entry.getKey();
+            Validate.notNull(key, "key is null");
+            int hash = key.hashCode();
+            int index = slot(hash);
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+            hashes[index] = hash;
+        }
+    }
+
+    /**
+     * Liefert den ersten Platz für einen Hashwert. Die Multiplikation
+     * (Fibonacci-Hashing) verteilt auch aufeinanderfolgende Hashwerte
+     * ähnlicher Schlüssel wie <code>key.1</code>, <code>key.2</code> über
+     * die Tabelle. Ohne sie bilden sich bei linearer Sondierung lange Ketten.
+     *
+     * @param hash Der Hashwert.
+     * @return Der Platz.
+     */
+    private int slot(final int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Sucht den Platz eines Schlüssels.
+     *
+     * @param key Der Schlüssel.
+     * @return Der Platz oder <code>-1</code>.
+     */
+    private int indexOf(final Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        int mask = keys.length - 1;
+        int index = slot(hash);
+        String candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate == key
+                    || (hashes[index] == hash && candidate.equals(key))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public String get(final Object key) {
+        int index = indexOf(key);
+        return (index < 0) ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> result = keySet;
+        if (result == null) {
+            result = new AbstractSet<String>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return new SlotIterator<String>() {
+                        @Override
+                        String element(final int index) {
+                            return keys[index];
+                        }
+                    };
+                }
+
+                @Override
+                public boolean contains(final Object key) {
+                    return containsKey(key);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            keySet = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        Set<Map.Entry<String, String>> result = entrySet;
+        if (result == null) {
+            result = new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new SlotIterator<Map.Entry<String, String>>() {
+                        @Override
+                        Map.Entry<String, String> element(final int index) {
+                            return new SimpleImmutableEntry<String, String>(
+                                keys[index], values[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /**
+     * Läuft über die belegten Plätze.
+     *
+     * @param <T> Der Typ der gelieferten Elemente.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+
+        /** Der nächste belegte Platz oder die Länge der Tabelle. */
+        private int next = advance(0);
+
+        /**
+         * Sucht den nächsten belegten Platz.
+         *
+         * @param from Der erste zu prüfende Platz.
+         * @return Der Platz oder die Länge der Tabelle.
+         */
+        private int advance(final int from) {
+            int index = from;
+            while (index < keys.length && keys[index] == null) {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * Liefert das Element eines belegten Platzes.
+         *
+         * @param index Der Platz.
+         * @return Das Element.
+         */
+        abstract T element(int index);
+
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        public T next() {
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            T result = element(next);
+            next = advance(next + 1);
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Beschreibt die Änderungen einer {@link GlueConfig} zwischen zwei
+ * Momentaufnahmen: Hinzugefügte, entfernte und geänderte Schlüssel samt
+ * alten und neuen Werten.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class ConfigChangeEvent {
+
+    /** Die alten Werte der betroffenen Schlüssel. */
+    private final Map<String, String> oldValues;
+
+    /** Die neuen Werte der betroffenen Schlüssel. */
+    private final Map<String, String> newValues;
+
+    /** Die hinzugefügten Schlüssel. */
+    private final Set<String> addedKeys = new HashSet<String>();
+
+    /** Die entfernten Schlüssel. */
+    private final Set<String> removedKeys = new HashSet<String>();
+
+    /** Die geänderten Schlüssel. */
+    private final Set<String> changedKeys = new HashSet<String>();
+
+    /**
+     * Konstruktor.
+     *
+     * @param _oldValues Die alten Werte der betroffenen Schlüssel.
+     * @param _newValues Die neuen Werte der betroffenen Schlüssel.
+     */
+    ConfigChangeEvent(final Map<String, String> _oldValues,
+        final Map<String, String> _newValues) {
+
+        oldValues = Collections.unmodifiableMap(_oldValues);
+        newValues = Collections.unmodifiableMap(_newValues);
+        for (String key : _newValues.keySet()) {
+            if (_oldValues.containsKey(key)) {
+                changedKeys.add(key);
+            } else {
+                addedKeys.add(key);
+            }
+        }
+        for (String key : _oldValues.keySet()) {
+            if (!_newValues.containsKey(key)) {
+                removedKeys.add(key);
+            }
+        }
+    }
+
+    /**
+     * Liefert die hinzugefügten Schlüssel.
+     *
+     * @return Die hinzugefügten Schlüssel.
+     */
+    public Set<String> getAddedKeys() {
+        return Collections.unmodifiableSet(addedKeys);
+    }
+
+    /**
+     * Liefert die entfernten Schlüssel.
+     *
+     * @return Die entfernten Schlüssel.
+     */
+    public Set<String> getRemovedKeys() {
+        return Collections.unmodifiableSet(removedKeys);
+    }
+
+    /**
+     * Liefert die Schlüssel, deren Wert sich geändert hat.
+     *
+     * @return Die geänderten Schlüssel.
+     */
+    public Set<String> getChangedKeys() {
+        return Collections.unmodifiableSet(changedKeys);
+    }
+
+    /**
+     * Liefert den Wert eines betroffenen Schlüssels vor der Änderung.
+     *
+     * @param key Der Schlüssel.
+     * @return Der alte Wert oder <code>null</code>, wenn der Schlüssel
+     *     hinzugefügt wurde.
+     */
+    public String getOldValue(final String key) {
+        return oldValues.get(key);
+    }
+
+    /**
+     * Liefert den Wert eines betroffenen Schlüssels nach der Änderung.
+     *
+     * @param key Der Schlüssel.
+     * @return Der neue Wert oder <code>null</code>, wenn der Schlüssel
+     *     entfernt wurde.
+     */
+    public String getNewValue(final String key) {
+        return newValues.get(key);
+    }
+
+    /**
+     * Enthält das Ereignis keine Änderungen?
+     *
+     * @return <code>true</code>, wenn kein Schlüssel betroffen ist.
+     */
+    public boolean isEmpty() {
+        return oldValues.isEmpty() && newValues.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChangeEvent[added=" + addedKeys + ", removed="
+            + removedKeys + ", changed=" + changedKeys + "]";
+    }
+
+}
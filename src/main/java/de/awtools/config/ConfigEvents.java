@@ -0,0 +1,457 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Erzeugt Ereignisse für den JDK Flight Recorder (JFR): das Laden und
+ * Speichern einer Konfiguration, das Auflösen aller Platzhalter und
+ * langsame Zugriffe auf eine Eigenschaft. Die Ereignisse erscheinen in der
+ * Kategorie <code>awtools-config</code> einer normalen JFR Aufzeichnung.
+ * <p>
+ * Die Bibliothek wird für Java 8 übersetzt, deshalb werden die
+ * Ereignistypen über <code>jdk.jfr.EventFactory</code> zur Laufzeit
+ * definiert. Fehlt JFR (oder ist die System-Eigenschaft
+ * <code>awtools.config.jfr</code> auf <code>false</code> gesetzt), passiert
+ * nichts. Die Ereignistypen werden erst angelegt, wenn JFR initialisiert
+ * ist. Bis dahin kostet ein Ereignis nur eine Abfrage.
+ * </p>
+ * <p>
+ * Langsame Zugriffe werden nur gemessen, während eine Aufzeichnung läuft,
+ * die das Ereignis <code>de.awtools.config.SlowLookup</code> aufzeichnet,
+ * und dann auch nur für im Mittel jeden {@link #LOOKUP_SAMPLING}-ten
+ * Zugriff. Aufgezeichnet wird ein Zugriff, der länger als die Schwelle des
+ * Ereignisses dauert (Standard 10 us). Ohne Aufzeichnung kostet jeder
+ * Zugriff das Lesen von {@link #lookupsEnabled}.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class ConfigEvents {
+
+    /** Der Logger der Klasse. */
+    private static final Logger log =
+            LoggerFactory.getLogger(ConfigEvents.class);
+
+    /** Im Mittel wird jeder 64. Zugriff gemessen. */
+    static final int LOOKUP_SAMPLING = 64;
+
+    /** Das Laden einer Konfiguration. Felder: source, bytes, changed. */
+    static final ConfigEvents LOAD = new ConfigEvents(0);
+
+    /** Das Speichern einer Konfiguration. Felder: source, bytes. */
+    static final ConfigEvents SAVE = new ConfigEvents(1);
+
+    /** Das Auflösen aller Platzhalter. Felder: source, keys. */
+    static final ConfigEvents INTERPOLATION = new ConfigEvents(2);
+
+    /** Ein langsamer Zugriff. Felder: source, key. */
+    static final ConfigEvents SLOW_LOOKUP = new ConfigEvents(3);
+
+    /**
+     * Läuft eine Aufzeichnung mit {@link #SLOW_LOOKUP}? Wird bei jeder
+     * Änderung des Zustands einer Aufzeichnung neu bestimmt.
+     */
+    static volatile boolean lookupsEnabled = false;
+
+    /** Die Zugriffe auf JFR. <code>null</code>, wenn JFR fehlt. */
+    private static final Jfr JFR = Jfr.create();
+
+    /** Die Ereignistypen. <code>null</code>, solange JFR nicht läuft. */
+    private static volatile Object[] factories;
+
+    static {
+        // Läuft JFR bereits, werden die Ereignistypen sofort angelegt.
+        if (JFR != null) {
+            try {
+                Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+                Method initialized = recorder.getMethod("isInitialized");
+                if ((Boolean) initialized.invoke(null)) {
+                    update();
+                }
+            } catch (ReflectiveOperationException ex) {
+                log.debug("JFR not available.", ex);
+            }
+        }
+    }
+
+    /** Der Index des Ereignistyps. */
+    private final int index;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _index Der Index des Ereignistyps.
+     */
+    private ConfigEvents(final int _index) {
+        index = _index;
+    }
+
+    /**
+     * Beginnt ein Ereignis.
+     *
+     * @return Das Ereignis oder <code>null</code>, wenn das Ereignis nicht
+     *     aufgezeichnet wird.
+     */
+    Object begin() {
+        Object[] current = factories;
+        if (current == null) {
+            return null;
+        }
+        try {
+            Object event = (Object) JFR.newEvent.invokeExact(current[index]);
+            if (!(boolean) JFR.isEnabled.invokeExact(event)) {
+                return null;
+            }
+            JFR.begin.invokeExact(event);
+            return event;
+        } catch (Throwable ex) {
+            log.debug("JFR event failed.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Beendet ein Ereignis und zeichnet es auf, wenn es die Schwelle
+     * überschreitet.
+     *
+     * @param event Das Ereignis aus {@link #begin()} oder <code>null</code>.
+     * @param values Die Werte der Felder in der Reihenfolge des Typs.
+     */
+    void commit(final Object event, final Object... values) {
+        if (event == null) {
+            return;
+        }
+        try {
+            JFR.end.invokeExact(event);
+            if ((boolean) JFR.shouldCommit.invokeExact(event)) {
+                for (int field = 0; field < values.length; field++) {
+                    JFR.set.invokeExact(event, field, values[field]);
+                }
+                JFR.commit.invokeExact(event);
+            }
+        } catch (Throwable ex) {
+            log.debug("JFR event failed.", ex);
+        }
+    }
+
+    /**
+     * Liest eine Eigenschaft und misst dabei eine Stichprobe der Zugriffe.
+     * Wird nur aufgerufen, wenn {@link #lookupsEnabled} gesetzt ist.
+     *
+     * @param config Die Konfiguration.
+     * @param key Der Schlüssel.
+     * @return Der Wert der Eigenschaft.
+     */
+    static Object lookup(final AbstractGlueConfig config, final String key) {
+        if ((ThreadLocalRandom.current().nextInt() & (LOOKUP_SAMPLING - 1))
+                != 0) {
+            return config.doGetProperty(key);
+        }
+        Object event = SLOW_LOOKUP.begin();
+        Object value = config.doGetProperty(key);
+        if (event != null) {
+            SLOW_LOOKUP.commit(event, config.toString(), key);
+        }
+        return value;
+    }
+
+    /**
+     * Legt die Ereignistypen an, sobald JFR initialisiert ist, und bestimmt
+     * {@link #lookupsEnabled} neu.
+     */
+    private static synchronized void update() {
+        if (JFR == null) {
+            // Der Listener meldet sich schon während der Initialisierung.
+            return;
+        }
+        try {
+            if (factories == null) {
+                factories = JFR.createFactories();
+            }
+            lookupsEnabled = (boolean) JFR.isTypeEnabled.invoke(
+                JFR.getEventType.invoke(factories[SLOW_LOOKUP.index]));
+        } catch (Throwable ex) {
+            log.debug("JFR event types not available.", ex);
+        }
+    }
+
+    /**
+     * Die über Reflection gefundenen Methoden von JFR.
+     */
+    private static final class Jfr {
+
+        /** <code>EventFactory.newEvent()</code>. */
+        private MethodHandle newEvent;
+
+        /** <code>Event.isEnabled()</code>. */
+        private MethodHandle isEnabled;
+
+        /** <code>Event.begin()</code>. */
+        private MethodHandle begin;
+
+        /** <code>Event.end()</code>. */
+        private MethodHandle end;
+
+        /** <code>Event.shouldCommit()</code>. */
+        private MethodHandle shouldCommit;
+
+        /** <code>Event.set(int, Object)</code>. */
+        private MethodHandle set;
+
+        /** <code>Event.commit()</code>. */
+        private MethodHandle commit;
+
+        /** <code>EventFactory.getEventType()</code>. */
+        private MethodHandle getEventType;
+
+        /** <code>EventType.isEnabled()</code>. */
+        private MethodHandle isTypeEnabled;
+
+        /** <code>new AnnotationElement(Class, Object)</code>. */
+        private Constructor<?> annotation;
+
+        /** <code>new ValueDescriptor(Class, String, List)</code>. */
+        private Constructor<?> field;
+
+        /** <code>EventFactory.create(List, List)</code>. */
+        private Method create;
+
+        /**
+         * Sucht die Methoden von JFR und registriert einen Listener, der
+         * {@link ConfigEvents#update()} bei jeder Änderung einer
+         * Aufzeichnung aufruft.
+         *
+         * @return Die Methoden oder <code>null</code>, wenn JFR fehlt.
+         */
+        static Jfr create() {
+            if ("false".equals(System.getProperty("awtools.config.jfr"))) {
+                return null;
+            }
+            try {
+                Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+                if (!(Boolean) recorder.getMethod("isAvailable").invoke(null)) {
+                    return null;
+                }
+                Jfr jfr = new Jfr();
+                jfr.init();
+
+                Class<?> listener =
+                        Class.forName("jdk.jfr.FlightRecorderListener");
+                Object proxy = Proxy.newProxyInstance(
+                    ConfigEvents.class.getClassLoader(),
+                    new Class<?>[] { listener }, new InvocationHandler() {
+                        public Object invoke(final Object self,
+                            final Method method, final Object[] args) {
+
+                            if (method.getDeclaringClass() == Object.class) {
+                                return objectMethod(self, method, args);
+                            }
+                            update();
+                            return null;
+                        }
+                    });
+                recorder.getMethod("addListener", listener).invoke(null, proxy);
+                return jfr;
+            } catch (Throwable ex) {
+                log.debug("JFR not available.", ex);
+                return null;
+            }
+        }
+
+        /**
+         * Beantwortet die Methoden von {@link Object} für den Proxy.
+         *
+         * @param self Der Proxy.
+         * @param method Die Methode.
+         * @param args Die Argumente.
+         * @return Das Ergebnis.
+         */
+        private static Object objectMethod(final Object self,
+            final Method method, final Object[] args) {
+
+            if ("equals".equals(method.getName())) {
+                return Boolean.valueOf(self == args[0]);
+            } else if ("hashCode".equals(method.getName())) {
+                return Integer.valueOf(System.identityHashCode(self));
+            }
+            return "ConfigEvents listener";
+        }
+
+        /**
+         * Sucht die Methoden.
+         *
+         * @throws ReflectiveOperationException JFR fehlt.
+         */
+        private void init() throws ReflectiveOperationException {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            Class<?> type = Class.forName("jdk.jfr.EventType");
+            MethodType toVoid = MethodType.methodType(void.class, Object.class);
+            MethodType toBoolean =
+                    MethodType.methodType(boolean.class, Object.class);
+
+            newEvent = lookup.findVirtual(factory, "newEvent",
+                MethodType.methodType(event)).asType(
+                MethodType.methodType(Object.class, Object.class));
+            isEnabled = lookup.findVirtual(event, "isEnabled",
+                MethodType.methodType(boolean.class)).asType(toBoolean);
+            begin = lookup.findVirtual(event, "begin",
+                MethodType.methodType(void.class)).asType(toVoid);
+            end = lookup.findVirtual(event, "end",
+                MethodType.methodType(void.class)).asType(toVoid);
+            shouldCommit = lookup.findVirtual(event, "shouldCommit",
+                MethodType.methodType(boolean.class)).asType(toBoolean);
+            set = lookup.findVirtual(event, "set", MethodType.methodType(
+                void.class, int.class, Object.class)).asType(
+                MethodType.methodType(void.class, Object.class, int.class,
+                    Object.class));
+            commit = lookup.findVirtual(event, "commit",
+                MethodType.methodType(void.class)).asType(toVoid);
+            getEventType = lookup.findVirtual(factory, "getEventType",
+                MethodType.methodType(type));
+            isTypeEnabled = lookup.findVirtual(type, "isEnabled",
+                MethodType.methodType(boolean.class));
+
+            annotation = Class.forName("jdk.jfr.AnnotationElement")
+                .getConstructor(Class.class, Object.class);
+            field = Class.forName("jdk.jfr.ValueDescriptor")
+                .getConstructor(Class.class, String.class, List.class);
+            create = factory.getMethod("create", List.class, List.class);
+        }
+
+        /**
+         * Legt die Ereignistypen in der Reihenfolge ihrer Indizes an.
+         *
+         * @return Die <code>EventFactory</code> pro Ereignistyp.
+         * @throws ReflectiveOperationException Fehler beim Anlegen.
+         */
+        Object[] createFactories() throws ReflectiveOperationException {
+            return new Object[] {
+                    factory("Load", "Configuration Load",
+                        "Loading a configuration source", null,
+                        field(String.class, "source", "Source", null),
+                        field(long.class, "bytes", "Bytes Read", "BYTES"),
+                        field(boolean.class, "changed", "Changed", null)),
+                    factory("Save", "Configuration Save",
+                        "Saving a configuration file", null,
+                        field(String.class, "source", "Source", null),
+                        field(long.class, "bytes", "Bytes Written", "BYTES")),
+                    factory("Interpolation", "Configuration Interpolation",
+                        "Resolving all placeholders of a configuration", null,
+                        field(String.class, "source", "Source", null),
+                        field(int.class, "keys", "Keys", null)),
+                    factory("SlowLookup", "Slow Configuration Lookup",
+                        "A sampled property lookup above the threshold",
+                        "10 us",
+                        field(String.class, "source", "Source", null),
+                        field(String.class, "key", "Key", null)) };
+        }
+
+        /**
+         * Legt einen Ereignistyp an.
+         *
+         * @param name Der Name ohne Paket.
+         * @param label Die Bezeichnung.
+         * @param description Die Beschreibung.
+         * @param threshold Die Schwelle oder <code>null</code>.
+         * @param fields Die Felder.
+         * @return Die <code>EventFactory</code>.
+         * @throws ReflectiveOperationException Fehler beim Anlegen.
+         */
+        private Object factory(final String name, final String label,
+            final String description, final String threshold,
+            final Object... fields) throws ReflectiveOperationException {
+
+            List<Object> annotations = new ArrayList<Object>();
+            annotations.add(annotation("Name", "de.awtools.config." + name));
+            annotations.add(annotation("Label", label));
+            annotations.add(annotation("Description", description));
+            annotations.add(annotation("Category",
+                new String[] { "awtools-config" }));
+            if (threshold != null) {
+                annotations.add(annotation("Threshold", threshold));
+            }
+            return create.invoke(null, annotations, Arrays.asList(fields));
+        }
+
+        /**
+         * Legt ein Feld eines Ereignistyps an.
+         *
+         * @param type Der Typ des Felds.
+         * @param name Der Name.
+         * @param label Die Bezeichnung.
+         * @param dataAmount Die Einheit nach <code>jdk.jfr.DataAmount</code>
+         *     oder <code>null</code>.
+         * @return Der <code>ValueDescriptor</code>.
+         * @throws ReflectiveOperationException Fehler beim Anlegen.
+         */
+        private Object field(final Class<?> type, final String name,
+            final String label, final String dataAmount)
+                throws ReflectiveOperationException {
+
+            List<Object> annotations = new ArrayList<Object>();
+            annotations.add(annotation("Label", label));
+            if (dataAmount != null) {
+                annotations.add(annotation("DataAmount", dataAmount));
+            }
+            return field.newInstance(type, name, annotations);
+        }
+
+        /**
+         * Legt eine Annotation aus <code>jdk.jfr</code> an.
+         *
+         * @param name Der Name der Annotation ohne Paket.
+         * @param value Der Wert.
+         * @return Das <code>AnnotationElement</code>.
+         * @throws ReflectiveOperationException Fehler beim Anlegen.
+         */
+        private Object annotation(final String name, final Object value)
+                throws ReflectiveOperationException {
+
+            return annotation.newInstance(Class.forName("jdk.jfr." + name),
+                value);
+        }
+
+    }
+
+}
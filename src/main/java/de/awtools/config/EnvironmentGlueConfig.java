@@ -0,0 +1,199 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Eine Konfiguration über den Umgebungsvariablen. Die Umgebungsvariablen
+ * werden einmalig kopiert. Zusätzlich wird zu jedem Namen der gelockerte
+ * Name (siehe {@link #relaxedName(String)}) als Alias abgelegt. Aus
+ * <code>DB_POOL_SIZE</code> wird so zusätzlich <code>db.pool.size</code>
+ * gefunden. Ein Zugriff ist damit ein einfacher Map-Zugriff, ohne den
+ * Schlüssel umzuwandeln.
+ * <p>
+ * Die Aliase dienen nur der Suche. {@link #size()},
+ * {@link #getKeyIterator()} und {@link #asMap()} liefern nur die
+ * Originalnamen, eine Variable wird also nicht doppelt gezählt. Eine
+ * {@link CombinedGlueConfig} findet die Aliase trotzdem, auch im
+ * kompilierten Modus.
+ * </p>
+ * <p>
+ * Führen mehrere Umgebungsvariablen auf denselben gelockerten Namen, gewinnt
+ * eine Variable, die genau so heißt. Sonst gewinnt der in der
+ * Sortierreihenfolge kleinste Name, also z.B. <code>DB_POOL_SIZE</code> vor
+ * <code>db_pool_size</code>.
+ * </p>
+ * <p>
+ * Die Umgebungsvariablen sind nicht änderbar.
+ * {@link #setProperty(String, String)} und {@link #save()} werfen eine
+ * {@link UnsupportedOperationException}. {@link #load()} liest die
+ * Umgebungsvariablen neu ein.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class EnvironmentGlueConfig extends AbstractGlueConfig {
+
+    /** Die Quelle der Umgebungsvariablen. */
+    private final Map<String, String> environment;
+
+    /** Die kopierten Umgebungsvariablen mit ihren Aliasen. */
+    private volatile Index index;
+
+    /**
+     * Konstruktor. Verwendet {@link System#getenv()}.
+     */
+    public EnvironmentGlueConfig() {
+        this(System.getenv());
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param _environment Die Umgebungsvariablen. Die Map wird bei jedem
+     *     {@link #load()} erneut gelesen.
+     */
+    public EnvironmentGlueConfig(final Map<String, String> _environment) {
+        Validate.notNull(_environment);
+        environment = _environment;
+        index = new Index(_environment);
+    }
+
+    /**
+     * Liefert den gelockerten Namen einer Umgebungsvariablen: Kleinbuchstaben,
+     * jeder Unterstrich wird zu einem Punkt.
+     *
+     * @param name Der Name einer Umgebungsvariablen.
+     * @return Der gelockerte Name.
+     */
+    public static String relaxedName(final String name) {
+        return name.toLowerCase(Locale.ROOT).replace('_', '.');
+    }
+
+    @Override
+    protected Object doGetProperty(final String key) {
+        Index current = index;
+        String value = current.variables.get(key);
+        return (value != null) ? value : current.aliases.get(key);
+    }
+
+    @Override
+    Map<String, String> snapshot() {
+        return index.variables;
+    }
+
+    @Override
+    Map<String, String> aliases() {
+        return index.aliases;
+    }
+
+    public Iterator<String> getKeyIterator() {
+        return index.variables.keySet().iterator();
+    }
+
+    /**
+     * Liest die Umgebungsvariablen neu ein.
+     */
+    public void load() throws IOException {
+        synchronized (this) {
+            Index created = new Index(environment);
+            if (created.variables.equals(index.variables)) {
+                return;
+            }
+            index = created;
+        }
+        propertiesChanged();
+    }
+
+    public void save() throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    public void setProperty(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentGlueConfig[" + environment.size() + " variables]";
+    }
+
+    /**
+     * Die kopierten Umgebungsvariablen und ihre gelockerten Namen.
+     */
+    private static final class Index {
+
+        /** Die Umgebungsvariablen unter ihren Originalnamen. */
+        private final Map<String, String> variables;
+
+        /**
+         * Die gelockerten Namen mit ihren Werten, soweit sie nicht selbst
+         * Originalnamen sind.
+         */
+        private final Map<String, String> aliases;
+
+        /**
+         * Konstruktor. Kopiert die Umgebungsvariablen und legt die Aliase
+         * an.
+         *
+         * @param environment Die Umgebungsvariablen.
+         */
+        private Index(final Map<String, String> environment) {
+            Map<String, String> sorted = new TreeMap<String, String>();
+            for (Map.Entry<String, String> entry : environment.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    sorted.put(StringPool.SHARED.intern(entry.getKey()),
+                        StringPool.SHARED.intern(entry.getValue()));
+                }
+            }
+
+            Map<String, String> relaxed =
+                    new HashMap<String, String>(sorted.size() * 2);
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                String name =
+                        StringPool.SHARED.intern(relaxedName(entry.getKey()));
+                if (!sorted.containsKey(name) && !relaxed.containsKey(name)) {
+                    relaxed.put(name, entry.getValue());
+                }
+            }
+            variables = Collections.unmodifiableMap(
+                new HashMap<String, String>(sorted));
+            aliases = Collections.unmodifiableMap(relaxed);
+        }
+
+    }
+
+}
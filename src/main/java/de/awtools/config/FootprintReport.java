@@ -0,0 +1,217 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Der geschätzte Speicherbedarf der Schlüssel und Werte der Konfigurationen
+ * einer {@link CombinedGlueConfig}. Gleiche Strings werden beim Laden über
+ * einen gemeinsamen Pool auf eine Instanz abgebildet. Der Bericht zeigt pro
+ * Konfiguration, wie viele Bytes das gegenüber eigenen Kopien spart.
+ * <p>
+ * Eine Konfiguration belegt die Strings, die keine ranghöhere Konfiguration
+ * bereits verwendet. Gespart sind alle übrigen Verweise: Duplikate
+ * innerhalb der Konfiguration und Strings, die schon eine ranghöhere
+ * Konfiguration belegt. Die Größe eines Strings ist geschätzt (siehe
+ * {@link StringPool#sizeOf(String)}), die Einträge der Maps sind nicht
+ * enthalten.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see CombinedGlueConfig#footprint()
+ */
+public final class FootprintReport {
+
+    /** Die Konfigurationen in ihrer Rangfolge. */
+    private final List<Layer> layers;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _layers Die Konfigurationen in ihrer Rangfolge.
+     */
+    private FootprintReport(final List<Layer> _layers) {
+        layers = Collections.unmodifiableList(_layers);
+    }
+
+    /**
+     * Erstellt den Bericht.
+     *
+     * @param configs Die Konfigurationen in ihrer Rangfolge.
+     * @return Der Bericht.
+     */
+    static FootprintReport of(final List<GlueConfig> configs) {
+        Map<String, Boolean> seen = new IdentityHashMap<String, Boolean>();
+        List<Layer> layers = new ArrayList<Layer>(configs.size());
+        for (GlueConfig config : configs) {
+            Map<String, String> properties = config.asMap();
+            long copies = 0;
+            long bytes = 0;
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                for (String value : new String[] { entry.getKey(),
+                        entry.getValue() }) {
+                    long size = StringPool.sizeOf(value);
+                    copies += size;
+                    if (seen.put(value, Boolean.TRUE) == null) {
+                        bytes += size;
+                    }
+                }
+            }
+            layers.add(new Layer(config.toString(), properties.size(), bytes,
+                copies - bytes));
+        }
+        return new FootprintReport(layers);
+    }
+
+    /**
+     * Liefert die Konfigurationen in ihrer Rangfolge.
+     *
+     * @return Die Konfigurationen. Nicht veränderbar.
+     */
+    public List<Layer> getLayers() {
+        return layers;
+    }
+
+    /**
+     * Liefert die von allen Konfigurationen belegten Bytes.
+     *
+     * @return Die belegten Bytes.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            bytes += layer.getBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Liefert die von allen Konfigurationen gesparten Bytes.
+     *
+     * @return Die gesparten Bytes.
+     */
+    public long getSavedBytes() {
+        long saved = 0;
+        for (Layer layer : layers) {
+            saved += layer.getSavedBytes();
+        }
+        return saved;
+    }
+
+    @Override
+    public String toString() {
+        return "FootprintReport[bytes=" + getBytes() + ", savedBytes="
+            + getSavedBytes() + ", layers=" + layers + "]";
+    }
+
+    /**
+     * Der Speicherbedarf einer Konfiguration.
+     */
+    public static final class Layer {
+
+        /** Die Textdarstellung der Konfiguration. */
+        private final String name;
+
+        /** Die Anzahl der Eigenschaften. */
+        private final int entries;
+
+        /** Die belegten Bytes. */
+        private final long bytes;
+
+        /** Die gesparten Bytes. */
+        private final long savedBytes;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _name Die Textdarstellung der Konfiguration.
+         * @param _entries Die Anzahl der Eigenschaften.
+         * @param _bytes Die belegten Bytes.
+         * @param _savedBytes Die gesparten Bytes.
+         */
+        private Layer(final String _name, final int _entries,
+            final long _bytes, final long _savedBytes) {
+
+            name = _name;
+            entries = _entries;
+            bytes = _bytes;
+            savedBytes = _savedBytes;
+        }
+
+        /**
+         * Liefert die Textdarstellung der Konfiguration.
+         *
+         * @return Der Name der Konfiguration.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Liefert die Anzahl der Eigenschaften.
+         *
+         * @return Die Anzahl der Eigenschaften.
+         */
+        public int getEntries() {
+            return entries;
+        }
+
+        /**
+         * Liefert die Bytes der Strings, die diese Konfiguration als erste
+         * verwendet.
+         *
+         * @return Die belegten Bytes.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Liefert die Bytes, die eigene Kopien aller übrigen Strings
+         * belegen würden.
+         *
+         * @return Die gesparten Bytes.
+         */
+        public long getSavedBytes() {
+            return savedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return name + "[entries=" + entries + ", bytes=" + bytes
+                + ", savedBytes=" + savedBytes + "]";
+        }
+
+    }
+
+}
@@ -28,10 +28,23 @@ package de.awtools.config;
 import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Die Schnittstelle für eine Konfiguration.
+ * <p>
+ * <b>Nebenläufigkeit:</b> Die Implementierungen dieses Pakets dürfen von
+ * beliebig vielen Threads gleichzeitig gelesen werden. Lesende Zugriffe
+ * blockieren nicht. Die Eigenschaften werden als unveränderliche
+ * Momentaufnahme gehalten, die {@link #load()} nach dem vollständigen
+ * Einlesen atomar austauscht. {@link #setProperty(String, String)} kopiert
+ * die aktuelle Momentaufnahme, ändert die Kopie und veröffentlicht sie
+ * anschließend (copy-on-write). Ein lesender Thread sieht damit immer einen
+ * vollständigen alten oder neuen Stand. Ausnahme ist
+ * {@link SystemGlueConfig} im Standardmodus, die direkt auf
+ * {@link System#getProperties()} zugreift.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 2319 $ $Date: 2010-07-30 15:46:58 +0200 (Fr, 30 Jul 2010) $
@@ -60,6 +73,26 @@ public interface GlueConfig {
      */
     public Properties getProperties();
 
+    /**
+     * Liefert die aktuelle Momentaufnahme der Eigenschaften als
+     * unveränderliche Map. Im Gegensatz zu {@link #getProperties()} wird
+     * nichts kopiert, sofern die Implementierung ihre Eigenschaften bereits
+     * als Momentaufnahme hält. Spätere Änderungen der Konfiguration sind in
+     * der gelieferten Map nicht sichtbar.
+     *
+     * @return Die Eigenschaften als unveränderliche Map.
+     */
+    public Map<String, String> asMap();
+
+    /**
+     * Liefert die Momentaufnahme aus {@link #asMap()} als
+     * {@link Properties}. Das Objekt ist nicht veränderbar, alle ändernden
+     * Methoden werfen eine {@link UnsupportedOperationException}.
+     *
+     * @return Die Eigenschaften als unveränderliche {@link Properties}.
+     */
+    public Properties asProperties();
+
     /**
      * Liefert den Wert einer Eigenschaft.
      *
@@ -85,6 +118,35 @@ public interface GlueConfig {
      */
     public Iterator<String> getKeyIterator();
 
+    /**
+     * Liefert die Anzahl der Eigenschaften mit einem Wert.
+     *
+     * @return Die Anzahl der Eigenschaften.
+     */
+    public int size();
+
+    /**
+     * Prüft, ob eine Eigenschaft einen Wert hat.
+     *
+     * @param key Der Schlüssel.
+     * @return <code>true</code>, wenn die Eigenschaft einen Wert hat.
+     */
+    public boolean containsKey(final String key);
+
+    /**
+     * Liefert eine Sicht auf alle Eigenschaften, deren Schlüssel mit
+     * <code>prefix</code> beginnen. Die Schlüssel der Sicht sind um den
+     * Präfix gekürzt: <code>subset("db.pool.").getInt("size")</code>
+     * liefert den Wert von <code>db.pool.size</code>. Die Sicht folgt allen
+     * Änderungen dieser Konfiguration, Änderungen über die Sicht werden mit
+     * Präfix in diese Konfiguration geschrieben. Wiederholte Aufrufe mit
+     * demselben Präfix liefern dieselbe Sicht.
+     *
+     * @param prefix Der Präfix der Schlüssel, z.B. <code>db.pool.</code>.
+     * @return Eine Sicht auf die Eigenschaften unterhalb des Präfix.
+     */
+    public GlueConfig subset(final String prefix);
+
     /**
      * Liefert den Boolean-Wert einer Eigenschaft.
      *
@@ -176,6 +238,106 @@ public interface GlueConfig {
      */
     public File getFile(final String key, final File defaultValue);
 
+    /**
+     * Bindet eine <code>int</code> Eigenschaft an ein Handle. Das Handle
+     * liefert den aufgelösten Wert ohne erneute Suche und wird nach jedem
+     * Laden der Konfiguration und jedem Ändern seines Schlüssels
+     * aktualisiert. Die Konfiguration hält das Handle nur schwach, der
+     * Aufrufer muss es selbst halten.
+     *
+     * @param key Der Schlüssel der Eigenschaft.
+     * @param defaultValue Dieser Wert wird geliefert, wenn kein Wert unter
+     *     dem Schlüssel <code>key</code> gefunden werden kann.
+     * @return Das Handle.
+     */
+    public IntProperty intHandle(final String key, final int defaultValue);
+
+    /**
+     * Bindet eine <code>long</code> Eigenschaft an ein Handle.
+     *
+     * @param key Der Schlüssel der Eigenschaft.
+     * @param defaultValue Dieser Wert wird geliefert, wenn kein Wert unter
+     *     dem Schlüssel <code>key</code> gefunden werden kann.
+     * @return Das Handle.
+     *
+     * @see #intHandle(String, int)
+     */
+    public LongProperty longHandle(final String key, final long defaultValue);
+
+    /**
+     * Bindet eine <code>boolean</code> Eigenschaft an ein Handle.
+     *
+     * @param key Der Schlüssel der Eigenschaft.
+     * @param defaultValue Dieser Wert wird geliefert, wenn kein Wert unter
+     *     dem Schlüssel <code>key</code> gefunden werden kann.
+     * @return Das Handle.
+     *
+     * @see #intHandle(String, int)
+     */
+    public BooleanProperty boolHandle(final String key,
+        final boolean defaultValue);
+
+    /**
+     * Bindet die Eigenschaften unterhalb eines Präfix an ein Objekt. Aus
+     * <code>bind(PoolSettings.class, "db.pool.")</code> wird z.B. ein
+     * <code>PoolSettings</code> Objekt, dessen Eigenschaft <code>size</code>
+     * aus <code>db.pool.size</code> gelesen wird. Die Klasse braucht einen
+     * öffentlichen Konstruktor mit
+     * {@link java.beans.ConstructorProperties} oder einen öffentlichen
+     * Konstruktor ohne Parameter und öffentliche Setter. Nach jedem Laden
+     * oder Ändern der Konfiguration liefert das Handle ein neu erzeugtes
+     * Objekt.
+     *
+     * @param type Die Klasse des Objekts.
+     * @param prefix Der Präfix der Schlüssel, z.B. <code>db.pool.</code>.
+     * @return Das Handle.
+     * @throws IllegalArgumentException Die Klasse kann nicht gebunden
+     *     werden.
+     *
+     * @see #intHandle(String, int)
+     */
+    public <T> BeanProperty<T> bind(final Class<T> type, final String prefix);
+
+    /**
+     * Registriert einen Listener für Änderungen an allen Schlüsseln. Der
+     * Listener wird nach jedem Laden und jeder Änderung mit den
+     * hinzugefügten, entfernten und geänderten Schlüsseln aufgerufen. Der
+     * Aufruf erfolgt nicht im ladenden Thread.
+     *
+     * @param listener Der Listener.
+     */
+    public void addChangeListener(final ConfigChangeListener listener);
+
+    /**
+     * Registriert einen Listener für Änderungen an allen Schlüsseln, die
+     * mit <code>prefix</code> beginnen.
+     *
+     * @param prefix Das Präfix der Schlüssel.
+     * @param listener Der Listener.
+     *
+     * @see #addChangeListener(ConfigChangeListener)
+     */
+    public void addPrefixChangeListener(final String prefix,
+        final ConfigChangeListener listener);
+
+    /**
+     * Registriert einen Listener für Änderungen an genau einem Schlüssel.
+     *
+     * @param key Der Schlüssel.
+     * @param listener Der Listener.
+     *
+     * @see #addChangeListener(ConfigChangeListener)
+     */
+    public void addKeyChangeListener(final String key,
+        final ConfigChangeListener listener);
+
+    /**
+     * Entfernt alle Registrierungen eines Listeners.
+     *
+     * @param listener Der Listener.
+     */
+    public void removeChangeListener(final ConfigChangeListener listener);
+
     /**
      * Setzt eine Eigenschaft.
      *
@@ -186,12 +348,24 @@ public interface GlueConfig {
 
     /**
      * Liefert eine Konfiguration in der alle Platzhalter ${...} durch ihre
-     * Werte ersetzt sind.
+     * Werte ersetzt sind. Verschachtelte Platzhalter werden vollständig
+     * aufgelöst. Ein Platzhalter, der einen Zyklus schließen würde, bleibt
+     * unverändert stehen.
      *
      * @return Eine Konfiguration ohne Platzhalter.
      */
     public GlueConfig interpolatedConfiguration();
 
+    /**
+     * Liefert eine Sicht auf diese Konfiguration, die die Platzhalter
+     * ${...} erst beim Lesen einer Eigenschaft auflöst. Die Sicht folgt den
+     * Änderungen dieser Konfiguration. Wiederholte Aufrufe liefern dieselbe
+     * Sicht.
+     *
+     * @return Eine Sicht ohne Platzhalter.
+     */
+    public GlueConfig interpolatedView();
+
     /**
      * Ausgaben zu Debugging-Zwecken.
      *
@@ -0,0 +1,471 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Eine Sicht auf eine {@link GlueConfig}, die die ${...} Platzhalter erst
+ * beim Lesen einer Eigenschaft auflöst. Im Gegensatz zu
+ * {@link GlueConfig#interpolatedConfiguration()} wird keine Kopie der
+ * Konfiguration angelegt. Aufgelöst werden nur die gelesenen Schlüssel und
+ * die von ihnen referenzierten Schlüssel.
+ * <p>
+ * Aufgelöste Werte werden zwischengespeichert. Zu jedem Schlüssel merkt
+ * sich die Sicht, welche Werte ihn referenzieren. Ändert sich eine
+ * Eigenschaft der zugrunde liegenden Konfiguration, werden nur die
+ * betroffenen Werte verworfen. Zyklische Referenzen werden wie bei
+ * {@link GlueConfig#interpolatedConfiguration()} protokolliert und bleiben
+ * als Text stehen. Auch ihr Ergebnis wird zwischengespeichert, so dass ein
+ * Zyklus nur einmal je Stand der Konfiguration protokolliert wird.
+ * </p>
+ * <p>
+ * Die Quelle hält die Sicht nur schwach. Ist die Quelle keine
+ * {@link AbstractGlueConfig}, meldet sich die Sicht als
+ * {@link ConfigChangeListener} an; diese Anmeldung hebt {@link #close()}
+ * wieder auf.
+ * </p>
+ * <p>
+ * Änderungen, Laden und Speichern werden an die zugrunde liegende
+ * Konfiguration weitergereicht.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class InterpolatingGlueConfig extends AbstractGlueConfig {
+
+    /** Ein Logger für die Klasse. */
+    private final Logger log =
+            LoggerFactory.getLogger(InterpolatingGlueConfig.class);
+
+    /** Die zugrunde liegende Konfiguration. */
+    private final GlueConfig source;
+
+    /** Die aufgelösten Werte der Schlüssel mit Platzhaltern. */
+    private final ConcurrentMap<String, String> resolved =
+            new ConcurrentHashMap<String, String>();
+
+    /**
+     * Die Werte der gelesenen Schlüssel, deren Auflösung einen Zyklus
+     * berührt. Sie hängen vom Einstiegspunkt ab und werden darum nicht für
+     * die Auflösung anderer Schlüssel verwendet.
+     */
+    private final ConcurrentMap<String, String> cyclicValues =
+            new ConcurrentHashMap<String, String>();
+
+    /**
+     * Die Rückwärts-Referenzen: Zu einem Schlüssel die Schlüssel, deren
+     * zwischengespeicherter Wert ihn referenziert.
+     */
+    private final ConcurrentMap<String, Set<String>> referencedBy =
+            new ConcurrentHashMap<String, Set<String>>();
+
+    /**
+     * Wird bei jeder Änderung hochgezählt. Ein während einer Änderung
+     * berechneter Wert wird wieder verworfen.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Der Listener an der Quelle, falls diese keine
+     * {@link AbstractGlueConfig} ist.
+     */
+    private final ConfigChangeListener sourceListener;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _source Die zugrunde liegende Konfiguration.
+     */
+    public InterpolatingGlueConfig(final GlueConfig _source) {
+        Validate.notNull(_source);
+        source = _source;
+        if (source instanceof AbstractGlueConfig) {
+            ((AbstractGlueConfig) source).addDependent(this);
+            sourceListener = null;
+        } else {
+            sourceListener = new ConfigChangeListener() {
+                public void configurationChanged(
+                    final ConfigChangeEvent event) {
+
+                    List<String> keys = new ArrayList<String>();
+                    keys.addAll(event.getAddedKeys());
+                    keys.addAll(event.getRemovedKeys());
+                    keys.addAll(event.getChangedKeys());
+                    for (String key : keys) {
+                        layerChanged(source, key);
+                    }
+                }
+            };
+            source.addChangeListener(sourceListener);
+        }
+    }
+
+    /**
+     * Meldet die Sicht von der zugrunde liegenden Konfiguration ab. Danach
+     * folgt die Sicht den Änderungen der Quelle nicht mehr.
+     */
+    public void close() {
+        if (sourceListener == null) {
+            ((AbstractGlueConfig) source).removeDependent(this);
+        } else {
+            source.removeChangeListener(sourceListener);
+        }
+        resolved.clear();
+        cyclicValues.clear();
+        referencedBy.clear();
+    }
+
+    /**
+     * Liefert die zugrunde liegende Konfiguration.
+     *
+     * @return Die zugrunde liegende Konfiguration.
+     */
+    public GlueConfig getSource() {
+        return source;
+    }
+
+    @Override
+    protected Object doGetProperty(final String key) {
+        String value = resolved.get(key);
+        if (value == null) {
+            value = cyclicValues.get(key);
+        }
+        if (value == null) {
+            long version = generation.get();
+            Set<String> touched = new HashSet<String>();
+            Resolution resolution = resolve(key, touched);
+            value = resolution.value;
+            if (resolution.cyclic && value != null) {
+                // Alle berührten Schlüssel verweisen auf den Wert, damit
+                // jede Änderung im Zyklus ihn verwirft.
+                for (String reference : touched) {
+                    if (!reference.equals(key)) {
+                        referencing(reference).add(key);
+                    }
+                }
+                cyclicValues.put(key, value);
+                if (generation.get() != version) {
+                    cyclicValues.remove(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public Iterator<String> getKeyIterator() {
+        return source.getKeyIterator();
+    }
+
+    public void load() throws IOException {
+        source.load();
+    }
+
+    public void save() throws IOException {
+        source.save();
+    }
+
+    public void setProperty(final String key, final String value) {
+        source.setProperty(key, value);
+        if (!(source instanceof AbstractGlueConfig)) {
+            layerChanged(source, key);
+        }
+    }
+
+    @Override
+    boolean reportsAllChanges() {
+        return (source instanceof AbstractGlueConfig)
+            && ((AbstractGlueConfig) source).reportsAllChanges();
+    }
+
+    @Override
+    void layerChanged(final GlueConfig layer, final String key) {
+        generation.incrementAndGet();
+        if (key == null) {
+            resolved.clear();
+            cyclicValues.clear();
+            referencedBy.clear();
+            propertiesChanged();
+        } else {
+            for (String invalidated : invalidate(key)) {
+                propertyChanged(invalidated);
+            }
+        }
+    }
+
+    /**
+     * Verwirft den Wert eines Schlüssels und aller Werte, die ihn direkt
+     * oder indirekt referenzieren.
+     *
+     * @param key Der Schlüssel.
+     * @return Der Schlüssel und alle verworfenen Schlüssel.
+     */
+    private Set<String> invalidate(final String key) {
+        Set<String> invalidated = new LinkedHashSet<String>();
+        List<String> pending = new ArrayList<String>();
+        pending.add(key);
+        while (!pending.isEmpty()) {
+            String next = pending.remove(pending.size() - 1);
+            if (!invalidated.add(next)) {
+                continue;
+            }
+            resolved.remove(next);
+            cyclicValues.remove(next);
+            Set<String> referencing = referencedBy.remove(next);
+            if (referencing != null) {
+                pending.addAll(referencing);
+            }
+        }
+        return invalidated;
+    }
+
+    /**
+     * Löst einen Schlüssel auf und speichert jedes Ergebnis, das
+     * Platzhalter enthielt und keinen Zyklus berührt. Referenzierte
+     * Schlüssel werden über einen eigenen Stack statt rekursiv aufgelöst,
+     * damit auch lange Ketten von Platzhaltern nicht den Thread-Stack
+     * erschöpfen.
+     *
+     * @param key Der Schlüssel.
+     * @param touched Sammelt alle gelesenen Schlüssel.
+     * @return Das Ergebnis.
+     */
+    private Resolution resolve(final String key, final Set<String> touched) {
+        Deque<Frame> stack = new ArrayDeque<Frame>();
+        Set<String> visiting = new HashSet<String>();
+        Resolution result = start(key, touched, stack, visiting);
+        while (result == null) {
+            Frame frame = stack.peek();
+            while (frame.index < frame.template.parts.length) {
+                String part = frame.template.parts[frame.index];
+                if ((frame.index & 1) == 0) {
+                    frame.sb.append(part);
+                } else if (visiting.contains(part)) {
+                    log.warn("Cyclic placeholder reference: '" + frame.key
+                        + "' -> '" + part + "'");
+                    frame.append(part, new Resolution(null, true));
+                } else {
+                    Resolution reference =
+                        start(part, touched, stack, visiting);
+                    if (reference == null) {
+                        // Zuerst den referenzierten Schlüssel auflösen.
+                        break;
+                    }
+                    frame.append(part, reference);
+                }
+                frame.index++;
+            }
+            if (frame != stack.peek()) {
+                continue;
+            }
+
+            stack.pop();
+            visiting.remove(frame.key);
+            Resolution done = finish(frame);
+            if (stack.isEmpty()) {
+                result = done;
+            } else {
+                Frame parent = stack.peek();
+                parent.append(frame.key, done);
+                parent.index++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Beginnt die Auflösung eines Schlüssels. Ein gespeicherter Wert oder
+     * ein Wert ohne Platzhalter wird sofort geliefert. Sonst wird der
+     * Schlüssel auf den Stack gelegt.
+     *
+     * @param key Der Schlüssel.
+     * @param touched Sammelt alle gelesenen Schlüssel.
+     * @param stack Die Schlüssel, die gerade aufgelöst werden.
+     * @param visiting Die Schlüssel auf dem Stack.
+     * @return Das Ergebnis oder <code>null</code>, wenn der Schlüssel auf
+     *     den Stack gelegt wurde.
+     */
+    private Resolution start(final String key, final Set<String> touched,
+        final Deque<Frame> stack, final Set<String> visiting) {
+
+        touched.add(key);
+        String cached = resolved.get(key);
+        if (cached != null) {
+            return new Resolution(cached, false);
+        }
+
+        long version = generation.get();
+        String raw = source.getString(key);
+        Interpolator.Template template = Interpolator.Template.parse(raw);
+        if (template == null) {
+            return new Resolution(raw, false);
+        }
+        stack.push(new Frame(key, template, version));
+        visiting.add(key);
+        return null;
+    }
+
+    /**
+     * Schließt die Auflösung eines Schlüssels ab und speichert das
+     * Ergebnis, wenn es keinen Zyklus berührt.
+     *
+     * @param frame Der aufgelöste Schlüssel.
+     * @return Das Ergebnis.
+     */
+    private Resolution finish(final Frame frame) {
+        String value = frame.sb.toString();
+        if (!frame.cyclic) {
+            // Erst die Rückwärts-Referenzen, dann den Wert eintragen. Eine
+            // zwischenzeitliche Änderung entfernt den Wert wieder.
+            Interpolator.Template template = frame.template;
+            for (int index = 0; index < template.references(); index++) {
+                referencing(template.reference(index)).add(frame.key);
+            }
+            resolved.put(frame.key, value);
+            if (generation.get() != frame.version) {
+                resolved.remove(frame.key, value);
+            }
+        }
+        return new Resolution(value, frame.cyclic);
+    }
+
+    /**
+     * Liefert die Menge der Schlüssel, die einen Schlüssel referenzieren.
+     *
+     * @param key Der referenzierte Schlüssel.
+     * @return Die Menge der referenzierenden Schlüssel.
+     */
+    private Set<String> referencing(final String key) {
+        Set<String> result = referencedBy.get(key);
+        if (result == null) {
+            Set<String> created = ConcurrentHashMap.newKeySet();
+            result = referencedBy.putIfAbsent(key, created);
+            if (result == null) {
+                result = created;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ein Schlüssel, der gerade aufgelöst wird.
+     */
+    private static final class Frame {
+
+        /** Der Schlüssel. */
+        private final String key;
+
+        /** Der zerlegte Wert. */
+        private final Interpolator.Template template;
+
+        /** Der Stand von {@link #generation} vor dem Lesen des Werts. */
+        private final long version;
+
+        /** Der bisher aufgelöste Wert. */
+        private final StringBuilder sb = new StringBuilder();
+
+        /** Der nächste Abschnitt des zerlegten Werts. */
+        private int index;
+
+        /** Wurde ein Zyklus berührt? */
+        private boolean cyclic;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _key Der Schlüssel.
+         * @param _template Der zerlegte Wert.
+         * @param _version Der Stand vor dem Lesen des Werts.
+         */
+        private Frame(final String _key,
+            final Interpolator.Template _template, final long _version) {
+
+            key = _key;
+            template = _template;
+            version = _version;
+        }
+
+        /**
+         * Setzt den Wert eines Platzhalters ein. Ohne Wert bleibt der
+         * Platzhalter stehen.
+         *
+         * @param reference Der Schlüssel des Platzhalters.
+         * @param resolution Der aufgelöste Platzhalter.
+         */
+        private void append(final String reference,
+            final Resolution resolution) {
+
+            cyclic |= resolution.cyclic;
+            if (resolution.value == null) {
+                sb.append("${").append(reference).append('}');
+            } else {
+                sb.append(resolution.value);
+            }
+        }
+
+    }
+
+    /**
+     * Das Ergebnis einer Auflösung.
+     */
+    private static final class Resolution {
+
+        /** Der aufgelöste Wert oder <code>null</code>. */
+        private final String value;
+
+        /** Wurde ein Zyklus berührt? */
+        private final boolean cyclic;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _value Der aufgelöste Wert.
+         * @param _cyclic Wurde ein Zyklus berührt?
+         */
+        private Resolution(final String _value, final boolean _cyclic) {
+            value = _value;
+            cyclic = _cyclic;
+        }
+
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ersetzt die ${...} Platzhalter einer Konfiguration. Jeder Wert wird
+ * einmalig in Text- und Platzhalter-Abschnitte zerlegt. Die Platzhalter
+ * bilden einen Abhängigkeitsgraphen, der in topologischer Reihenfolge
+ * aufgelöst wird: Ein Wert wird erst zusammengesetzt, wenn alle von ihm
+ * referenzierten Werte vollständig aufgelöst sind. Jeder Wert wird dabei
+ * genau einmal gebaut, verschachtelte Ketten wie
+ * <code>${a} -&gt; ${b} -&gt; ${c}</code> werden unabhängig von der
+ * Reihenfolge der Schlüssel vollständig aufgelöst.
+ * <p>
+ * Zyklische Referenzen werden erkannt und mit einer Warnung protokolliert.
+ * Der Platzhalter, der den Zyklus schließt, bleibt als Text stehen.
+ * Platzhalter auf unbekannte Schlüssel bleiben ebenfalls unverändert.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class Interpolator {
+
+    /** Ein Logger für die Klasse. */
+    private static final Logger log =
+            LoggerFactory.getLogger(Interpolator.class);
+
+    /** Beginn eines Platzhalters. */
+    private static final String PREFIX = "${";
+
+    /** Ende eines Platzhalters. */
+    private static final String SUFFIX = "}";
+
+    /** Zustand eines Schlüssels: Noch nicht besucht. */
+    private static final int UNVISITED = 0;
+
+    /** Zustand eines Schlüssels: In Bearbeitung. */
+    private static final int VISITING = 1;
+
+    /** Zustand eines Schlüssels: Aufgelöst. */
+    private static final int RESOLVED = 2;
+
+    /** Utility Klasse. */
+    private Interpolator() {
+    }
+
+    /**
+     * Löst alle Platzhalter der übergebenen Eigenschaften auf.
+     *
+     * @param properties Die Eigenschaften.
+     * @return Eine neue Map mit den aufgelösten Eigenschaften.
+     */
+    static Map<String, String> interpolate(
+        final Map<String, String> properties) {
+
+        Map<String, String> result = new HashMap<String, String>(properties);
+        Map<String, Node> nodes = new HashMap<String, Node>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            Template template = Template.parse(entry.getValue());
+            if (template != null) {
+                nodes.put(entry.getKey(), new Node(entry.getKey(), template));
+            }
+        }
+
+        Deque<Node> stack = new ArrayDeque<Node>();
+        for (Node root : nodes.values()) {
+            if (root.state != UNVISITED) {
+                continue;
+            }
+            root.state = VISITING;
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.peek();
+                if (node.next < node.template.references()) {
+                    // Werte ohne Platzhalter sind bereits aufgelöst.
+                    String reference = node.template.reference(node.next++);
+                    Node child = nodes.get(reference);
+                    if (child != null && child.state == UNVISITED) {
+                        child.state = VISITING;
+                        stack.push(child);
+                    } else if (child != null && child.state == VISITING) {
+                        log.warn("Cyclic placeholder reference: '"
+                            + node.key + "' -> '" + reference + "'");
+                    }
+                } else {
+                    stack.pop();
+                    result.put(node.key, node.template.resolve(result, nodes));
+                    node.state = RESOLVED;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ersetzt die Platzhalter eines Strings in einem Durchgang. Die
+     * eingesetzten Werte werden nicht weiter aufgelöst.
+     *
+     * @param string Der String.
+     * @param placeholders Die Ersetzungen.
+     * @return Der String mit ersetzten Platzhaltern.
+     */
+    static String replace(final String string,
+        final Map<String, String> placeholders) {
+
+        Template template = Template.parse(string);
+        if (template == null) {
+            return string;
+        }
+        return template.resolve(placeholders, null);
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /**
+     * Ein in Text- und Platzhalter-Abschnitte zerlegter Wert.
+     */
+    static final class Template {
+
+        /**
+         * Die Abschnitte. Gerade Indizes sind Text, ungerade Indizes die
+         * Schlüssel der Platzhalter.
+         */
+        final String[] parts;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _parts Die Abschnitte.
+         */
+        private Template(final String[] _parts) {
+            parts = _parts;
+        }
+
+        /**
+         * Zerlegt einen Wert. Ein Platzhalter reicht von <code>${</code>
+         * bis zur nächsten <code>}</code>.
+         *
+         * @param value Der Wert.
+         * @return Der zerlegte Wert oder <code>null</code>, wenn der Wert
+         *     keine Platzhalter enthält.
+         */
+        static Template parse(final String value) {
+            if (value == null || value.indexOf(PREFIX) < 0) {
+                return null;
+            }
+            List<String> parts = new ArrayList<String>();
+            int position = 0;
+            int start = value.indexOf(PREFIX);
+            while (start >= 0) {
+                int end = value.indexOf(SUFFIX, start + PREFIX.length());
+                if (end < 0) {
+                    break;
+                }
+                parts.add(value.substring(position, start));
+                parts.add(value.substring(start + PREFIX.length(), end));
+                position = end + SUFFIX.length();
+                start = value.indexOf(PREFIX, position);
+            }
+            if (parts.isEmpty()) {
+                return null;
+            }
+            parts.add(value.substring(position));
+            return new Template(parts.toArray(new String[parts.size()]));
+        }
+
+        /**
+         * Liefert die Anzahl der Platzhalter.
+         *
+         * @return Die Anzahl der Platzhalter.
+         */
+        int references() {
+            return parts.length / 2;
+        }
+
+        /**
+         * Liefert den Schlüssel eines Platzhalters.
+         *
+         * @param index Die Nummer des Platzhalters.
+         * @return Der Schlüssel.
+         */
+        String reference(final int index) {
+            return parts[index * 2 + 1];
+        }
+
+        /**
+         * Setzt den Wert zusammen.
+         *
+         * @param values Die Werte der Platzhalter.
+         * @param nodes Die Knoten des Abhängigkeitsgraphen oder
+         *     <code>null</code>. Schlüssel in Bearbeitung werden nicht
+         *     ersetzt.
+         * @return Der zusammengesetzte Wert.
+         */
+        String resolve(final Map<String, String> values,
+            final Map<String, Node> nodes) {
+
+            StringBuilder sb = new StringBuilder();
+            for (int index = 0; index < parts.length; index++) {
+                if ((index & 1) == 0) {
+                    sb.append(parts[index]);
+                } else {
+                    String key = parts[index];
+                    String value = values.get(key);
+                    Node node = (nodes == null) ? null : nodes.get(key);
+                    if (value == null
+                            || (node != null && node.state == VISITING)) {
+                        sb.append(PREFIX).append(key).append(SUFFIX);
+                    } else {
+                        sb.append(value);
+                    }
+                }
+            }
+            return sb.toString();
+        }
+
+    }
+
+    /**
+     * Ein Schlüssel mit Platzhaltern im Abhängigkeitsgraphen.
+     */
+    private static final class Node {
+
+        /** Der Schlüssel. */
+        private final String key;
+
+        /** Der zerlegte Wert. */
+        private final Template template;
+
+        /** Der Bearbeitungsstand. */
+        private int state = UNVISITED;
+
+        /** Der nächste zu besuchende Platzhalter. */
+        private int next;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _key Der Schlüssel.
+         * @param _template Der zerlegte Wert.
+         */
+        private Node(final String _key, final Template _template) {
+            key = _key;
+            template = _template;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.Iterator;
+
+/**
+ * Ein Bloom-Filter über die Schlüssel einer Konfiguration. Liefert
+ * {@link #mightContain(String)} <code>false</code>, ist der Schlüssel
+ * sicher nicht enthalten. Ein <code>true</code> kann mit geringer
+ * Wahrscheinlichkeit (ca. 2%) falsch sein. Der Filter verwendet zehn Bit
+ * pro Schlüssel und drei aus {@link String#hashCode()} abgeleitete
+ * Positionen. Der Hashwert eines Strings wird von der JVM
+ * zwischengespeichert, ein Test kostet damit nur drei Bit-Zugriffe.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class KeyFilter {
+
+    /** Die Anzahl der Bits pro Schlüssel. */
+    private static final int BITS_PER_KEY = 10;
+
+    /** Die Anzahl der Positionen pro Schlüssel. */
+    private static final int HASHES = 3;
+
+    /** Die Bits. */
+    private final long[] bits;
+
+    /** Die Maske für eine Bit-Position. */
+    private final int mask;
+
+    /**
+     * Konstruktor.
+     *
+     * @param keys Die Schlüssel.
+     * @param expectedKeys Die erwartete Anzahl der Schlüssel.
+     */
+    KeyFilter(final Iterator<String> keys, final int expectedKeys) {
+        int size = Integer.highestOneBit(
+            Math.max(64, expectedKeys * BITS_PER_KEY - 1)) << 1;
+        bits = new long[size >>> 6];
+        mask = size - 1;
+        while (keys.hasNext()) {
+            int hash = keys.next().hashCode();
+            int step = step(hash);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (hash + i * step) & mask;
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Kann der Schlüssel enthalten sein?
+     *
+     * @param key Der Schlüssel.
+     * @return <code>false</code>, wenn der Schlüssel sicher nicht enthalten
+     *     ist.
+     */
+    boolean mightContain(final String key) {
+        int hash = key.hashCode();
+        int step = step(hash);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (hash + i * step) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Leitet die Schrittweite für die zweite und dritte Position ab.
+     *
+     * @param hash Der Hashwert des Schlüssels.
+     * @return Eine ungerade Schrittweite.
+     */
+    private static int step(final int hash) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) | 1;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Die sortierten Schlüssel einer Momentaufnahme. Die Schlüssel zu einem
+ * Präfix liegen in der sortierten Folge hintereinander und werden über
+ * zwei binäre Suchen in <code>O(log n)</code> gefunden.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class KeyIndex {
+
+    /** Die Momentaufnahme, aus der der Index gebaut wurde. */
+    final Map<String, String> snapshot;
+
+    /** Der Änderungszähler der Konfiguration beim Aufbau des Index. */
+    final long generation;
+
+    /** Die sortierten Schlüssel. */
+    private final String[] keys;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _snapshot Eine unveränderliche Momentaufnahme.
+     * @param _generation Der Änderungszähler der Konfiguration.
+     */
+    KeyIndex(final Map<String, String> _snapshot, final long _generation) {
+        snapshot = _snapshot;
+        generation = _generation;
+        keys = _snapshot.keySet().toArray(new String[_snapshot.size()]);
+        Arrays.sort(keys);
+    }
+
+    /**
+     * Konstruktor. Übernimmt die sortierten Schlüssel eines Index, dessen
+     * Momentaufnahme sich nicht geändert hat.
+     *
+     * @param _index Der bisherige Index.
+     * @param _generation Der aktuelle Änderungszähler der Konfiguration.
+     */
+    KeyIndex(final KeyIndex _index, final long _generation) {
+        snapshot = _index.snapshot;
+        generation = _generation;
+        keys = _index.keys;
+    }
+
+    /**
+     * Liefert die Schlüssel, die mit <code>prefix</code> beginnen, in
+     * sortierter Reihenfolge.
+     *
+     * @param prefix Der Präfix.
+     * @return Eine unveränderliche Liste der Schlüssel.
+     */
+    List<String> withPrefix(final String prefix) {
+        int from = Arrays.binarySearch(keys, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        // Erster Schlüssel hinter dem Block mit dem Präfix.
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return Collections.unmodifiableList(
+            Arrays.asList(keys).subList(from, low));
+    }
+
+}
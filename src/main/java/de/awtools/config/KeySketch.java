@@ -0,0 +1,210 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zählt die Zugriffe pro Schlüssel mit begrenztem Speicher. Die Zähler
+ * bilden einen Count-Min Sketch: Jeder Schlüssel erhöht einen
+ * {@link LongAdder} in jeder von {@link #DEPTH} Zeilen, geschätzt wird das
+ * Minimum dieser Zähler. Die Schätzung ist nie zu klein, kann aber durch
+ * Kollisionen zu groß sein.
+ * <p>
+ * Die häufigsten Schlüssel werden in einer Kandidatenliste mit höchstens
+ * <code>capacity</code> Einträgen gehalten. {@link #offer(String)} prüft
+ * einen Schlüssel gegen den kleinsten Kandidaten. Ist die Liste gerade in
+ * Bearbeitung, wird das Angebot verworfen statt zu warten.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see MeteredGlueConfig
+ */
+final class KeySketch {
+
+    /** Die Anzahl der Zeilen. */
+    static final int DEPTH = 4;
+
+    /** Die Breite einer Zeile minus eins. */
+    private final int mask;
+
+    /** Die Zähler, Zeile für Zeile. */
+    private final LongAdder[] cells;
+
+    /** Die maximale Anzahl der Kandidaten. */
+    private final int capacity;
+
+    /** Die Kandidaten für die häufigsten Schlüssel. */
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+
+    /** Die Schätzung des kleinsten Kandidaten beim letzten Austausch. */
+    private volatile long threshold = 0;
+
+    /** Wird die Kandidatenliste gerade bearbeitet? */
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    /**
+     * Konstruktor.
+     *
+     * @param width Die Breite einer Zeile, eine Zweierpotenz.
+     * @param _capacity Die maximale Anzahl der häufigsten Schlüssel.
+     */
+    KeySketch(final int width, final int _capacity) {
+        if (Integer.bitCount(width) != 1 || _capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        mask = width - 1;
+        capacity = _capacity;
+        cells = new LongAdder[DEPTH * width];
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Zählt einen Zugriff.
+     *
+     * @param key Der Schlüssel.
+     */
+    void increment(final String key) {
+        int hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            cells[cell(hash, row)].increment();
+        }
+    }
+
+    /**
+     * Schätzt die Anzahl der Zugriffe auf einen Schlüssel.
+     *
+     * @param key Der Schlüssel.
+     * @return Die Schätzung. Nie kleiner als die tatsächliche Anzahl.
+     */
+    long estimate(final String key) {
+        int hash = key.hashCode();
+        long result = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            result = Math.min(result, cells[cell(hash, row)].sum());
+        }
+        return result;
+    }
+
+    /**
+     * Bietet einen Schlüssel als Kandidaten für die häufigsten Schlüssel
+     * an.
+     *
+     * @param key Der Schlüssel.
+     */
+    void offer(final String key) {
+        if (candidates.contains(key)) {
+            return;
+        }
+        long estimate = estimate(key);
+        if (candidates.size() >= capacity && estimate <= threshold) {
+            return;
+        }
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (candidates.size() < capacity) {
+                candidates.add(key);
+                return;
+            }
+            String smallest = null;
+            long minimum = Long.MAX_VALUE;
+            for (String candidate : candidates) {
+                long count = estimate(candidate);
+                if (count < minimum) {
+                    minimum = count;
+                    smallest = candidate;
+                }
+            }
+            if (estimate > minimum) {
+                candidates.remove(smallest);
+                candidates.add(key);
+            } else {
+                threshold = minimum;
+            }
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Liefert die häufigsten Schlüssel mit ihrer Schätzung, absteigend
+     * sortiert.
+     *
+     * @return Die häufigsten Schlüssel.
+     */
+    Map<String, Long> top() {
+        List<Map.Entry<String, Long>> entries =
+                new ArrayList<Map.Entry<String, Long>>();
+        for (String candidate : candidates) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<String, Long>(
+                candidate, Long.valueOf(estimate(candidate))));
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            public int compare(final Map.Entry<String, Long> left,
+                final Map.Entry<String, Long> right) {
+
+                return right.getValue().compareTo(left.getValue());
+            }
+        });
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Long> entry : entries) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Liefert den Index des Zählers eines Schlüssels in einer Zeile.
+     *
+     * @param hash Der Hashwert des Schlüssels.
+     * @param row Die Zeile.
+     * @return Der Index in {@link #cells}.
+     */
+    private int cell(final int hash, final int row) {
+        int h = hash * 0x9E3779B9 + row * 0x7F4A7C15;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return row * (mask + 1) + (h & mask);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zählt, welche Konfiguration einer {@link CombinedGlueConfig} eine Suche
+ * beantwortet und wie oft keine Konfiguration den Schlüssel kennt. Die
+ * Zähler sind {@link LongAdder}, das Zählen kommt ohne Sperren aus.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see MeteredGlueConfig
+ */
+final class LayerCounters {
+
+    /** Die Treffer pro Konfiguration. */
+    private final ConcurrentMap<GlueConfig, LongAdder> hits =
+            new ConcurrentHashMap<GlueConfig, LongAdder>();
+
+    /** Die Suchen ohne Treffer. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Zählt einen Treffer.
+     *
+     * @param layer Die Konfiguration, die den Schlüssel kennt.
+     */
+    void hit(final GlueConfig layer) {
+        LongAdder counter = hits.get(layer);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = hits.putIfAbsent(layer, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * Zählt eine Suche ohne Treffer.
+     */
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Liefert die Anzahl der Suchen ohne Treffer.
+     *
+     * @return Die Anzahl.
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Liefert die Treffer pro Konfiguration.
+     *
+     * @param layers Die Konfigurationen in ihrer Rangfolge.
+     * @return Die Treffer mit {@link Object#toString()} der Konfiguration
+     *     als Schlüssel, in der Rangfolge der Konfigurationen.
+     */
+    Map<String, Long> hits(final List<GlueConfig> layers) {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (GlueConfig layer : layers) {
+            LongAdder counter = hits.get(layer);
+            result.put(layer.toString(),
+                Long.valueOf((counter == null) ? 0 : counter.sum()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+}
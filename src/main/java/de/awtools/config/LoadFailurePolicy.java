@@ -0,0 +1,49 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+/**
+ * Legt fest, wie {@link CombinedGlueConfig#load()} auf den Fehler einer
+ * einzelnen Konfiguration reagiert. Ein Fehler ist eine Exception beim
+ * Laden oder das Überschreiten der Zeitgrenze der Konfiguration.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see CombinedGlueConfig#addConfig(GlueConfig, LoadFailurePolicy, long)
+ */
+public enum LoadFailurePolicy {
+
+    /** Der Fehler wird von {@link CombinedGlueConfig#load()} geworfen. */
+    FAIL,
+
+    /**
+     * Der Fehler wird protokolliert. Die Konfiguration behält ihren
+     * bisherigen Stand, die übrigen Konfigurationen werden normal geladen.
+     */
+    IGNORE
+
+}
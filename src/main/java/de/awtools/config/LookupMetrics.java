@@ -0,0 +1,194 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.util.Map;
+
+/**
+ * Eine unveränderliche Momentaufnahme der Zähler einer
+ * {@link MeteredGlueConfig}. Alle Zähler laufen seit dem Anlegen der
+ * {@link MeteredGlueConfig} hoch.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see MeteredGlueConfig#metrics()
+ */
+public final class LookupMetrics {
+
+    /** Die Anzahl der Zugriffe. */
+    private final long lookups;
+
+    /** Die Anzahl der Zugriffe ohne Wert. */
+    private final long misses;
+
+    /** Die häufigsten Schlüssel mit ihrer geschätzten Anzahl. */
+    private final Map<String, Long> hotKeys;
+
+    /** Die Treffer pro Konfiguration einer {@link CombinedGlueConfig}. */
+    private final Map<String, Long> layerHits;
+
+    /** Die Suchen ohne Treffer in einer {@link CombinedGlueConfig}. */
+    private final long layerMisses;
+
+    /** Die Zugriffszeiten, siehe {@link #getLatencyHistogram()}. */
+    private final long[] latencyHistogram;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _lookups Die Anzahl der Zugriffe.
+     * @param _misses Die Anzahl der Zugriffe ohne Wert.
+     * @param _hotKeys Die häufigsten Schlüssel.
+     * @param _layerHits Die Treffer pro Konfiguration.
+     * @param _layerMisses Die Suchen ohne Treffer.
+     * @param _latencyHistogram Die Zugriffszeiten.
+     */
+    LookupMetrics(final long _lookups, final long _misses,
+        final Map<String, Long> _hotKeys, final Map<String, Long> _layerHits,
+        final long _layerMisses, final long[] _latencyHistogram) {
+
+        lookups = _lookups;
+        misses = _misses;
+        hotKeys = _hotKeys;
+        layerHits = _layerHits;
+        layerMisses = _layerMisses;
+        latencyHistogram = _latencyHistogram;
+    }
+
+    /**
+     * Liefert die Anzahl der Zugriffe.
+     *
+     * @return Die Anzahl der Zugriffe.
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Liefert die Anzahl der Zugriffe, für die kein Wert gefunden wurde.
+     *
+     * @return Die Anzahl der Zugriffe ohne Wert.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Liefert den Anteil der Zugriffe ohne Wert.
+     *
+     * @return Ein Wert zwischen <code>0</code> und <code>1</code>.
+     */
+    public double getMissRate() {
+        return (lookups == 0) ? 0 : (double) misses / lookups;
+    }
+
+    /**
+     * Liefert die häufigsten Schlüssel, absteigend nach ihrer geschätzten
+     * Anzahl an Zugriffen sortiert. Die Schätzung ist nie zu klein, kann
+     * aber etwas zu groß sein.
+     *
+     * @return Die häufigsten Schlüssel mit ihrer geschätzten Anzahl.
+     */
+    public Map<String, Long> getHotKeys() {
+        return hotKeys;
+    }
+
+    /**
+     * Liefert die Treffer pro Konfiguration, wenn die beobachtete
+     * Konfiguration eine {@link CombinedGlueConfig} oder ein
+     * {@link PropertyHolder} ist. Schlüssel ist die Textdarstellung der
+     * Konfiguration, die Reihenfolge ist deren Rangfolge. Gezählt werden
+     * alle Suchen der {@link CombinedGlueConfig}, auch solche, die nicht über
+     * die {@link MeteredGlueConfig} laufen. Im kompilierten Modus wird nicht
+     * gesucht und deshalb nichts gezählt.
+     *
+     * @return Die Treffer pro Konfiguration oder eine leere Map.
+     */
+    public Map<String, Long> getLayerHits() {
+        return layerHits;
+    }
+
+    /**
+     * Liefert die Anzahl der Suchen, bei denen keine Konfiguration der
+     * {@link CombinedGlueConfig} den Schlüssel kannte.
+     *
+     * @return Die Anzahl der Suchen ohne Treffer.
+     *
+     * @see #getLayerHits()
+     */
+    public long getLayerMisses() {
+        return layerMisses;
+    }
+
+    /**
+     * Liefert das Histogramm der gemessenen Zugriffszeiten. Eintrag
+     * <code>i</code> zählt die Zugriffe mit einer Dauer von
+     * <code>2<sup>i-1</sup></code> bis unter <code>2<sup>i</sup></code>
+     * Nanosekunden, Eintrag <code>0</code> die Zugriffe unter einer
+     * Nanosekunde. Gemessen wird nur eine Stichprobe der Zugriffe.
+     *
+     * @return Eine Kopie des Histogramms mit 64 Einträgen.
+     */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+
+    /**
+     * Schätzt ein Quantil der Zugriffszeiten aus dem Histogramm.
+     *
+     * @param quantile Das Quantil, z.B. <code>0.99</code>.
+     * @return Die obere Grenze des Eintrags, der das Quantil enthält, in
+     *     Nanosekunden. <code>0</code>, wenn nichts gemessen wurde.
+     */
+    public long getLatencyQuantile(final double quantile) {
+        long total = 0;
+        for (long count : latencyHistogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int index = 0; index < latencyHistogram.length; index++) {
+            seen += latencyHistogram[index];
+            if (seen >= rank && latencyHistogram[index] > 0) {
+                return (index >= 63) ? Long.MAX_VALUE : 1L << index;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "LookupMetrics[lookups=" + lookups + ", misses=" + misses
+            + ", p99=" + getLatencyQuantile(0.99) + "ns, hotKeys=" + hotKeys
+            + ", layerHits=" + layerHits + ", layerMisses=" + layerMisses
+            + "]";
+    }
+
+}
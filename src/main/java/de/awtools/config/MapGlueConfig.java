@@ -26,37 +26,103 @@
 package de.awtools.config;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
-import org.apache.commons.collections.IteratorUtils;
-
 /**
  * Eine In-Memory-Konfiguration. Diese {@link GlueConfig} Implementierung hat
  * keine persistente Repräsentation.
+ * <p>
+ * Die Eigenschaften liegen in einer unveränderlichen Map. Lesende Zugriffe
+ * sind ohne Sperren möglich. {@link #setProperty(String, String)} kopiert
+ * die Map und veröffentlicht die Kopie (copy-on-write). Für große
+ * Konfigurationen gibt es mit {@link #compact(Map)} eine speichersparende
+ * Variante.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 2319 $ $Date: 2010-07-30 15:46:58 +0200 (Fr, 30 Jul 2010) $
  */
 public final class MapGlueConfig extends AbstractGlueConfig {
 
-    /** Die interne Eigenschaftsverwaltung. */
-    private final Map<String, String> map = new HashMap<String, String>();
+    /**
+     * Die interne, unveränderliche Eigenschaftsverwaltung. Enthält keine
+     * <code>null</code> Werte.
+     */
+    private volatile Map<String, String> map;
+
+    /** Liegen die Eigenschaften in einer {@link CompactMap}? */
+    private boolean compact;
 
     /**
      * Konstruktor. Ohne Eigenschaften.
      */
     public MapGlueConfig() {
+        map = Collections.emptyMap();
     }
 
     /**
-     * Konstruktor.
+     * Konstruktor. Schlüssel und Werte werden über einen gemeinsamen Pool
+     * auf kanonische Instanzen abgebildet (siehe {@link FootprintReport}).
      *
-     * @param properties Die zu übernehmenden Eigenschaften.
+     * @param properties Die zu übernehmenden Eigenschaften. Schlüssel mit
+     *     <code>null</code> Wert werden nicht übernommen.
      */
     public MapGlueConfig(final Map<String, String> properties) {
-        map.putAll(properties);
+        map = Collections.unmodifiableMap(withoutNulls(
+            StringPool.SHARED.intern(properties)));
+    }
+
+    /**
+     * Legt eine Konfiguration an, deren Eigenschaften in parallelen Arrays
+     * mit offener Adressierung liegen statt in einer
+     * {@link java.util.HashMap}. Das spart das Entry-Objekt pro Schlüssel und
+     * lohnt sich für große, selten veränderte Konfigurationen.
+     * {@link #setProperty(String, String)} baut die Arrays komplett neu auf.
+     *
+     * @param properties Die zu übernehmenden Eigenschaften. Kein Schlüssel
+     *     darf <code>null</code> sein.
+     * @return Eine Konfiguration.
+     */
+    public static MapGlueConfig compact(final Map<String, String> properties) {
+        MapGlueConfig config = new MapGlueConfig();
+        config.compact = true;
+        config.map = new CompactMap(withoutNulls(
+            StringPool.SHARED.intern(properties)));
+        return config;
+    }
+
+    /**
+     * Entfernt die Schlüssel mit <code>null</code> Wert.
+     *
+     * @param properties Eine veränderbare Map.
+     * @return Die übergebene Map.
+     */
+    private static Map<String, String> withoutNulls(
+        final Map<String, String> properties) {
+
+        properties.values().removeAll(Collections.singleton(null));
+        return properties;
+    }
+
+    /**
+     * Übernimmt die Map ohne Kopie. Der Aufrufer darf die Map danach nicht
+     * mehr verändern.
+     *
+     * @param properties Die zu übernehmenden Eigenschaften.
+     * @return Eine Konfiguration.
+     */
+    static MapGlueConfig adopt(final Map<String, String> properties) {
+        MapGlueConfig config = new MapGlueConfig();
+        config.map = Collections.unmodifiableMap(properties);
+        return config;
+    }
+
+    @Override
+    Map<String, String> snapshot() {
+        return map;
     }
 
     @Override
@@ -64,9 +130,8 @@ public final class MapGlueConfig extends AbstractGlueConfig {
         return (map.get(key));
     }
 
-    @SuppressWarnings("unchecked")
     public Iterator<String> getKeyIterator() {
-        return (IteratorUtils.unmodifiableIterator(map.keySet().iterator()));
+        return (map.keySet().iterator());
     }
 
     public void load() throws IOException {
@@ -78,7 +143,17 @@ public final class MapGlueConfig extends AbstractGlueConfig {
     }
 
     public void setProperty(final String key, final String value) {
-        map.put(key, value);
+        synchronized (this) {
+            Map<String, String> copy = new HashMap<String, String>(map);
+            if (value == null) {
+                copy.remove(key);
+            } else {
+                copy.put(key, value);
+            }
+            map = compact ? new CompactMap(copy)
+                : Collections.unmodifiableMap(copy);
+        }
+        propertyChanged(key);
     }
 
 }
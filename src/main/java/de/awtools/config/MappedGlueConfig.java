@@ -0,0 +1,534 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.Validate;
+
+/**
+ * Eine nur lesbare Konfiguration, deren Eigenschaften in einer per
+ * {@link FileChannel#map(FileChannel.MapMode, long, long)} eingeblendeten
+ * Binärdatei liegen. Die Datei wird mit {@link MappedGlueConfigWriter}
+ * erzeugt. Die Suche nach einem Schlüssel arbeitet direkt auf den
+ * eingeblendeten Bytes, der Heap-Verbrauch ist unabhängig von der Anzahl der
+ * Schlüssel. Mehrere JVMs, die dieselbe Datei einblenden, teilen sich die
+ * Daten über den Page-Cache des Betriebssystems.
+ * <p>
+ * Aufbau der Datei (big endian):
+ * </p>
+ * <pre>
+ * int  MAGIC, int VERSION, int Anzahl Einträge, int Anzahl Slots
+ * Slots:    Anzahl Slots * (int Hash, int Offset des Eintrags oder 0)
+ * Einträge: nach Schlüssel sortiert, jeweils
+ *           int Länge, UTF-8 Schlüssel, int Länge, UTF-8 Wert
+ * </pre>
+ * <p>
+ * Die Slots bilden eine Hash-Tabelle mit linearer Sondierung über
+ * {@link String#hashCode()}. {@link #load()} blendet die Datei erneut ein.
+ * Die Datei sollte deshalb nur durch Umbenennen ersetzt werden, wie es
+ * {@link MappedGlueConfigWriter} macht.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class MappedGlueConfig extends AbstractGlueConfig {
+
+    /** Kennung des Dateiformats. */
+    static final int MAGIC = 0x41574346;
+
+    /** Version des Dateiformats. */
+    static final int VERSION = 1;
+
+    /** Die Länge des Dateikopfs in Bytes. */
+    static final int HEADER_SIZE = 16;
+
+    /** Der Zeichensatz für Schlüssel und Werte. */
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** Die Binärdatei. */
+    private final File file;
+
+    /** Die eingeblendete Datei. Ist <code>null</code> vor dem Laden. */
+    private volatile ByteBuffer buffer;
+
+    /** Die Sicht auf {@link #buffer}, siehe {@link #snapshot()}. */
+    private volatile MappedMap view;
+
+    /**
+     * Konstruktor. Die Datei wird erst mit {@link #load()} eingeblendet.
+     *
+     * @param _file Die Binärdatei.
+     */
+    public MappedGlueConfig(final File _file) {
+        Validate.notNull(_file);
+        file = _file;
+    }
+
+    /**
+     * Liefert die Binärdatei.
+     *
+     * @return Die Binärdatei.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge.
+     *
+     * @return Die Anzahl der Einträge.
+     */
+    public int getEntryCount() {
+        ByteBuffer current = buffer;
+        return (current == null) ? 0 : current.getInt(8);
+    }
+
+    @Override
+    public int size() {
+        return getEntryCount();
+    }
+
+    public void load() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        ByteBuffer mapped;
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + file);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                channel.size());
+        } finally {
+            IOUtils.closeQuietly(raf);
+        }
+
+        if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped configuration: " + file);
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException("Unsupported version " + mapped.getInt(4)
+                + ": " + file);
+        }
+        if (!isValid(mapped)) {
+            throw new IOException("Corrupt mapped configuration: " + file);
+        }
+
+        buffer = mapped;
+        propertiesChanged();
+    }
+
+    /**
+     * Wird nicht unterstützt.
+     *
+     * @throws UnsupportedOperationException Immer.
+     */
+    public void save() throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Wird nicht unterstützt.
+     *
+     * @param key Der Schlüssel.
+     * @param value Wert der Eigenschaft.
+     * @throws UnsupportedOperationException Immer.
+     */
+    public void setProperty(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Object doGetProperty(final String key) {
+        ByteBuffer current = buffer;
+        if (current == null) {
+            return null;
+        }
+        return find(current, key);
+    }
+
+    /**
+     * Liefert eine nur lesbare Sicht auf die eingeblendete Datei. Die Sicht
+     * kopiert keine Einträge auf den Heap. Sie bleibt bei dem Stand, den sie
+     * beim Anlegen vorfand, und wird bis zum nächsten {@link #load()}
+     * wiederverwendet.
+     *
+     * @return Eine Sicht auf die Eigenschaften.
+     */
+    @Override
+    Map<String, String> snapshot() {
+        ByteBuffer current = buffer;
+        if (current == null) {
+            return Collections.emptyMap();
+        }
+        MappedMap mapped = view;
+        if (mapped == null || mapped.mapped != current) {
+            mapped = new MappedMap(current);
+            view = mapped;
+        }
+        return mapped;
+    }
+
+    /**
+     * Prüft den Aufbau einer eingeblendeten Datei. Alle Einträge müssen
+     * innerhalb der Datei liegen, jeder belegte Slot muss auf den Anfang
+     * eines Eintrags zeigen und mindestens ein Slot muss frei sein. Sonst
+     * könnte {@link #find(ByteBuffer, String)} endlos suchen oder über das
+     * Ende der Datei hinaus lesen.
+     *
+     * @param mapped Die eingeblendete Datei.
+     * @return <code>true</code>, wenn die Datei gelesen werden kann.
+     */
+    private static boolean isValid(final ByteBuffer mapped) {
+        int count = mapped.getInt(8);
+        int slots = mapped.getInt(12);
+        long limit = mapped.limit();
+        if (Integer.bitCount(slots) != 1 || count < 0 || count >= slots
+                || HEADER_SIZE + 8L * slots > limit) {
+            return false;
+        }
+
+        int[] offsets = new int[count];
+        long offset = HEADER_SIZE + 8L * slots;
+        for (int index = 0; index < count; index++) {
+            if (offset + 4 > limit) {
+                return false;
+            }
+            offsets[index] = (int) offset;
+            int keyLength = mapped.getInt((int) offset);
+            long valueOffset = offset + 4 + keyLength;
+            if (keyLength < 0 || valueOffset + 4 > limit) {
+                return false;
+            }
+            int valueLength = mapped.getInt((int) valueOffset);
+            offset = valueOffset + 4 + valueLength;
+            if (valueLength < 0 || offset > limit) {
+                return false;
+            }
+        }
+
+        int occupied = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int slotOffset = mapped.getInt(HEADER_SIZE + 8 * slot + 4);
+            if (slotOffset != 0) {
+                if (Arrays.binarySearch(offsets, slotOffset) < 0) {
+                    return false;
+                }
+                occupied++;
+            }
+        }
+        return occupied == count;
+    }
+
+    /**
+     * Sucht einen Schlüssel in einer eingeblendeten Datei.
+     *
+     * @param current Die eingeblendete Datei.
+     * @param key Der Schlüssel.
+     * @return Der Wert oder <code>null</code>.
+     */
+    private static String find(final ByteBuffer current, final String key) {
+        int hash = hash(key);
+        int mask = current.getInt(12) - 1;
+        int slot = hash & mask;
+        while (true) {
+            int position = HEADER_SIZE + 8 * slot;
+            int offset = current.getInt(position + 4);
+            if (offset == 0) {
+                return null;
+            }
+            if (current.getInt(position) == hash) {
+                int keyLength = current.getInt(offset);
+                if (equalsUtf8(current, offset + 4, keyLength, key)) {
+                    int valueOffset = offset + 4 + keyLength;
+                    return decode(current, valueOffset + 4,
+                        current.getInt(valueOffset));
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Liefert einen Iterator über alle Schlüssel in sortierter Reihenfolge.
+     *
+     * @return Ein Iterator über alle Schlüssel.
+     */
+    public Iterator<String> getKeyIterator() {
+        final ByteBuffer current = buffer;
+        if (current == null) {
+            return new Iterator<String>() {
+                public boolean hasNext() {
+                    return false;
+                }
+
+                public String next() {
+                    throw new NoSuchElementException();
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        final int count = current.getInt(8);
+        final int start = HEADER_SIZE + 8 * current.getInt(12);
+        return new Iterator<String>() {
+            private int index = 0;
+
+            private int offset = start;
+
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int keyLength = current.getInt(offset);
+                String key = decode(current, offset + 4, keyLength);
+                int valueOffset = offset + 4 + keyLength;
+                offset = valueOffset + 4 + current.getInt(valueOffset);
+                index++;
+                return key;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    /**
+     * Der Hash eines Schlüssels.
+     *
+     * @param key Der Schlüssel.
+     * @return Der Hash.
+     */
+    static int hash(final String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Dekodiert einen UTF-8 String aus dem Puffer.
+     *
+     * @param buffer Der Puffer.
+     * @param offset Der Beginn des Strings.
+     * @param length Die Länge in Bytes.
+     * @return Der String.
+     */
+    private static String decode(final ByteBuffer buffer, final int offset,
+        final int length) {
+
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Vergleicht einen UTF-8 kodierten String im Puffer mit einem String,
+     * ohne diesen zu kodieren oder den Puffer zu dekodieren.
+     *
+     * @param buffer Der Puffer.
+     * @param offset Der Beginn des kodierten Strings.
+     * @param length Die Länge des kodierten Strings in Bytes.
+     * @param key Der zu vergleichende String.
+     * @return <code>true</code>, wenn beide Strings gleich sind.
+     */
+    private static boolean equalsUtf8(final ByteBuffer buffer,
+        final int offset, final int length, final String key) {
+
+        int position = offset;
+        int end = offset + length;
+        int chars = key.length();
+        for (int i = 0; i < chars; i++) {
+            int c = key.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < chars
+                    && Character.isLowSurrogate(key.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, key.charAt(++i));
+            } else if (Character.isSurrogate((char) c)) {
+                // Wie String#getBytes(Charset): Ersatzzeichen '?'.
+                c = '?';
+            }
+
+            if (c < 0x80) {
+                if (position >= end || buffer.get(position++) != (byte) c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (position + 2 > end
+                        || buffer.get(position++) != (byte) (0xC0 | (c >> 6))
+                        || buffer.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else if (c < 0x10000) {
+                if (position + 3 > end
+                        || buffer.get(position++) != (byte) (0xE0 | (c >> 12))
+                        || buffer.get(position++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || buffer.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else {
+                if (position + 4 > end
+                        || buffer.get(position++) != (byte) (0xF0 | (c >> 18))
+                        || buffer.get(position++) != (byte) (0x80 | ((c >> 12) & 0x3F))
+                        || buffer.get(position++) != (byte) (0x80 | ((c >> 6) & 0x3F))
+                        || buffer.get(position++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return position == end;
+    }
+
+    /**
+     * Eine nur lesbare {@link Map} über einer eingeblendeten Datei. Suchen
+     * laufen über die Hash-Tabelle der Datei, die Einträge werden in ihrer
+     * sortierten Reihenfolge direkt aus der Datei gelesen.
+     */
+    private static final class MappedMap extends AbstractMap<String, String> {
+
+        /** Die eingeblendete Datei. */
+        private final ByteBuffer mapped;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _mapped Die eingeblendete Datei.
+         */
+        private MappedMap(final ByteBuffer _mapped) {
+            mapped = _mapped;
+        }
+
+        @Override
+        public String get(final Object key) {
+            return (key instanceof String) ? find(mapped, (String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return mapped.getInt(8);
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new EntryIterator(mapped);
+                }
+
+                @Override
+                public int size() {
+                    return mapped.getInt(8);
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Liest die Einträge einer eingeblendeten Datei nacheinander.
+     */
+    private static final class EntryIterator
+            implements Iterator<Map.Entry<String, String>> {
+
+        /** Die eingeblendete Datei. */
+        private final ByteBuffer mapped;
+
+        /** Die Anzahl der Einträge. */
+        private final int count;
+
+        /** Der Index des nächsten Eintrags. */
+        private int index = 0;
+
+        /** Der Offset des nächsten Eintrags. */
+        private int offset;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _mapped Die eingeblendete Datei.
+         */
+        private EntryIterator(final ByteBuffer _mapped) {
+            mapped = _mapped;
+            count = _mapped.getInt(8);
+            offset = HEADER_SIZE + 8 * _mapped.getInt(12);
+        }
+
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int keyLength = mapped.getInt(offset);
+            String key = decode(mapped, offset + 4, keyLength);
+            int valueOffset = offset + 4 + keyLength;
+            int valueLength = mapped.getInt(valueOffset);
+            String value = decode(mapped, valueOffset + 4, valueLength);
+            offset = valueOffset + 4 + valueLength;
+            index++;
+            return new AbstractMap.SimpleImmutableEntry<String, String>(key,
+                value);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.Validate;
+
+/**
+ * Schreibt die Binärdatei einer {@link MappedGlueConfig}. Die Datei wird
+ * zunächst neben der Zieldatei angelegt und dann per Umbenennung ersetzt.
+ * Eine JVM, die die alte Datei gerade eingeblendet hat, liest damit
+ * weiterhin die alten, unveränderten Daten.
+ * <p>
+ * Aufruf von der Kommandozeile:
+ * </p>
+ * <pre>
+ * java de.awtools.config.MappedGlueConfigWriter config.properties config.bin
+ * </pre>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class MappedGlueConfigWriter {
+
+    /** Utility Klasse. */
+    private MappedGlueConfigWriter() {
+    }
+
+    /**
+     * Wandelt eine Property-Datei in eine Binärdatei.
+     *
+     * @param args Die Property-Datei und die Binärdatei.
+     * @throws IOException Fehler beim Lesen oder Schreiben.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MappedGlueConfigWriter"
+                + " <properties file> <target file>");
+            System.exit(1);
+        }
+        write(new File(args[0]).toURI().toURL(), new File(args[1]));
+    }
+
+    /**
+     * Schreibt die Eigenschaften einer Property-Datei.
+     *
+     * @param propertiesResource Die URL der Property-Datei.
+     * @param target Die Binärdatei.
+     * @throws IOException Fehler beim Lesen oder Schreiben.
+     */
+    public static void write(final URL propertiesResource, final File target)
+            throws IOException {
+
+        write(PropertiesParser.parse(propertiesResource), target);
+    }
+
+    /**
+     * Schreibt die Eigenschaften einer Konfiguration, so wie sie über
+     * {@link GlueConfig#getString(String)} sichtbar sind.
+     *
+     * @param config Die Konfiguration.
+     * @param target Die Binärdatei.
+     * @throws IOException Fehler beim Schreiben.
+     */
+    public static void write(final GlueConfig config, final File target)
+            throws IOException {
+
+        SortedMap<String, String> properties = new TreeMap<String, String>();
+        for (Iterator<String> i = config.getKeyIterator(); i.hasNext();) {
+            String key = i.next();
+            String value = config.getString(key);
+            if (value != null) {
+                properties.put(key, value);
+            }
+        }
+        write(properties, target);
+    }
+
+    /**
+     * Schreibt die Eigenschaften einer Map. Schlüssel ohne Wert werden
+     * übersprungen.
+     *
+     * @param properties Die Eigenschaften.
+     * @param target Die Binärdatei.
+     * @throws IOException Fehler beim Schreiben.
+     */
+    public static void write(final Map<String, String> properties,
+        final File target) throws IOException {
+
+        Validate.notNull(properties);
+        Validate.notNull(target);
+
+        SortedMap<String, String> sorted = new TreeMap<String, String>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getValue() != null) {
+                sorted.put(entry.getKey(), entry.getValue());
+            }
+        }
+        int count = sorted.size();
+        int slots = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+
+        byte[][] keys = new byte[count][];
+        byte[][] values = new byte[count][];
+        int[] hashes = new int[count];
+        long size = MappedGlueConfig.HEADER_SIZE + 8L * slots;
+        int index = 0;
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            keys[index] = entry.getKey().getBytes(MappedGlueConfig.UTF8);
+            values[index] = entry.getValue().getBytes(MappedGlueConfig.UTF8);
+            hashes[index] = MappedGlueConfig.hash(entry.getKey());
+            size += 8L + keys[index].length + values[index].length;
+            index++;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many properties for one file.");
+        }
+
+        // Hash-Tabelle mit linearer Sondierung aufbauen.
+        int[] slotHashes = new int[slots];
+        int[] slotOffsets = new int[slots];
+        int offset = MappedGlueConfig.HEADER_SIZE + 8 * slots;
+        for (index = 0; index < count; index++) {
+            int slot = hashes[index] & (slots - 1);
+            while (slotOffsets[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            slotHashes[slot] = hashes[index];
+            slotOffsets[slot] = offset;
+            offset += 8 + keys[index].length + values[index].length;
+        }
+
+        File parent = target.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(target.getName(), ".tmp", parent);
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(temp)));
+            out.writeInt(MappedGlueConfig.MAGIC);
+            out.writeInt(MappedGlueConfig.VERSION);
+            out.writeInt(count);
+            out.writeInt(slots);
+            for (int slot = 0; slot < slots; slot++) {
+                out.writeInt(slotHashes[slot]);
+                out.writeInt(slotOffsets[slot]);
+            }
+            for (index = 0; index < count; index++) {
+                out.writeInt(keys[index].length);
+                out.write(keys[index]);
+                out.writeInt(values[index].length);
+                out.write(values[index]);
+            }
+            out.close();
+            out = null;
+            PropertiesFileWriter.move(temp, target);
+        } finally {
+            IOUtils.closeQuietly(out);
+            temp.delete();
+        }
+    }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Eine Sicht auf eine {@link GlueConfig}, die jeden Zugriff zählt: die
+ * Zugriffe insgesamt, die Zugriffe ohne Wert, die häufigsten Schlüssel und
+ * eine Stichprobe der Zugriffszeiten. Ist die beobachtete Konfiguration eine
+ * {@link CombinedGlueConfig} oder ein {@link PropertyHolder}, wird
+ * zusätzlich gezählt, welche ihrer Konfigurationen die Suchen beantwortet.
+ * {@link #metrics()} liefert eine Momentaufnahme aller Zähler.
+ * <p>
+ * Alle Zähler sind {@link LongAdder}, das Zählen kommt ohne Sperren aus.
+ * Exakt gezählt werden nur die Zugriffe insgesamt und die Zugriffe ohne
+ * Wert. Zugriffszeit und Schlüssel werden nur für eine Stichprobe von im
+ * Mittel jedem <code>n</code>-ten Zugriff erfasst (siehe
+ * {@link #MeteredGlueConfig(GlueConfig, int)}) und auf alle Zugriffe
+ * hochgerechnet. Der Speicher ist begrenzt: Die Zugriffe pro Schlüssel
+ * werden in einem Count-Min Sketch geschätzt, gemerkt werden nur die
+ * häufigsten Schlüssel.
+ * </p>
+ * <p>
+ * Änderungen, Laden und Speichern werden an die zugrunde liegende
+ * Konfiguration weitergereicht.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public final class MeteredGlueConfig extends AbstractGlueConfig {
+
+    /** Die Breite einer Zeile des Count-Min Sketch. */
+    private static final int SKETCH_WIDTH = 512;
+
+    /** Die Anzahl der gemerkten häufigsten Schlüssel. */
+    private static final int HOT_KEYS = 32;
+
+    /** Die Standard-Stichprobe: Jeder 64. Zugriff wird erfasst. */
+    public static final int DEFAULT_LATENCY_SAMPLING = 64;
+
+    /** Die zugrunde liegende Konfiguration. */
+    private final GlueConfig source;
+
+    /** Die Zusammenführung, deren Suchen gezählt werden, oder null. */
+    private final CombinedGlueConfig combined;
+
+    /** Zählt die Treffer pro Konfiguration oder ist <code>null</code>. */
+    private final LayerCounters layerCounters;
+
+    /** Die Stichprobe als Bitmaske. */
+    private final int samplingMask;
+
+    /** Die Anzahl der Zugriffe. */
+    private final LongAdder lookups = new LongAdder();
+
+    /** Die Anzahl der Zugriffe ohne Wert. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Die Zugriffe pro Schlüssel. */
+    private final KeySketch keys = new KeySketch(SKETCH_WIDTH, HOT_KEYS);
+
+    /** Das Histogramm der Zugriffszeiten. */
+    private final LongAdder[] latencies = new LongAdder[64];
+
+    /**
+     * Der Listener an der Quelle, falls diese keine
+     * {@link AbstractGlueConfig} ist.
+     */
+    private final ConfigChangeListener sourceListener;
+
+    /**
+     * Konstruktor. Erfasst im Mittel jeden 64. Zugriff.
+     *
+     * @param _source Die zu beobachtende Konfiguration.
+     */
+    public MeteredGlueConfig(final GlueConfig _source) {
+        this(_source, DEFAULT_LATENCY_SAMPLING);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param _source Die zu beobachtende Konfiguration.
+     * @param latencySampling Im Mittel wird jeder
+     *     <code>latencySampling</code>-te Zugriff gemessen und sein Schlüssel
+     *     gezählt. Eine Zweierpotenz, <code>1</code> erfasst jeden Zugriff.
+     */
+    public MeteredGlueConfig(final GlueConfig _source,
+        final int latencySampling) {
+
+        Validate.notNull(_source);
+        Validate.isTrue(Integer.bitCount(latencySampling) == 1,
+            "latencySampling must be a power of two");
+        source = _source;
+        samplingMask = latencySampling - 1;
+        for (int index = 0; index < latencies.length; index++) {
+            latencies[index] = new LongAdder();
+        }
+
+        if (source instanceof PropertyHolder) {
+            combined = ((PropertyHolder) source).getCombined();
+        } else if (source instanceof CombinedGlueConfig) {
+            combined = (CombinedGlueConfig) source;
+        } else {
+            combined = null;
+        }
+        layerCounters = (combined == null) ? null : combined.layerCounters();
+
+        if (source instanceof AbstractGlueConfig) {
+            ((AbstractGlueConfig) source).addDependent(this);
+            sourceListener = null;
+        } else {
+            sourceListener = new ConfigChangeListener() {
+                public void configurationChanged(
+                    final ConfigChangeEvent event) {
+
+                    layerChanged(source, null);
+                }
+            };
+            source.addChangeListener(sourceListener);
+        }
+    }
+
+    /**
+     * Meldet die Sicht von der zugrunde liegenden Konfiguration ab. Danach
+     * folgt die Sicht den Änderungen der Quelle nicht mehr. Die Quelle
+     * vergleicht ohne weitere Listener auch keine Werte mehr.
+     */
+    public void close() {
+        if (sourceListener == null) {
+            ((AbstractGlueConfig) source).removeDependent(this);
+        } else {
+            source.removeChangeListener(sourceListener);
+        }
+    }
+
+    /**
+     * Liefert die zugrunde liegende Konfiguration.
+     *
+     * @return Die zugrunde liegende Konfiguration.
+     */
+    public GlueConfig getSource() {
+        return source;
+    }
+
+    /**
+     * Liefert eine Momentaufnahme aller Zähler.
+     *
+     * @return Die Zähler.
+     */
+    public LookupMetrics metrics() {
+        long[] histogram = new long[latencies.length];
+        for (int index = 0; index < latencies.length; index++) {
+            histogram[index] = latencies[index].sum();
+        }
+        Map<String, Long> layerHits = Collections.emptyMap();
+        long layerMisses = 0;
+        if (layerCounters != null) {
+            layerHits = layerCounters.hits(combined.layers());
+            layerMisses = layerCounters.misses();
+        }
+        // Die Stichprobe auf alle Zugriffe hochrechnen.
+        long factor = samplingMask + 1;
+        Map<String, Long> hotKeys = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, Long> entry : keys.top().entrySet()) {
+            hotKeys.put(entry.getKey(),
+                Long.valueOf(entry.getValue().longValue() * factor));
+        }
+        return new LookupMetrics(lookups.sum(), misses.sum(),
+            Collections.unmodifiableMap(hotKeys), layerHits, layerMisses,
+            histogram);
+    }
+
+    @Override
+    protected Object doGetProperty(final String key) {
+        if ((ThreadLocalRandom.current().nextInt() & samplingMask) != 0) {
+            String value = source.getString(key);
+            lookups.increment();
+            if (value == null) {
+                misses.increment();
+            }
+            return value;
+        }
+
+        long start = System.nanoTime();
+        String value = source.getString(key);
+        long nanos = Math.max(System.nanoTime() - start, 0);
+        latencies[64 - Long.numberOfLeadingZeros(nanos)].increment();
+        lookups.increment();
+        if (value == null) {
+            misses.increment();
+        }
+        keys.increment(key);
+        keys.offer(key);
+        return value;
+    }
+
+    /**
+     * Liefert die Momentaufnahme der zugrunde liegenden Konfiguration, ohne
+     * die Zugriffe zu zählen.
+     */
+    @Override
+    Map<String, String> snapshot() {
+        return source.asMap();
+    }
+
+    public Iterator<String> getKeyIterator() {
+        return source.getKeyIterator();
+    }
+
+    public void load() throws IOException {
+        source.load();
+    }
+
+    public void save() throws IOException {
+        source.save();
+    }
+
+    public void setProperty(final String key, final String value) {
+        source.setProperty(key, value);
+        if (!(source instanceof AbstractGlueConfig)) {
+            layerChanged(source, key);
+        }
+    }
+
+    @Override
+    boolean reportsAllChanges() {
+        return (source instanceof AbstractGlueConfig)
+            && ((AbstractGlueConfig) source).reportsAllChanges();
+    }
+
+    @Override
+    void layerChanged(final GlueConfig layer, final String key) {
+        if (key == null) {
+            propertiesChanged();
+        } else {
+            propertyChanged(key);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Überwacht die Datei einer {@link PropertiesGlueConfig} mit einem
+ * {@link WatchService} und lädt die Konfiguration nach einer Änderung neu.
+ * Mehrere kurz aufeinander folgende Änderungen (z.B. beim Speichern aus
+ * einem Editor) werden zu einem Ladevorgang zusammengefasst: Geladen wird
+ * erst, wenn für die Dauer der Entprellzeit keine weitere Änderung gemeldet
+ * wurde.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class PropertiesFileWatcher implements Runnable {
+
+    /** Der Logger der Klasse. */
+    private final Logger log =
+            LoggerFactory.getLogger(PropertiesFileWatcher.class);
+
+    /** Die zu aktualisierende Konfiguration. */
+    private final PropertiesGlueConfig config;
+
+    /** Der Name der überwachten Datei. */
+    private final Path fileName;
+
+    /** Die Entprellzeit in Millisekunden. */
+    private final long debounceMillis;
+
+    /** Der WatchService für das Verzeichnis der Datei. */
+    private final WatchService watchService;
+
+    /** Der Thread, der die Änderungen verarbeitet. */
+    private final Thread thread;
+
+    /**
+     * Konstruktor. Die Überwachung beginnt mit {@link #start()}.
+     *
+     * @param _config Die zu aktualisierende Konfiguration.
+     * @param file Die zu überwachende Datei.
+     * @param _debounceMillis Die Entprellzeit in Millisekunden.
+     * @throws IOException Das Verzeichnis kann nicht überwacht werden.
+     */
+    PropertiesFileWatcher(final PropertiesGlueConfig _config,
+        final File file, final long _debounceMillis) throws IOException {
+
+        config = _config;
+        debounceMillis = _debounceMillis;
+
+        Path path = file.getAbsoluteFile().toPath();
+        fileName = path.getFileName();
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            path.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException ex) {
+            watchService.close();
+            throw ex;
+        }
+
+        thread = new Thread(this, "awtools-config-watcher-" + fileName);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Startet die Überwachung.
+     */
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Beendet die Überwachung.
+     */
+    void stop() {
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            log.debug("Closing the watch service failed.", ex);
+        }
+        thread.interrupt();
+    }
+
+    public void run() {
+        try {
+            while (true) {
+                if (affectsFile(watchService.take())) {
+                    // Entprellen: Warten, bis keine Änderung mehr kommt.
+                    WatchKey key;
+                    while ((key = watchService.poll(debounceMillis,
+                        TimeUnit.MILLISECONDS)) != null) {
+
+                        affectsFile(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // Überwachung wurde beendet.
+        }
+    }
+
+    /**
+     * Prüft, ob die Ereignisse eines {@link WatchKey} die überwachte Datei
+     * betreffen.
+     *
+     * @param key Die gemeldeten Ereignisse.
+     * @return <code>true</code>, wenn die überwachte Datei betroffen ist.
+     */
+    private boolean affectsFile(final WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Lädt die Konfiguration neu. Schlägt das Laden fehl, bleibt der
+     * bisherige Stand erhalten.
+     */
+    private void reload() {
+        try {
+            config.reload();
+            if (log.isDebugEnabled()) {
+                log.debug("Reloaded '" + config.getURL() + "'.");
+            }
+        } catch (IOException ex) {
+            log.warn("Reloading '" + config.getURL() + "' failed.", ex);
+        } catch (RuntimeException ex) {
+            log.warn("Reloading '" + config.getURL() + "' failed.", ex);
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schreibt die Datei einer {@link PropertiesGlueConfig} im Hintergrund
+ * (write-behind). Mehrere Änderungen innerhalb der Verzögerung werden zu
+ * einem Schreibvorgang zusammengefasst. Geschrieben wird immer der zum
+ * Zeitpunkt des Schreibens aktuelle Stand der Konfiguration.
+ * <p>
+ * Jeder Schreibvorgang schreibt zuerst eine temporäre Datei im selben
+ * Verzeichnis und ersetzt die Zieldatei dann atomar (siehe
+ * {@link #write(Map, File)}). Ein Absturz während des Schreibens hinterlässt
+ * damit nie eine halb geschriebene Datei.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class PropertiesFileWriter implements Runnable {
+
+    /** Der Logger der Klasse. */
+    private final Logger log =
+            LoggerFactory.getLogger(PropertiesFileWriter.class);
+
+    /** Die zu schreibende Konfiguration. */
+    private final PropertiesGlueConfig config;
+
+    /** Die Zieldatei. */
+    private final File file;
+
+    /** Die Verzögerung in Millisekunden. */
+    private final long delayMillis;
+
+    /** Der Thread, der die Datei schreibt. */
+    private final ScheduledExecutorService executor;
+
+    /** Der nächste, noch nicht begonnene Schreibvorgang. */
+    private CompletableFuture<Void> pending;
+
+    /** Der laufende Schreibvorgang. */
+    private CompletableFuture<Void> running;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _config Die zu schreibende Konfiguration.
+     * @param _file Die Zieldatei.
+     * @param _delayMillis Die Verzögerung in Millisekunden.
+     */
+    PropertiesFileWriter(final PropertiesGlueConfig _config,
+        final File _file, final long _delayMillis) {
+
+        config = _config;
+        file = _file;
+        delayMillis = _delayMillis;
+        executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable,
+                    "awtools-config-writer-" + _file.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Plant einen Schreibvorgang nach Ablauf der Verzögerung ein. Ist schon
+     * ein Schreibvorgang eingeplant, wird dieser verwendet.
+     *
+     * @return Wird nach dem Schreibvorgang abgeschlossen.
+     */
+    CompletableFuture<Void> schedule() {
+        CompletableFuture<Void> future;
+        synchronized (this) {
+            if (pending != null) {
+                return pending;
+            }
+            future = new CompletableFuture<Void>();
+            pending = future;
+            if (!executor.isShutdown()) {
+                executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+                return future;
+            }
+        }
+        // Nach stop() wird sofort im aufrufenden Thread geschrieben.
+        run();
+        return future;
+    }
+
+    /**
+     * Schreibt einen eingeplanten Schreibvorgang sofort. Nach
+     * {@link #stop()} wird im aufrufenden Thread geschrieben.
+     *
+     * @return Wird abgeschlossen, wenn alle bisherigen Änderungen
+     *     geschrieben sind.
+     */
+    CompletableFuture<Void> flush() {
+        CompletableFuture<Void> future;
+        synchronized (this) {
+            if (pending == null) {
+                if (running != null) {
+                    return running;
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+            future = pending;
+            if (!executor.isShutdown()) {
+                executor.execute(this);
+                return future;
+            }
+        }
+        run();
+        return future;
+    }
+
+    /**
+     * Schreibt die noch ausstehenden Änderungen und beendet den Thread.
+     *
+     * @return Wird nach dem letzten Schreibvorgang abgeschlossen.
+     */
+    CompletableFuture<Void> stop() {
+        CompletableFuture<Void> flushed = flush();
+        synchronized (this) {
+            executor.shutdown();
+        }
+        return flushed;
+    }
+
+    public void run() {
+        CompletableFuture<Void> future;
+        synchronized (this) {
+            if (pending == null) {
+                // Schon durch flush() geschrieben.
+                return;
+            }
+            future = pending;
+            pending = null;
+            running = future;
+        }
+        // Änderungen ab hier planen einen neuen Schreibvorgang ein.
+        try {
+            Map<String, String> snapshot = config.snapshot();
+            config.written(snapshot, write(snapshot, file));
+            future.complete(null);
+        } catch (IOException ex) {
+            log.warn("Writing '" + file + "' failed.", ex);
+            future.completeExceptionally(ex);
+        } catch (RuntimeException ex) {
+            log.warn("Writing '" + file + "' failed.", ex);
+            future.completeExceptionally(ex);
+        } finally {
+            synchronized (this) {
+                if (running == future) {
+                    running = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Eigenschaften im Format von {@link Properties} in eine
+     * temporäre Datei im Verzeichnis der Zieldatei, schreibt diese auf den
+     * Datenträger und ersetzt damit die Zieldatei, wenn möglich atomar.
+     *
+     * @param properties Die Eigenschaften.
+     * @param target Die Zieldatei.
+     * @return Der Stand der geschriebenen Datei.
+     * @throws IOException Fehler beim Schreiben.
+     */
+    static ResourceVersion write(final Map<String, String> properties,
+        final File target) throws IOException {
+
+        Object event = ConfigEvents.SAVE.begin();
+        String date = DateFormat.getDateInstance().format(new Date());
+        File parent = target.getAbsoluteFile().getParentFile();
+        File temp = File.createTempFile(target.getName(), ".tmp", parent);
+        FileOutputStream out = null;
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            Properties store = new Properties();
+            store.putAll(properties);
+            store.store(content, "Saved on: " + date);
+            out = new FileOutputStream(temp);
+            content.writeTo(out);
+            out.getFD().sync();
+            out.close();
+            out = null;
+            move(temp, target);
+        } finally {
+            IOUtils.closeQuietly(out);
+            temp.delete();
+        }
+        ConfigEvents.SAVE.commit(event, target.getPath(),
+            Long.valueOf(target.length()));
+        return ResourceVersion.written(target,
+            ByteBuffer.wrap(content.toByteArray()));
+    }
+
+    /**
+     * Ersetzt die Zieldatei durch die temporäre Datei, wenn möglich atomar.
+     *
+     * @param source Die temporäre Datei.
+     * @param target Die Zieldatei.
+     * @throws IOException Fehler beim Umbenennen.
+     */
+    static void move(final File source, final File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -26,35 +26,82 @@
 package de.awtools.config;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URL;
-import java.text.DateFormat;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.commons.collections.IteratorUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
 
 /**
- * Eine Konfiguration die im Hintergrund ein {@link Properties} Objekt
- * verwendet.
+ * Eine Konfiguration für Property-Dateien im Format von {@link Properties}.
+ * <p>
+ * {@link #load()} liest die Eigenschaften ohne den Umweg über
+ * {@link Properties} in eine neue, unveränderliche Map und veröffentlicht
+ * diese erst, wenn das Lesen vollständig abgeschlossen ist. Lesende
+ * Zugriffe sehen entweder den alten oder den neuen Stand, aber nie eine
+ * leere oder halb gelesene Konfiguration. Lesende Zugriffe sind ohne
+ * Sperren möglich. {@link #asMap()} liefert diese Map ohne Kopie.
+ * {@link #setProperty(String, String)} arbeitet nach dem copy-on-write
+ * Prinzip. Ist die Datei seit dem letzten {@link #load()} unverändert,
+ * wird die zuletzt geladene Map wiederverwendet.
+ * </p>
+ * <p>
+ * Liegt die Datei im Dateisystem (<code>file:</code> URL), kann sie mit
+ * {@link #startWatching(long)} überwacht werden. Eine Änderung der Datei
+ * lädt die Konfiguration dann im Hintergrund neu.
+ * </p>
+ * <p>
+ * {@link #save()} schreibt zuerst eine temporäre Datei und ersetzt die
+ * Datei dann atomar. Nach {@link #startWriteBehind(long)} schreibt ein
+ * Hintergrund-Thread die Datei: {@link #setProperty(String, String)} und
+ * {@link #save()} kehren sofort zurück, mehrere Änderungen innerhalb der
+ * Verzögerung führen zu nur einem Schreibvorgang. {@link #flush()} liefert
+ * ein {@link CompletableFuture}, das nach dem Schreiben abgeschlossen wird.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 2319 $ $Date: 2010-07-30 15:46:58 +0200 (Fr, 30 Jul 2010) $
  */
 public final class PropertiesGlueConfig extends AbstractGlueConfig {
 
-    /** Die interne Repräsentation der Eigenschaften. */
-    private final Properties properties = new Properties();
+    /**
+     * Die interne, unveränderliche Repräsentation der Eigenschaften. Leere
+     * Werte gelten als nicht gesetzt und werden nicht aufgenommen.
+     */
+    private volatile Map<String, String> properties =
+            Collections.emptyMap();
+
+    /** Der zuletzt geladene Stand der Eigenschaften. */
+    private volatile Map<String, String> loaded;
+
+    /** Der Stand der Datei beim letzten Laden. */
+    private volatile ResourceVersion version;
+
+    /** Die Anzahl der beim letzten Laden gelesenen Bytes. */
+    private volatile long loadedBytes;
+
+    /**
+     * Serialisiert {@link #load()}. Lesende Zugriffe und
+     * {@link #setProperty(String, String)} werden davon nicht blockiert.
+     */
+    private final Object loadLock = new Object();
 
     /** Die Ablage der Eigenschaft. */
     private final URL propertiesResource;
 
+    /** Überwacht die Datei. Ist <code>null</code>, wenn nicht überwacht wird. */
+    private PropertiesFileWatcher watcher;
+
+    /** Schreibt die Datei im Hintergrund. Ist sonst <code>null</code>. */
+    private volatile PropertiesFileWriter writer;
+
     /**
      * Konstruktor.
      *
@@ -73,8 +120,37 @@ public final class PropertiesGlueConfig extends AbstractGlueConfig {
         return propertiesResource;
     }
 
+    @Override
+    public String toString() {
+        return "PropertiesGlueConfig[" + propertiesResource + "]";
+    }
+
     public void setProperty(final String key, final String value) {
-        properties.setProperty(key, value);
+        synchronized (this) {
+            Map<String, String> copy =
+                    new HashMap<String, String>(properties);
+            if (StringUtils.isBlank(value)) {
+                copy.remove(key);
+            } else {
+                copy.put(key, value);
+            }
+            properties = Collections.unmodifiableMap(copy);
+        }
+        propertyChanged(key);
+        PropertiesFileWriter current = writer;
+        if (current != null) {
+            current.schedule();
+        }
+    }
+
+    /**
+     * Liefert den aktuellen Stand ohne Kopie. Er enthält keine leeren Werte.
+     *
+     * @return Die Eigenschaften.
+     */
+    @Override
+    Map<String, String> snapshot() {
+        return properties;
     }
 
     /**
@@ -86,50 +162,250 @@ public final class PropertiesGlueConfig extends AbstractGlueConfig {
      */
     @Override
     protected Object doGetProperty(final String key) {
-        Object result = null;
-        String value = properties.getProperty(key);
-        if (StringUtils.isNotBlank(value)) {
-            result = value;
-        }
-        return result;
+        return properties.get(key);
     }
 
+    /**
+     * Lädt die Eigenschaften. Eine unveränderte Datei wird weder gelesen
+     * noch geparst (siehe {@link ResourceVersion}). Die Eigenschaften
+     * erhalten dann wieder den zuletzt geladenen Stand, ohne Änderungen über
+     * {@link #setProperty(String, String)}. War der Stand unverändert, werden
+     * keine Änderungen gemeldet. Gleichzeitige Aufrufe (z.B. durch die
+     * Überwachung der Datei und einen direkten Aufruf) laufen nacheinander,
+     * damit ein langsamerer Aufruf keinen älteren Stand über einen neueren
+     * veröffentlicht.
+     */
     public void load() throws IOException {
-        InputStream is = null;
-        try {
-            is = propertiesResource.openStream();
-            properties.clear();
-            properties.load(is);
-        } finally {
-            IOUtils.closeQuietly(is);
+        synchronized (loadLock) {
+            loadSerialized(true);
         }
     }
 
-    public void save() throws IOException {
-        Date date = new Date();
-        String tmp = DateFormat.getDateInstance().format(date);
-
-        if (propertiesResource.getProtocol().equals("file")) {
-            File outfile = new File(propertiesResource.getFile());
-            OutputStream out = null;
-            try {
-                out = new FileOutputStream(outfile);
-                properties.store(out, "Saved on: " + tmp);
-            } finally {
-                IOUtils.closeQuietly(out);
+    /**
+     * Lädt die Eigenschaften nach einer Änderung der Datei. Anders als
+     * {@link #load()} bleibt der aktuelle Stand erhalten, wenn die Datei den
+     * zuletzt geladenen oder geschriebenen Inhalt hat. Ein eigener
+     * Schreibvorgang verwirft damit keine späteren Änderungen über
+     * {@link #setProperty(String, String)}.
+     *
+     * @throws IOException Fehler beim Lesen der Datei.
+     */
+    void reload() throws IOException {
+        synchronized (loadLock) {
+            loadSerialized(false);
+        }
+    }
+
+    /**
+     * Merkt sich den Stand nach einem eigenen Schreibvorgang als zuletzt
+     * geladenen Stand.
+     *
+     * @param snapshot Die geschriebenen Eigenschaften.
+     * @param written Der Stand der geschriebenen Datei.
+     */
+    void written(final Map<String, String> snapshot,
+        final ResourceVersion written) {
+
+        synchronized (loadLock) {
+            version = written;
+            loaded = snapshot;
+        }
+    }
+
+    /**
+     * Lädt die Eigenschaften, siehe {@link #load()}. Wird nur unter
+     * {@link #loadLock} aufgerufen.
+     *
+     * @param restore Den zuletzt geladenen Stand auch bei unverändertem
+     *     Inhalt wiederherstellen?
+     * @throws IOException Fehler beim Lesen der Datei.
+     */
+    private void loadSerialized(final boolean restore) throws IOException {
+        Object event = ConfigEvents.LOAD.begin();
+        ResourceVersion previous = version;
+        ResourceVersion.Content content =
+                ResourceVersion.read(propertiesResource, previous);
+        long bytes = (content == null) ? 0 : content.buffer.remaining();
+        loadedBytes = bytes;
+        Map<String, String> snapshot;
+        boolean changed = (content != null) && (previous == null
+            || !previous.sameContent(content.version));
+        if (!changed && !restore) {
+            if (content != null) {
+                version = content.version;
+            }
+            ConfigEvents.LOAD.commit(event, toString(), Long.valueOf(bytes),
+                Boolean.FALSE);
+            return;
+        }
+        if (changed) {
+            Map<String, String> parsed =
+                    PropertiesParser.parse(content.buffer);
+            Iterator<String> values = parsed.values().iterator();
+            while (values.hasNext()) {
+                if (StringUtils.isBlank(values.next())) {
+                    values.remove();
+                }
             }
+            snapshot = Collections.unmodifiableMap(parsed);
         } else {
+            snapshot = loaded;
+        }
+        boolean published;
+        synchronized (this) {
+            if (content != null) {
+                version = content.version;
+            }
+            loaded = snapshot;
+            published = (properties != snapshot);
+            properties = snapshot;
+        }
+        if (published) {
+            propertiesChanged();
+        }
+        ConfigEvents.LOAD.commit(event, toString(), Long.valueOf(bytes),
+            Boolean.valueOf(published));
+    }
+
+    @Override
+    long loadedBytes() {
+        return loadedBytes;
+    }
+
+    /**
+     * Überwacht die Datei dieser Konfiguration und lädt sie nach einer
+     * Änderung neu. Mehrere Änderungen innerhalb der Entprellzeit führen zu
+     * nur einem Ladevorgang. Schlägt das Laden fehl, bleibt der bisherige
+     * Stand erhalten. Die eigenen Schreibvorgänge über {@link #save()} und
+     * {@link #startWriteBehind(long)} lösen kein Neuladen aus.
+     *
+     * @param debounceMillis Die Entprellzeit in Millisekunden.
+     * @throws IOException Die Datei kann nicht überwacht werden.
+     */
+    public synchronized void startWatching(final long debounceMillis)
+            throws IOException {
+
+        if (!propertiesResource.getProtocol().equals("file")) {
+            throw new IllegalStateException("Unsupported URL protocol: "
+                + propertiesResource.getProtocol());
+        }
+        if (watcher == null) {
+            watcher = new PropertiesFileWatcher(this,
+                FileUtils.toFile(propertiesResource), debounceMillis);
+            watcher.start();
+        }
+    }
+
+    /**
+     * Beendet die Überwachung der Datei.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Wird die Datei überwacht?
+     *
+     * @return <code>true</code>, wenn die Datei überwacht wird.
+     */
+    public synchronized boolean isWatching() {
+        return (watcher != null);
+    }
+
+    /**
+     * Schreibt die Eigenschaften über eine temporäre Datei, die die Datei
+     * atomar ersetzt. Im write-behind Modus wird das Schreiben nur
+     * eingeplant (siehe {@link #startWriteBehind(long)}).
+     */
+    public void save() throws IOException {
+        PropertiesFileWriter current = writer;
+        if (current != null) {
+            current.schedule();
+        } else {
+            Map<String, String> snapshot = properties;
+            written(snapshot, PropertiesFileWriter.write(snapshot, file()));
+        }
+    }
+
+    /**
+     * Schreibt alle bisherigen Änderungen. Im write-behind Modus wird ein
+     * eingeplanter Schreibvorgang vorgezogen, ohne auf ihn zu warten. Sonst
+     * wird sofort wie mit {@link #save()} geschrieben.
+     *
+     * @return Wird abgeschlossen, wenn die Änderungen geschrieben sind.
+     *     Schlägt das Schreiben fehl, wird es mit dem Fehler abgeschlossen.
+     */
+    public CompletableFuture<Void> flush() {
+        PropertiesFileWriter current = writer;
+        if (current != null) {
+            return current.flush();
+        }
+        CompletableFuture<Void> future = new CompletableFuture<Void>();
+        try {
+            save();
+            future.complete(null);
+        } catch (IOException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Schaltet den write-behind Modus ein. Änderungen über
+     * {@link #setProperty(String, String)} und {@link #save()} werden nach
+     * Ablauf der Verzögerung von einem Hintergrund-Thread geschrieben.
+     *
+     * @param delayMillis Die Verzögerung in Millisekunden.
+     */
+    public synchronized void startWriteBehind(final long delayMillis) {
+        Validate.isTrue(delayMillis >= 0);
+        if (writer == null) {
+            writer = new PropertiesFileWriter(this, file(), delayMillis);
+        }
+    }
+
+    /**
+     * Schaltet den write-behind Modus aus. Ausstehende Änderungen werden
+     * noch geschrieben.
+     *
+     * @return Wird nach dem letzten Schreibvorgang abgeschlossen.
+     */
+    public synchronized CompletableFuture<Void> stopWriteBehind() {
+        if (writer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> stopped = writer.stop();
+        writer = null;
+        return stopped;
+    }
+
+    /**
+     * Ist der write-behind Modus eingeschaltet?
+     *
+     * @return <code>true</code>, wenn im Hintergrund geschrieben wird.
+     */
+    public boolean isWriteBehind() {
+        return (writer != null);
+    }
+
+    /**
+     * Liefert die Datei dieser Konfiguration.
+     *
+     * @return Die Datei.
+     */
+    private File file() {
+        if (!propertiesResource.getProtocol().equals("file")) {
             throw new IllegalStateException("Unsupported URL protocol: "
                 + propertiesResource.getProtocol());
         }
+        return FileUtils.toFile(propertiesResource);
     }
 
-    @SuppressWarnings("unchecked")
     public Iterator<String> getKeyIterator() {
-        Iterator<String> unmodifiableIterator = (Iterator<String>)
-                IteratorUtils.unmodifiableIterator(properties.keySet()
-                    .iterator());
-        return unmodifiableIterator;
+        return properties.keySet().iterator();
     }
 
 }
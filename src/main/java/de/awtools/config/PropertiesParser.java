@@ -0,0 +1,359 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Liest Property-Dateien im Format von {@link java.util.Properties#load(InputStream)}
+ * (ISO-8859-1, Kommentare, Escape-Sequenzen, Unicode-Escapes und
+ * Fortsetzungszeilen) direkt aus einem {@link ByteBuffer}. Im Unterschied
+ * zu {@link java.util.Properties} wird kein synchronisierter
+ * {@link java.util.Hashtable} befüllt und jede Zeile nur einmal in einen
+ * wiederverwendeten Puffer kopiert. Dateien werden ab einer gewissen Größe
+ * per {@link FileChannel#map(FileChannel.MapMode, long, long)} eingeblendet.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class PropertiesParser {
+
+    /** Ab dieser Größe wird eine Datei eingeblendet statt gelesen. */
+    private static final long MAP_THRESHOLD = 64 * 1024;
+
+    /** Der Puffer für die Eingabe. */
+    private final ByteBuffer in;
+
+    /** Der Puffer für eine logische Zeile. */
+    private char[] line = new char[256];
+
+    /**
+     * Konstruktor.
+     *
+     * @param _in Die Eingabe.
+     */
+    private PropertiesParser(final ByteBuffer _in) {
+        in = _in;
+    }
+
+    /**
+     * Liest die Eigenschaften einer URL.
+     *
+     * @param url Die URL der Property-Datei.
+     * @return Die gelesenen Eigenschaften.
+     * @throws IOException Fehler beim Lesen.
+     */
+    static Map<String, String> parse(final URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            return parse(FileUtils.toFile(url));
+        }
+
+        InputStream is = null;
+        try {
+            is = url.openStream();
+            return parse(ByteBuffer.wrap(IOUtils.toByteArray(is)));
+        } finally {
+            IOUtils.closeQuietly(is);
+        }
+    }
+
+    /**
+     * Liest die Eigenschaften einer Datei.
+     *
+     * @param file Die Property-Datei.
+     * @return Die gelesenen Eigenschaften.
+     * @throws IOException Fehler beim Lesen.
+     */
+    static Map<String, String> parse(final File file) throws IOException {
+        return parse(read(file));
+    }
+
+    /**
+     * Liest den Inhalt einer Datei. Große Dateien werden eingeblendet.
+     *
+     * @param file Die Datei.
+     * @return Der Inhalt der Datei.
+     * @throws IOException Fehler beim Lesen.
+     */
+    static ByteBuffer read(final File file) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            long size = channel.size();
+            ByteBuffer buffer;
+            if (size >= MAP_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Weiterlesen.
+                }
+                buffer.flip();
+            }
+            return buffer;
+        } finally {
+            IOUtils.closeQuietly(fis);
+        }
+    }
+
+    /**
+     * Liest die Eigenschaften aus einem Puffer. Der Puffer wird ab seiner
+     * aktuellen Position bis zu seinem Limit gelesen.
+     *
+     * @param buffer Der Inhalt einer Property-Datei (ISO-8859-1).
+     * @return Die gelesenen Eigenschaften.
+     * @throws IllegalArgumentException Fehlerhafte Unicode-Escape-Sequenz.
+     */
+    static Map<String, String> parse(final ByteBuffer buffer) {
+        // Grobe Schätzung: 32 Bytes pro Eintrag.
+        int expected = Math.max(16, buffer.remaining() / 32);
+        Map<String, String> result =
+                new HashMap<String, String>(expected * 4 / 3 + 1);
+        new PropertiesParser(buffer.slice()).parse(result);
+        return result;
+    }
+
+    /**
+     * Liest alle logischen Zeilen und zerlegt sie in Schlüssel und Wert.
+     *
+     * @param result Nimmt die Eigenschaften auf.
+     */
+    private void parse(final Map<String, String> result) {
+        int limit;
+        while ((limit = readLine()) >= 0) {
+            int keyLen = 0;
+            int valueStart = limit;
+            boolean hasSep = false;
+            boolean precedingBackslash = false;
+            while (keyLen < limit) {
+                char c = line[keyLen];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    hasSep = true;
+                    break;
+                } else if (isWhitespace(c) && !precedingBackslash) {
+                    valueStart = keyLen + 1;
+                    break;
+                }
+                precedingBackslash = (c == '\\') && !precedingBackslash;
+                keyLen++;
+            }
+            while (valueStart < limit) {
+                char c = line[valueStart];
+                if (!isWhitespace(c)) {
+                    if (!hasSep && (c == '=' || c == ':')) {
+                        hasSep = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            result.put(convert(0, keyLen),
+                convert(valueStart, limit - valueStart));
+        }
+    }
+
+    /**
+     * Liest die nächste logische Zeile in {@link #line}. Leerzeilen und
+     * Kommentare werden übersprungen, Fortsetzungszeilen zusammengefügt.
+     *
+     * @return Die Länge der Zeile oder <code>-1</code> am Ende der Eingabe.
+     */
+    private int readLine() {
+        int len = 0;
+        boolean skipWhitespace = true;
+        boolean isNewLine = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLF = false;
+
+        while (true) {
+            if (!in.hasRemaining()) {
+                if (len == 0) {
+                    return -1;
+                }
+                if (precedingBackslash) {
+                    len--;
+                }
+                return len;
+            }
+            char c = (char) (in.get() & 0xFF);
+
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (skipWhitespace) {
+                if (isWhitespace(c)) {
+                    continue;
+                }
+                if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+            if (isNewLine) {
+                isNewLine = false;
+                if (c == '#' || c == '!') {
+                    // Kommentare können nicht fortgesetzt werden.
+                    skipComment();
+                    skipWhitespace = true;
+                    isNewLine = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r') {
+                if (len == line.length) {
+                    char[] grown = new char[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, len);
+                    line = grown;
+                }
+                line[len++] = c;
+                precedingBackslash = (c == '\\') && !precedingBackslash;
+            } else {
+                if (len == 0) {
+                    // Leerzeile.
+                    skipWhitespace = true;
+                    isNewLine = true;
+                    continue;
+                }
+                if (precedingBackslash) {
+                    // Fortsetzungszeile: Backslash entfernen.
+                    len--;
+                    skipWhitespace = true;
+                    appendedLineBegin = true;
+                    precedingBackslash = false;
+                    if (c == '\r') {
+                        skipLF = true;
+                    }
+                } else {
+                    // Ein folgendes LF wird als Leerzeile übersprungen.
+                    return len;
+                }
+            }
+        }
+    }
+
+    /**
+     * Überspringt den Rest einer Kommentarzeile.
+     */
+    private void skipComment() {
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n' || b == '\r') {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wandelt einen Abschnitt von {@link #line} unter Auflösung der
+     * Escape-Sequenzen in einen String. Gleiche Strings werden über
+     * {@link StringPool#SHARED} auf eine Instanz abgebildet.
+     *
+     * @param offset Der Beginn des Abschnitts.
+     * @param length Die Länge des Abschnitts.
+     * @return Der kanonische String.
+     */
+    private String convert(final int offset, final int length) {
+        int end = offset + length;
+        int escape = offset;
+        while (escape < end && line[escape] != '\\') {
+            escape++;
+        }
+        if (escape == end) {
+            // Häufigster Fall: Keine Escape-Sequenz.
+            return StringPool.SHARED.intern(line, offset, length);
+        }
+
+        // Die aufgelöste Form ist nie länger als das Original. Sie wird
+        // direkt in line geschrieben.
+        int out = escape;
+        int index = escape;
+        while (index < end) {
+            char c = line[index++];
+            if (c == '\\') {
+                if (index == end) {
+                    break;
+                }
+                c = line[index++];
+                if (c == 'u') {
+                    if (index + 4 > end) {
+                        throw new IllegalArgumentException(
+                            "Malformed \\uxxxx encoding.");
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(line[index++], 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException(
+                                "Malformed \\uxxxx encoding.");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    c = (char) value;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            line[out++] = c;
+        }
+        return StringPool.SHARED.intern(line, offset, out - offset);
+    }
+
+    /**
+     * Whitespace im Sinne des Property-Formats.
+     *
+     * @param c Das zu prüfende Zeichen.
+     * @return <code>true</code> für Leerzeichen, Tabulator und Form Feed.
+     */
+    private static boolean isWhitespace(final char c) {
+        return (c == ' ' || c == '\t' || c == '\f');
+    }
+
+}
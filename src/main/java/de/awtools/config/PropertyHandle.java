@@ -0,0 +1,83 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * Basisklasse für die an einen Schlüssel gebundenen Eigenschaften
+ * {@link IntProperty}, {@link LongProperty} und {@link BooleanProperty}.
+ * Ein Handle hält den aufgelösten Wert seiner Eigenschaft. Die
+ * {@link GlueConfig}, die das Handle erzeugt hat, aktualisiert diesen Wert
+ * nach jedem Laden und nach jeder Änderung seines Schlüssels. Die
+ * Konfiguration hält das Handle nur schwach; es bleibt gültig, solange der
+ * Aufrufer es hält.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+abstract class PropertyHandle {
+
+    /** Der Schlüssel der Eigenschaft. */
+    private final String key;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _key Der Schlüssel der Eigenschaft.
+     */
+    PropertyHandle(final String _key) {
+        Validate.notNull(_key);
+        key = _key;
+    }
+
+    /**
+     * Liefert den Schlüssel der Eigenschaft.
+     *
+     * @return Der Schlüssel.
+     */
+    public final String getKey() {
+        return key;
+    }
+
+    /**
+     * Betrifft die Änderung eines Schlüssels dieses Handle?
+     *
+     * @param changedKey Der geänderte Schlüssel.
+     * @return <code>true</code>, wenn der Schlüssel der des Handles ist.
+     */
+    boolean isAffectedBy(final String changedKey) {
+        return key.equals(changedKey);
+    }
+
+    /**
+     * Löst den Wert der Eigenschaft neu auf.
+     *
+     * @param config Die Konfiguration, aus der gelesen wird.
+     */
+    abstract void refresh(final GlueConfig config);
+
+}
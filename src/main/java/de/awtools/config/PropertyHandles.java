@@ -0,0 +1,86 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Verwaltet die von einer {@link GlueConfig} ausgegebenen
+ * {@link PropertyHandle}s. Die Handles werden schwach referenziert: Ein
+ * Handle, das der Aufrufer nicht mehr hält, wird vom Garbage Collector
+ * freigegeben und beim nächsten Aktualisieren aus der Liste entfernt.
+ * <p>
+ * Registrieren und Aktualisieren sind synchronisiert, damit eine
+ * Aktualisierung nicht von einer älteren, parallel laufenden
+ * Aktualisierung überschrieben wird. Das Lesen eines Handles bleibt
+ * davon unberührt.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class PropertyHandles {
+
+    /** Die registrierten Handles. */
+    private final List<WeakReference<PropertyHandle>> handles =
+            new CopyOnWriteArrayList<WeakReference<PropertyHandle>>();
+
+    /**
+     * Registriert ein neues Handle und löst dessen Wert auf.
+     *
+     * @param handle Das neue Handle.
+     * @param config Die Konfiguration, aus der gelesen wird.
+     * @return Das registrierte Handle.
+     */
+    synchronized <T extends PropertyHandle> T register(final T handle,
+        final GlueConfig config) {
+
+        handle.refresh(config);
+        handles.add(new WeakReference<PropertyHandle>(handle));
+        return handle;
+    }
+
+    /**
+     * Löst die Werte der von einer Änderung betroffenen Handles neu auf.
+     *
+     * @param config Die Konfiguration, aus der gelesen wird.
+     * @param key Der geänderte Schlüssel oder <code>null</code>, wenn sich
+     *     alle Eigenschaften geändert haben.
+     */
+    synchronized void refresh(final GlueConfig config, final String key) {
+        for (WeakReference<PropertyHandle> reference : handles) {
+            PropertyHandle handle = reference.get();
+            if (handle == null) {
+                handles.remove(reference);
+            } else if (key == null || handle.isAffectedBy(key)) {
+                handle.refresh(config);
+            }
+        }
+    }
+
+}
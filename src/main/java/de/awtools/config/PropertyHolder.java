@@ -30,7 +30,9 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
@@ -57,16 +59,25 @@ public final class PropertyHolder implements GlueConfig {
     private final Logger log = org.slf4j.LoggerFactory.getLogger(PropertyHolder.class);
 
     /** Die Eigenschaften aus <code>java.lang.System</code>. */
-    private GlueConfig systemProperties;
+    private volatile GlueConfig systemProperties;
+
+    /** System-Eigenschaften als Momentaufnahme halten? */
+    private volatile boolean systemSnapshotEnabled = false;
+
+    /** Umgebungsvariablen als eigene Konfiguration aufnehmen? */
+    private volatile boolean environmentEnabled = false;
 
     /** Die Eigenschaften aus dem Heimatverzeichnis des Anwenders. */
-    private GlueConfig userHomeProperties;
+    private volatile GlueConfig userHomeProperties;
 
     /** Die Eigenschaften aus dem Klassenpfad der Anwendung. */
-    private GlueConfig classpathProperties;
+    private volatile GlueConfig classpathProperties;
 
     /** Die zusammengeführten Eigenschaften. */
-    private CombinedGlueConfig properties;
+    private final CombinedGlueConfig properties = new CombinedGlueConfig();
+
+    /** Die Zeitgrenze für das Laden einer Datei in Millisekunden. */
+    private volatile long loadTimeoutMillis = 0;
 
     /**
      * Konstruktor.
@@ -103,18 +114,32 @@ public final class PropertyHolder implements GlueConfig {
         classLoader = _classLoader;
     }
 
-    /* (non-Javadoc)
-     * @see de.gluehloch.util.configuration.TestXyz#load()
+    /**
+     * Lädt die Eigenschaften. Die einzelnen Konfigurationen werden beim
+     * ersten Aufruf angelegt und bei jedem weiteren Aufruf nur neu geladen.
+     * Die ausgegebenen Handles (siehe {@link #intHandle(String, int)})
+     * bleiben damit über alle Ladevorgänge hinweg gültig. Die
+     * System-Eigenschaften werden bei jedem Zugriff gelesen, siehe aber
+     * {@link #setSystemSnapshotEnabled(boolean)}.
      */
-    public void load() {
+    public synchronized void load() {
         loadClasspath();
         loadHomepath();
 
-        properties = new CombinedGlueConfig();
-        systemProperties = new SystemGlueConfig();
-        properties.addConfig(systemProperties);
-        properties.addConfig(userHomeProperties);
-        properties.addConfig(classpathProperties);
+        if (systemProperties == null) {
+            // Ein Fehler beim Laden einer Datei lässt deren bisherigen Stand
+            // unverändert und verhindert nicht das Laden der anderen.
+            systemProperties =
+                    new SystemGlueConfig(systemSnapshotEnabled, false);
+            properties.addConfig(systemProperties);
+            if (environmentEnabled) {
+                properties.addConfig(new EnvironmentGlueConfig());
+            }
+            properties.addConfig(userHomeProperties, LoadFailurePolicy.IGNORE,
+                loadTimeoutMillis);
+            properties.addConfig(classpathProperties, LoadFailurePolicy.IGNORE,
+                loadTimeoutMillis);
+        }
         try {
             properties.load();
         } catch (IOException ex) {
@@ -142,9 +167,11 @@ public final class PropertyHolder implements GlueConfig {
                 userHomePropertyFile.createNewFile();
             }
 
-            userHomeProperties =
-                    new PropertiesGlueConfig(userHomePropertyFile.toURI()
-                        .toURL());
+            if (userHomeProperties == null) {
+                userHomeProperties =
+                        new PropertiesGlueConfig(userHomePropertyFile.toURI()
+                            .toURL());
+            }
         } catch (MalformedURLException ex) {
             log.debug("MalformedURLException", ex);
             throw new IllegalStateException(ex);
@@ -158,6 +185,10 @@ public final class PropertyHolder implements GlueConfig {
      * Lädt die Konfiguration aus dem Klassenpfad.
      */
     private void loadClasspath() {
+        if (classpathProperties != null) {
+            return;
+        }
+
         URL resource = classLoader.getResource(getClasspathFileName());
         if (log.isDebugEnabled()) {
             log.debug("Load classpath resource '" + resource + "'.");
@@ -280,6 +311,123 @@ public final class PropertyHolder implements GlueConfig {
             defaultValue.getAbsolutePath()));
     }
 
+    public IntProperty intHandle(final String key, final int defaultValue) {
+        return properties.intHandle(key, defaultValue);
+    }
+
+    public LongProperty longHandle(final String key, final long defaultValue) {
+        return properties.longHandle(key, defaultValue);
+    }
+
+    public BooleanProperty boolHandle(final String key,
+        final boolean defaultValue) {
+
+        return properties.boolHandle(key, defaultValue);
+    }
+
+    public <T> BeanProperty<T> bind(final Class<T> type, final String prefix) {
+        return properties.bind(type, prefix);
+    }
+
+    public void addChangeListener(final ConfigChangeListener listener) {
+        properties.addChangeListener(listener);
+    }
+
+    public void addPrefixChangeListener(final String prefix,
+        final ConfigChangeListener listener) {
+
+        properties.addPrefixChangeListener(prefix, listener);
+    }
+
+    public void addKeyChangeListener(final String key,
+        final ConfigChangeListener listener) {
+
+        properties.addKeyChangeListener(key, listener);
+    }
+
+    public void removeChangeListener(final ConfigChangeListener listener) {
+        properties.removeChangeListener(listener);
+    }
+
+    /**
+     * Setzt den Executor, über den die {@link ConfigChangeListener}
+     * informiert werden.
+     *
+     * @param executor Der Executor oder <code>null</code>.
+     */
+    public void setChangeExecutor(final Executor executor) {
+        properties.setChangeExecutor(executor);
+    }
+
+    /**
+     * Setzt den Executor, über den {@link #load()} die Dateien aus dem
+     * Home-Verzeichnis und dem Klassenpfad parallel lädt.
+     *
+     * @param executor Der Executor oder <code>null</code>.
+     * @see CombinedGlueConfig#setLoadExecutor(Executor)
+     */
+    public void setLoadExecutor(final Executor executor) {
+        properties.setLoadExecutor(executor);
+    }
+
+    /**
+     * Setzt die Zeitgrenze für das parallele Laden einer Datei. Muss vor dem
+     * ersten {@link #load()} gesetzt werden.
+     *
+     * @param timeoutMillis Die Zeitgrenze in Millisekunden, <code>0</code>
+     *     für keine Zeitgrenze.
+     */
+    public void setLoadTimeout(final long timeoutMillis) {
+        Validate.isTrue(timeoutMillis >= 0);
+        loadTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Liefert die zusammengeführten Eigenschaften.
+     *
+     * @return Die zusammengeführten Eigenschaften.
+     */
+    CombinedGlueConfig getCombined() {
+        return properties;
+    }
+
+    /**
+     * Schätzt den Speicherbedarf der Schlüssel und Werte pro Datei.
+     *
+     * @return Der Bericht.
+     * @see CombinedGlueConfig#footprint()
+     */
+    public FootprintReport footprint() {
+        return properties.footprint();
+    }
+
+    /**
+     * Hält die System-Eigenschaften als Momentaufnahme, die bei jedem
+     * {@link #load()} neu kopiert wird (siehe
+     * {@link SystemGlueConfig#SystemGlueConfig(boolean, boolean)}). Lesende
+     * Zugriffe sind dann ohne Sperren möglich, spätere Änderungen über
+     * {@link System#setProperty(String, String)} aber erst nach dem
+     * nächsten {@link #load()} sichtbar. Muss vor dem ersten
+     * {@link #load()} gesetzt werden.
+     *
+     * @param enabled <code>true</code> hält eine Momentaufnahme.
+     */
+    public void setSystemSnapshotEnabled(final boolean enabled) {
+        systemSnapshotEnabled = enabled;
+    }
+
+    /**
+     * Nimmt die Umgebungsvariablen als eigene Konfiguration zwischen den
+     * System-Eigenschaften und der Datei im Benutzerverzeichnis auf (siehe
+     * {@link EnvironmentGlueConfig}). Muss vor dem ersten {@link #load()}
+     * gesetzt werden.
+     *
+     * @param enabled <code>true</code> nimmt die Umgebungsvariablen auf.
+     */
+    public void setEnvironmentEnabled(final boolean enabled) {
+        environmentEnabled = enabled;
+    }
+
     /* (non-Javadoc)
      * @see de.gluehloch.util.configuration.TestXyz#setProperty(java.lang.String, java.lang.String)
      */
@@ -320,10 +468,26 @@ public final class PropertyHolder implements GlueConfig {
         return properties.interpolatedConfiguration();
     }
 
+    public GlueConfig interpolatedView() {
+        return properties.interpolatedView();
+    }
+
     public Iterator<String> getKeyIterator() {
         return properties.getKeyIterator();
     }
 
+    public int size() {
+        return properties.size();
+    }
+
+    public boolean containsKey(final String key) {
+        return properties.containsKey(key);
+    }
+
+    public GlueConfig subset(final String prefix) {
+        return properties.subset(prefix);
+    }
+
     public String debugOutput() {
         return toString();
     }
@@ -332,4 +496,12 @@ public final class PropertyHolder implements GlueConfig {
         return properties.getProperties();
     }
 
+    public Map<String, String> asMap() {
+        return properties.asMap();
+    }
+
+    public Properties asProperties() {
+        return properties.asProperties();
+    }
+
 }
@@ -0,0 +1,248 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Der Stand einer Ressource beim letzten Lesen: Zeitstempel, Größe, ETag
+ * und ein Hashwert über den Inhalt. {@link #read(URL, ResourceVersion)}
+ * liest eine Ressource nur, wenn sich dieser Stand geändert haben kann:
+ * <ul>
+ * <li>Dateien werden nicht gelesen, wenn Zeitstempel und Größe
+ * unverändert sind.</li>
+ * <li>HTTP Ressourcen werden mit <code>If-None-Match</code> bzw.
+ * <code>If-Modified-Since</code> angefragt.</li>
+ * <li>Andere URLs (z.B. Einträge in JAR Dateien) werden nicht gelesen,
+ * wenn die Verbindung unveränderten Zeitstempel und Größe meldet.</li>
+ * </ul>
+ * Ein Zeitstempel ist erst dann verlässlich, wenn er mindestens
+ * {@link #TIMESTAMP_GRANULARITY} Millisekunden vor dem Lesen lag. Sonst
+ * könnte eine Änderung in derselben Sekunde mit gleicher Größe unerkannt
+ * bleiben. Wurde die Ressource gelesen, entscheidet der Hashwert.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class ResourceVersion {
+
+    /** Die gröbste Auflösung der Zeitstempel eines Dateisystems. */
+    static final long TIMESTAMP_GRANULARITY = 2000;
+
+    /** Der Zeitstempel der letzten Änderung, <code>0</code> wenn unbekannt. */
+    private final long lastModified;
+
+    /** Die Größe in Bytes, <code>-1</code> wenn unbekannt. */
+    private final long length;
+
+    /** Das ETag einer HTTP Ressource oder <code>null</code>. */
+    private final String etag;
+
+    /** Der Zeitpunkt des Lesens. */
+    private final long readAt;
+
+    /** Der Hashwert über den Inhalt. */
+    private final byte[] digest;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _lastModified Der Zeitstempel der letzten Änderung.
+     * @param _length Die Größe in Bytes.
+     * @param _etag Das ETag oder <code>null</code>.
+     * @param _readAt Der Zeitpunkt des Lesens.
+     * @param _digest Der Hashwert über den Inhalt.
+     */
+    private ResourceVersion(final long _lastModified, final long _length,
+        final String _etag, final long _readAt, final byte[] _digest) {
+
+        lastModified = _lastModified;
+        length = _length;
+        etag = _etag;
+        readAt = _readAt;
+        digest = _digest;
+    }
+
+    /**
+     * Hat die Ressource denselben Inhalt wie diese?
+     *
+     * @param other Ein anderer Stand.
+     * @return <code>true</code>, wenn die Hashwerte übereinstimmen.
+     */
+    boolean sameContent(final ResourceVersion other) {
+        return Arrays.equals(digest, other.digest);
+    }
+
+    /**
+     * Sind Zeitstempel und Größe unverändert und ist der Zeitstempel
+     * verlässlich?
+     *
+     * @param _lastModified Der aktuelle Zeitstempel.
+     * @param _length Die aktuelle Größe.
+     * @return <code>true</code>, wenn die Ressource nicht gelesen werden muss.
+     */
+    private boolean unchanged(final long _lastModified, final long _length) {
+        return _lastModified > 0 && _lastModified == lastModified
+            && _length == length
+            && _lastModified + TIMESTAMP_GRANULARITY <= readAt;
+    }
+
+    /**
+     * Liest eine Ressource, wenn sie sich seit dem letzten Stand geändert
+     * haben kann.
+     *
+     * @param url Die Ressource.
+     * @param previous Der letzte Stand oder <code>null</code>.
+     * @return Der gelesene Inhalt mit seinem Stand oder <code>null</code>,
+     *     wenn die Ressource nicht gelesen werden musste.
+     * @throws IOException Fehler beim Lesen.
+     */
+    static Content read(final URL url, final ResourceVersion previous)
+            throws IOException {
+
+        if ("file".equals(url.getProtocol())) {
+            File file = FileUtils.toFile(url);
+            long modified = file.lastModified();
+            long size = file.length();
+            if (previous != null && previous.unchanged(modified, size)) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            ByteBuffer buffer = PropertiesParser.read(file);
+            return new Content(buffer, new ResourceVersion(modified, size,
+                null, now, digest(buffer)));
+        }
+
+        URLConnection connection = url.openConnection();
+        HttpURLConnection http = (connection instanceof HttpURLConnection)
+            ? (HttpURLConnection) connection : null;
+        try {
+            if (previous != null && http != null) {
+                if (previous.etag != null) {
+                    http.setRequestProperty("If-None-Match", previous.etag);
+                }
+                if (previous.lastModified > 0) {
+                    http.setIfModifiedSince(previous.lastModified);
+                }
+                int status = http.getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    return null;
+                }
+            }
+            long modified = connection.getLastModified();
+            long size = connection.getContentLengthLong();
+            if (previous != null && http == null
+                    && previous.unchanged(modified, size)) {
+                return null;
+            }
+
+            long now = System.currentTimeMillis();
+            InputStream is = connection.getInputStream();
+            ByteBuffer buffer;
+            try {
+                buffer = ByteBuffer.wrap(IOUtils.toByteArray(is));
+            } finally {
+                IOUtils.closeQuietly(is);
+            }
+            String tag = (http != null) ? http.getHeaderField("ETag") : null;
+            return new Content(buffer, new ResourceVersion(modified, size,
+                tag, now, digest(buffer)));
+        } finally {
+            if (http != null) {
+                http.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Liefert den Stand einer gerade geschriebenen Datei, ohne sie erneut zu
+     * lesen.
+     *
+     * @param file Die Datei.
+     * @param content Der geschriebene Inhalt.
+     * @return Der Stand der Datei.
+     */
+    static ResourceVersion written(final File file, final ByteBuffer content) {
+        return new ResourceVersion(file.lastModified(), file.length(), null,
+            System.currentTimeMillis(), digest(content));
+    }
+
+    /**
+     * Berechnet den Hashwert über den Inhalt eines Puffers. Die Position des
+     * Puffers bleibt unverändert.
+     *
+     * @param buffer Der Puffer.
+     * @return Der Hashwert.
+     */
+    private static byte[] digest(final ByteBuffer buffer) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            md.update(buffer.duplicate());
+            return md.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Der gelesene Inhalt einer Ressource.
+     */
+    static final class Content {
+
+        /** Der Inhalt. */
+        final ByteBuffer buffer;
+
+        /** Der Stand des Inhalts. */
+        final ResourceVersion version;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _buffer Der Inhalt.
+         * @param _version Der Stand des Inhalts.
+         */
+        private Content(final ByteBuffer _buffer,
+            final ResourceVersion _version) {
+
+            buffer = _buffer;
+            version = _version;
+        }
+
+    }
+
+}
@@ -0,0 +1,282 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Ein unveränderliches {@link Properties} Objekt über einer Momentaufnahme
+ * der Eigenschaften. Alle lesenden Methoden greifen direkt auf die Map zu,
+ * der von {@link Properties} geerbte Speicher bleibt leer. Alle ändernden
+ * Methoden werfen eine {@link UnsupportedOperationException}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class SnapshotProperties extends Properties {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Die Momentaufnahme. */
+    private final Map<String, String> snapshot;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _snapshot Eine unveränderliche Momentaufnahme.
+     */
+    SnapshotProperties(final Map<String, String> _snapshot) {
+        snapshot = _snapshot;
+    }
+
+    @Override
+    public String getProperty(final String key) {
+        return snapshot.get(key);
+    }
+
+    @Override
+    public String getProperty(final String key, final String defaultValue) {
+        String value = snapshot.get(key);
+        return (value == null) ? defaultValue : value;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return snapshot.get(key);
+    }
+
+    @Override
+    public Object getOrDefault(final Object key, final Object defaultValue) {
+        Object value = snapshot.get(key);
+        return (value == null) ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return snapshot.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return snapshot.containsValue(value);
+    }
+
+    @Override
+    public boolean contains(final Object value) {
+        return snapshot.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Set<Object> keySet() {
+        return (Set) Collections.unmodifiableSet(snapshot.keySet());
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return (Set) Collections.unmodifiableMap(snapshot).entrySet();
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Collection<Object> values() {
+        return (Collection) Collections.unmodifiableCollection(
+            snapshot.values());
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Enumeration<Object> keys() {
+        return (Enumeration) Collections.enumeration(snapshot.keySet());
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Enumeration<Object> elements() {
+        return (Enumeration) Collections.enumeration(snapshot.values());
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Enumeration<?> propertyNames() {
+        return (Enumeration) Collections.enumeration(snapshot.keySet());
+    }
+
+    @Override
+    public Set<String> stringPropertyNames() {
+        return Collections.unmodifiableSet(snapshot.keySet());
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void forEach(final BiConsumer<? super Object, ? super Object> action) {
+        ((Map) snapshot).forEach(action);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        return (object == this) || ((object instanceof Map)
+            && snapshot.equals(object));
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+
+    @Override
+    public Object clone() {
+        Properties clone = new Properties();
+        clone.putAll(snapshot);
+        return clone;
+    }
+
+    // -- Ändernde Methoden ---------------------------------------------------
+
+    @Override
+    public Object setProperty(final String key, final String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object put(final Object key, final Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(final Map<?, ?> map) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object putIfAbsent(final Object key, final Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object replace(final Object key, final Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean replace(final Object key, final Object oldValue,
+        final Object newValue) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void replaceAll(
+        final BiFunction<? super Object, ? super Object, ?> function) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object compute(final Object key,
+        final BiFunction<? super Object, ? super Object, ?> function) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object computeIfAbsent(final Object key,
+        final Function<? super Object, ?> function) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object computeIfPresent(final Object key,
+        final BiFunction<? super Object, ? super Object, ?> function) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object merge(final Object key, final Object value,
+        final BiFunction<? super Object, ? super Object, ?> function) {
+
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void load(final Reader reader) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void load(final InputStream inStream) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void loadFromXML(final InputStream in) {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ein gemeinsamer Pool für Schlüssel und Werte. Gleiche Strings aus
+ * verschiedenen Konfigurationen werden beim Laden auf eine Instanz
+ * abgebildet (siehe {@link #SHARED}). Der Pool hält seine Strings nur
+ * schwach: wird ein String von keiner Konfiguration mehr verwendet, kann
+ * ihn der Garbage Collector entfernen.
+ * <p>
+ * Der Pool ist in Streifen aufgeteilt, die jeweils eigenständig
+ * synchronisiert werden. Jeder Streifen ist eine Hash-Tabelle mit offener
+ * Adressierung aus {@link WeakReference}s. Der Parser fragt den Pool direkt
+ * mit seinem Zeichenpuffer ab und legt so für bekannte Strings keine neue
+ * Instanz an. Der Pool wird nur beim Laden verwendet, nicht beim Lesen
+ * einer Eigenschaft.
+ * </p>
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class StringPool {
+
+    /** Der Pool aller Konfigurationen. */
+    static final StringPool SHARED = new StringPool();
+
+    /** Die Anzahl der Bits für die Wahl des Streifens. */
+    private static final int STRIPE_BITS = 4;
+
+    /** Die Anzahl der Streifen. */
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    /** Belegt ein <code>char</code> ein Byte? Ab Java 9 für Latin-1. */
+    private static final boolean COMPACT_STRINGS =
+            !System.getProperty("java.specification.version", "")
+                .startsWith("1.");
+
+    /** Die Streifen. */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Konstruktor.
+     */
+    StringPool() {
+        for (int index = 0; index < STRIPES; index++) {
+            stripes[index] = new Stripe();
+        }
+    }
+
+    /**
+     * Liefert die kanonische Instanz eines Strings.
+     *
+     * @param value Ein String oder <code>null</code>.
+     * @return Die kanonische Instanz. <code>null</code>, wenn
+     *     <code>value</code> <code>null</code> ist.
+     */
+    String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+        return intern(value.hashCode(), value, null, 0, value.length());
+    }
+
+    /**
+     * Liefert die kanonische Instanz eines Abschnitts eines Arrays. Ein
+     * neuer String wird nur angelegt, wenn der Pool noch keinen gleichen
+     * String kennt.
+     *
+     * @param chars Die Zeichen.
+     * @param offset Der Beginn des Abschnitts.
+     * @param length Die Länge des Abschnitts.
+     * @return Die kanonische Instanz.
+     */
+    String intern(final char[] chars, final int offset, final int length) {
+        int hash = 0;
+        for (int index = offset; index < offset + length; index++) {
+            hash = 31 * hash + chars[index];
+        }
+        return intern(hash, null, chars, offset, length);
+    }
+
+    /**
+     * Sucht einen String per linearer Sondierung in seinem Streifen und
+     * nimmt ihn auf, wenn er fehlt. Vom Garbage Collector geleerte Plätze
+     * mit gleichem Hashwert werden wiederverwendet, alle übrigen beim
+     * nächsten Vergrößern der Tabelle entfernt.
+     *
+     * @param hash Der Hashwert nach {@link String#hashCode()}.
+     * @param value Der String oder <code>null</code>, dann gelten
+     *     <code>chars</code>, <code>offset</code> und <code>length</code>.
+     * @param chars Die Zeichen.
+     * @param offset Der Beginn des Abschnitts.
+     * @param length Die Länge des Abschnitts.
+     * @return Die kanonische Instanz.
+     */
+    private String intern(final int hash, final String value,
+        final char[] chars, final int offset, final int length) {
+
+        // Fibonacci-Hashing: die oberen Bits wählen den Streifen, die
+        // folgenden den Platz. Ähnliche Strings liegen so nicht beieinander.
+        int spread = hash * 0x9E3779B9;
+        Stripe stripe = stripes[spread >>> (32 - STRIPE_BITS)];
+        synchronized (stripe) {
+            WeakReference<String>[] table = stripe.table;
+            int[] hashes = stripe.hashes;
+            int mask = table.length - 1;
+            int index = (spread >>> stripe.shift) & mask;
+            int free = -1;
+            WeakReference<String> reference;
+            while ((reference = table[index]) != null) {
+                // Nur bei gleichem Hashwert wird der String gelesen.
+                if (hashes[index] == hash) {
+                    String candidate = reference.get();
+                    if (candidate == null) {
+                        if (free < 0) {
+                            free = index;
+                        }
+                    } else if (candidate.length() == length
+                            && matches(candidate, value, chars, offset)) {
+                        return candidate;
+                    }
+                }
+                index = (index + 1) & mask;
+            }
+
+            String canonical = (value != null)
+                ? value : new String(chars, offset, length);
+            if (free < 0) {
+                free = index;
+                stripe.used++;
+            }
+            table[free] = new WeakReference<String>(canonical);
+            hashes[free] = hash;
+            if (stripe.used * 2 > table.length) {
+                stripe.rehash();
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * Vergleicht einen String aus dem Pool mit dem gesuchten String. Die
+     * Längen sind bereits gleich.
+     *
+     * @param candidate Der String aus dem Pool.
+     * @param value Der gesuchte String oder <code>null</code>.
+     * @param chars Die gesuchten Zeichen.
+     * @param offset Der Beginn der gesuchten Zeichen.
+     * @return <code>true</code>, wenn beide gleich sind.
+     */
+    private static boolean matches(final String candidate, final String value,
+        final char[] chars, final int offset) {
+
+        if (value != null) {
+            return candidate.equals(value);
+        }
+        for (int index = 0; index < candidate.length(); index++) {
+            if (candidate.charAt(index) != chars[offset + index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kopiert eine Map mit den kanonischen Instanzen aller Schlüssel und
+     * Werte.
+     *
+     * @param properties Die Eigenschaften.
+     * @return Eine neue, veränderbare Map.
+     */
+    Map<String, String> intern(final Map<String, String> properties) {
+        Map<String, String> result =
+                new HashMap<String, String>(properties.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            result.put(intern(entry.getKey()), intern(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die Anzahl der Strings im Pool, die der Garbage Collector
+     * noch nicht entfernt hat.
+     *
+     * @return Die Anzahl der Strings.
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (WeakReference<String> reference : stripe.table) {
+                    if (reference != null && reference.get() != null) {
+                        size++;
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Schätzt den Speicherbedarf eines Strings in Bytes für eine 64-Bit JVM
+     * mit komprimierten Referenzen: 24 Bytes für das String-Objekt und
+     * 16 Bytes plus Inhalt für das Array, jeweils auf 8 Bytes aufgerundet.
+     *
+     * @param value Der String.
+     * @return Der geschätzte Speicherbedarf.
+     */
+    static long sizeOf(final String value) {
+        int bytesPerChar = 1;
+        if (COMPACT_STRINGS) {
+            for (int index = 0; index < value.length(); index++) {
+                if (value.charAt(index) > 0xFF) {
+                    bytesPerChar = 2;
+                    break;
+                }
+            }
+        } else {
+            bytesPerChar = 2;
+        }
+        long array = 16 + (long) value.length() * bytesPerChar;
+        return 24 + ((array + 7) & ~7L);
+    }
+
+    /**
+     * Ein Streifen des Pools.
+     */
+    private static final class Stripe {
+
+        /** Die Plätze. Die Länge ist eine Zweierpotenz. */
+        private WeakReference<String>[] table = newTable(64);
+
+        /** Die Hashwerte der Strings pro Platz. */
+        private int[] hashes = new int[64];
+
+        /** Die Verschiebung des Hashwerts auf den Platz. */
+        private int shift = shift(64);
+
+        /** Die Anzahl der belegten Plätze, auch der geleerten. */
+        private int used;
+
+        /**
+         * Legt eine neue Tabelle für die lebenden Strings an. Geleerte
+         * Plätze entfallen dabei.
+         */
+        private void rehash() {
+            List<String> live = new ArrayList<String>(used);
+            for (WeakReference<String> reference : table) {
+                String value = (reference == null) ? null : reference.get();
+                if (value != null) {
+                    live.add(value);
+                }
+            }
+            int capacity = Math.max(64,
+                Integer.highestOneBit(Math.max(16, live.size()) * 4));
+            table = newTable(capacity);
+            hashes = new int[capacity];
+            shift = shift(capacity);
+            int mask = capacity - 1;
+            for (String value : live) {
+                int hash = value.hashCode();
+                int index = ((hash * 0x9E3779B9) >>> shift) & mask;
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = new WeakReference<String>(value);
+                hashes[index] = hash;
+            }
+            used = live.size();
+        }
+
+        /**
+         * Liefert die Verschiebung, mit der die Bits nach denen des
+         * Streifens den Platz bestimmen.
+         *
+         * @param capacity Die Anzahl der Plätze.
+         * @return Die Verschiebung.
+         */
+        private static int shift(final int capacity) {
+            return Math.max(0,
+                32 - STRIPE_BITS - Integer.numberOfTrailingZeros(capacity));
+        }
+
+        /**
+         * Legt eine leere Tabelle an.
+         *
+         * @param capacity Die Anzahl der Plätze.
+         * @return Die Tabelle.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static WeakReference<String>[] newTable(final int capacity) {
+            return new WeakReference[capacity];
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Eine Sicht auf die Eigenschaften einer Konfiguration unterhalb eines
+ * Präfix. Die Schlüssel der Sicht sind um den Präfix gekürzt. Die
+ * Schlüssel werden über den sortierten Schlüsselindex der übergeordneten
+ * Konfiguration ermittelt, ohne alle Schlüssel zu durchlaufen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ *
+ * @see GlueConfig#subset(String)
+ */
+final class SubsetGlueConfig extends AbstractGlueConfig {
+
+    /** Die übergeordnete Konfiguration. */
+    private final AbstractGlueConfig parent;
+
+    /** Der Präfix. */
+    private final String prefix;
+
+    /** Die zuletzt aufgebaute Momentaufnahme. */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _parent Die übergeordnete Konfiguration.
+     * @param _prefix Der Präfix.
+     */
+    SubsetGlueConfig(final AbstractGlueConfig _parent, final String _prefix) {
+        parent = _parent;
+        prefix = _prefix;
+        parent.addDependent(this);
+    }
+
+    /**
+     * Liefert die übergeordnete Konfiguration.
+     *
+     * @return Die übergeordnete Konfiguration.
+     */
+    AbstractGlueConfig getParent() {
+        return parent;
+    }
+
+    /**
+     * Liefert den Präfix.
+     *
+     * @return Der Präfix.
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    protected Object doGetProperty(final String key) {
+        return parent.doGetProperty(prefix.concat(key));
+    }
+
+    /**
+     * Liefert die Momentaufnahme der Sicht. Sie wird nur neu aufgebaut, wenn
+     * sich der Index der übergeordneten Konfiguration geändert hat.
+     *
+     * @return Die Momentaufnahme.
+     */
+    @Override
+    Map<String, String> snapshot() {
+        KeyIndex index = parent.keyIndex();
+        Snapshot current = snapshot;
+        if (current == null || current.source != index.snapshot) {
+            Map<String, String> result = new HashMap<String, String>();
+            for (String key : index.withPrefix(prefix)) {
+                if (key.length() > prefix.length()) {
+                    result.put(key.substring(prefix.length()),
+                        index.snapshot.get(key));
+                }
+            }
+            current = new Snapshot(index.snapshot,
+                Collections.unmodifiableMap(result));
+            snapshot = current;
+        }
+        return current.properties;
+    }
+
+    public Iterator<String> getKeyIterator() {
+        final List<String> keys = parent.keyIndex().withPrefix(prefix);
+        final int start = (!keys.isEmpty() && keys.get(0).equals(prefix))
+            ? 1 : 0;
+        return new Iterator<String>() {
+            private int index = start;
+
+            public boolean hasNext() {
+                return index < keys.size();
+            }
+
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys.get(index++).substring(prefix.length());
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public void load() throws IOException {
+        parent.load();
+    }
+
+    public void save() throws IOException {
+        parent.save();
+    }
+
+    public void setProperty(final String key, final String value) {
+        parent.setProperty(prefix.concat(key), value);
+    }
+
+    @Override
+    boolean reportsAllChanges() {
+        return parent.reportsAllChanges();
+    }
+
+    @Override
+    void layerChanged(final GlueConfig layer, final String key) {
+        if (key == null) {
+            propertiesChanged();
+        } else if (key.length() > prefix.length() && key.startsWith(prefix)) {
+            propertyChanged(key.substring(prefix.length()));
+        }
+    }
+
+    /**
+     * Die Momentaufnahme der Sicht zu einer Momentaufnahme der
+     * übergeordneten Konfiguration.
+     */
+    private static final class Snapshot {
+
+        /** Die Momentaufnahme der übergeordneten Konfiguration. */
+        private final Map<String, String> source;
+
+        /** Die Eigenschaften der Sicht. */
+        private final Map<String, String> properties;
+
+        /**
+         * Konstruktor.
+         *
+         * @param _source Die Momentaufnahme der übergeordneten
+         *     Konfiguration.
+         * @param _properties Die Eigenschaften der Sicht.
+         */
+        private Snapshot(final Map<String, String> _source,
+            final Map<String, String> _properties) {
+
+            source = _source;
+            properties = _properties;
+        }
+
+    }
+
+}
@@ -26,25 +26,125 @@
 package de.awtools.config;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
 
 import org.apache.commons.collections.IteratorUtils;
 
 /**
  * Ein Wrapper für den Zugriff auf {@link System#getProperties()}.
+ * <p>
+ * Im Standardmodus liest jeder Zugriff die aktuellen System-Eigenschaften.
+ * Jeder Zugriff passiert damit den Monitor der {@link Properties}
+ * Hashtable, auch wenn der Schlüssel gar nicht definiert ist.
+ * </p>
+ * <p>
+ * Im Momentaufnahme-Modus (siehe {@link #SystemGlueConfig(boolean, boolean)})
+ * werden die System-Eigenschaften und optional die Umgebungsvariablen
+ * einmalig in eine unveränderliche Map kopiert. Lesende Zugriffe sind dann
+ * ohne Sperren möglich. Spätere Änderungen an den System-Eigenschaften
+ * werden erst durch {@link #refresh()} bzw. {@link #load()} sichtbar.
+ * Änderungen über {@link #setProperty(String, String)} sind sofort
+ * sichtbar.
+ * </p>
  * 
  * @author  $Author: andrewinkler $
  * @version $Revision: 2319 $ $Date: 2010-07-30 15:46:58 +0200 (Fr, 30 Jul 2010) $
  */
 public final class SystemGlueConfig extends AbstractGlueConfig {
 
+    /** Momentaufnahme-Modus an/aus. */
+    private final boolean snapshotMode;
+
+    /** Umgebungsvariablen in die Momentaufnahme aufnehmen? */
+    private final boolean environment;
+
+    /** Die Momentaufnahme. Nur im Momentaufnahme-Modus gesetzt. */
+    private volatile Map<String, String> current;
+
+    /**
+     * Konstruktor. Jeder Zugriff liest die aktuellen System-Eigenschaften.
+     */
+    public SystemGlueConfig() {
+        this(false, false);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param _snapshotMode <code>true</code> kopiert die
+     *     System-Eigenschaften einmalig in eine Momentaufnahme.
+     * @param _environment <code>true</code> nimmt die Umgebungsvariablen mit
+     *     in die Momentaufnahme auf. Gleichnamige System-Eigenschaften haben
+     *     Vorrang. Wird nur im Momentaufnahme-Modus beachtet.
+     */
+    public SystemGlueConfig(final boolean _snapshotMode,
+        final boolean _environment) {
+
+        snapshotMode = _snapshotMode;
+        environment = _environment;
+        if (snapshotMode) {
+            current = capture();
+        }
+    }
+
+    /**
+     * Ist der Momentaufnahme-Modus eingeschaltet?
+     *
+     * @return <code>true</code>, wenn der Momentaufnahme-Modus aktiv ist.
+     */
+    public boolean isSnapshotMode() {
+        return snapshotMode;
+    }
+
+    /**
+     * Liest die System-Eigenschaften neu in die Momentaufnahme ein. Ohne
+     * Momentaufnahme-Modus passiert nichts.
+     */
+    public void refresh() {
+        if (snapshotMode) {
+            Map<String, String> captured;
+            synchronized (this) {
+                captured = capture();
+                if (captured.equals(current)) {
+                    return;
+                }
+                current = captured;
+            }
+            propertiesChanged();
+        }
+    }
+
     @Override
     protected Object doGetProperty(final String key) {
-        return System.getProperties().getProperty(key);
+        if (!snapshotMode) {
+            return System.getProperties().getProperty(key);
+        }
+        return current.get(key);
+    }
+
+    /**
+     * Im Standardmodus werden Änderungen über
+     * {@link System#setProperty(String, String)} nicht gemeldet.
+     */
+    @Override
+    boolean reportsAllChanges() {
+        return snapshotMode;
+    }
+
+    @Override
+    Map<String, String> snapshot() {
+        return snapshotMode ? current : super.snapshot();
     }
 
     @SuppressWarnings("unchecked")
     public Iterator<String> getKeyIterator() {
+        if (snapshotMode) {
+            return current.keySet().iterator();
+        }
         Iterator<String> unmodifiableIterator =
                 (Iterator<String>) IteratorUtils.unmodifiableIterator(System.getProperties()
                     .keySet()
@@ -52,8 +152,17 @@ public final class SystemGlueConfig extends AbstractGlueConfig {
         return unmodifiableIterator;
     }
 
+    @Override
+    public String toString() {
+        return "SystemGlueConfig[" + (snapshotMode ? "snapshot" : "live")
+            + "]";
+    }
+
+    /**
+     * Im Momentaufnahme-Modus wie {@link #refresh()}, sonst passiert nichts.
+     */
     public void load() throws IOException {
-        // Nix zu tun.
+        refresh();
     }
 
     public void save() throws IOException {
@@ -62,6 +171,36 @@ public final class SystemGlueConfig extends AbstractGlueConfig {
 
     public void setProperty(final String key, final String value) {
         System.setProperty(key, value);
+        if (snapshotMode) {
+            synchronized (this) {
+                Map<String, String> copy =
+                        new HashMap<String, String>(current);
+                copy.put(key, value);
+                current = Collections.unmodifiableMap(copy);
+            }
+        }
+        propertyChanged(key);
+    }
+
+    /**
+     * Kopiert die System-Eigenschaften und ggf. die Umgebungsvariablen.
+     *
+     * @return Die Momentaufnahme.
+     */
+    private Map<String, String> capture() {
+        Map<String, String> properties = new HashMap<String, String>();
+        StringPool pool = StringPool.SHARED;
+        if (environment) {
+            properties.putAll(pool.intern(System.getenv()));
+        }
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            String value = system.getProperty(key);
+            if (value != null) {
+                properties.put(pool.intern(key), pool.intern(value));
+            }
+        }
+        return Collections.unmodifiableMap(properties);
     }
 
 }
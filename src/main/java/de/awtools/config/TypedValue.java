@@ -0,0 +1,104 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+/**
+ * Die geparsten Werte einer Eigenschaft. Ein <code>TypedValue</code> wird
+ * einmalig aus dem String-Wert einer Eigenschaft berechnet und merkt sich,
+ * ob sich der Wert als <code>int</code> bzw. <code>long</code> lesen lässt.
+ * Das Parsen kommt ohne {@link NumberFormatException} aus und verhält sich
+ * ansonsten wie {@link Integer#parseInt(String)} bzw.
+ * {@link Long#parseLong(String)}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+final class TypedValue {
+
+    /** Der String-Wert, aus dem die Werte berechnet wurden. */
+    final String source;
+
+    /** Ist {@link #source} eine gültige <code>int</code> Zahl? */
+    final boolean intValid;
+
+    /** Der <code>int</code> Wert. */
+    final int intValue;
+
+    /** Ist {@link #source} eine gültige <code>long</code> Zahl? */
+    final boolean longValid;
+
+    /** Der <code>long</code> Wert. */
+    final long longValue;
+
+    /** Der <code>boolean</code> Wert. */
+    final boolean boolValue;
+
+    /**
+     * Konstruktor.
+     *
+     * @param _source Der zu parsende String-Wert.
+     */
+    TypedValue(final String _source) {
+        source = _source;
+        boolValue = Boolean.parseBoolean(_source);
+
+        long value = 0;
+        boolean valid = false;
+        int length = _source.length();
+        if (length > 0) {
+            char first = _source.charAt(0);
+            boolean negative = (first == '-');
+            int index = (negative || first == '+') ? 1 : 0;
+            long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long multmin = limit / 10;
+            valid = (index < length);
+            // Negativ akkumulieren, damit auch Long.MIN_VALUE darstellbar ist.
+            while (valid && index < length) {
+                int digit = Character.digit(_source.charAt(index++), 10);
+                if (digit < 0 || value < multmin) {
+                    valid = false;
+                } else {
+                    value *= 10;
+                    if (value < limit + digit) {
+                        valid = false;
+                    } else {
+                        value -= digit;
+                    }
+                }
+            }
+            if (valid && !negative) {
+                value = -value;
+            }
+        }
+
+        longValid = valid;
+        longValue = valid ? value : 0;
+        intValid = valid && value >= Integer.MIN_VALUE
+            && value <= Integer.MAX_VALUE;
+        intValue = intValid ? (int) value : 0;
+    }
+
+}
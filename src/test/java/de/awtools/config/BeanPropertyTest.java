@@ -0,0 +1,225 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.beans.ConstructorProperties;
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link BeanProperty}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class BeanPropertyTest {
+
+    @Test
+    public void testBeanPropertyConstructor() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("db.pool.size", "10");
+        properties.put("db.pool.timeout", "30000");
+        properties.put("db.pool.enabled", "true");
+        properties.put("db.pool.name", "main");
+        MapGlueConfig config = new MapGlueConfig(properties);
+
+        BeanProperty<PoolSettings> handle =
+                config.bind(PoolSettings.class, "db.pool.");
+        assertEquals("db.pool.", handle.getKey());
+        PoolSettings settings = handle.get();
+        assertEquals(10, settings.size);
+        assertEquals(30000L, settings.timeout);
+        assertTrue(settings.enabled);
+        assertEquals("main", settings.name);
+        assertNull(settings.maxIdle);
+
+        config.setProperty("db.pool.max.idle", "4");
+        config.setProperty("db.pool.size", "20");
+        assertNotSame(settings, handle.get());
+        assertEquals(10, settings.size);
+        assertEquals(20, handle.get().size);
+        assertEquals(Integer.valueOf(4), handle.get().maxIdle);
+
+        // Abgelehnte Werte behalten das bisherige Objekt.
+        PoolSettings valid = handle.get();
+        config.setProperty("db.pool.size", "-1");
+        assertSame(valid, handle.get());
+
+        // Andere Schlüssel erzeugen kein neues Objekt.
+        config.setProperty("db.pool.size", "30");
+        PoolSettings current = handle.get();
+        assertEquals(30, current.size);
+        config.setProperty("db.url", "jdbc:h2:mem:");
+        config.setProperty("db.poolsize", "5");
+        assertSame(current, handle.get());
+    }
+
+    @Test
+    public void testBeanPropertySetter() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("app.size", "5");
+        properties.put("app.directory", "/tmp");
+        properties.put("app.ratio", "0.5");
+        MapGlueConfig config = new MapGlueConfig(properties);
+
+        BeanProperty<Settings> handle = config.bind(Settings.class, "app.");
+        Settings settings = handle.get();
+        assertEquals(5, settings.getSize());
+        assertEquals("default", settings.getName());
+        assertEquals(new File("/tmp"), settings.getDirectory());
+
+        config.setProperty("app.name", "neu");
+        assertEquals("neu", handle.get().getName());
+        assertEquals("default", settings.getName());
+    }
+
+    @Test
+    public void testBeanPropertyCombined() throws Exception {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        MapGlueConfig layer = new MapGlueConfig();
+        combined.addConfig(layer);
+        BeanProperty<PoolSettings> handle =
+                combined.bind(PoolSettings.class, "db.pool.");
+        assertEquals(0, handle.get().size);
+        assertFalse(handle.get().enabled);
+
+        layer.setProperty("db.pool.size", "8");
+        assertEquals(8, handle.get().size);
+        assertEquals(8, combined.subset("db.pool.")
+            .bind(PoolSettings.class, "").get().size);
+    }
+
+    @Test
+    public void testBeanPropertyBinderCache() {
+        assertSame(Binder.of(PoolSettings.class),
+            Binder.of(PoolSettings.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeanPropertyUnsupportedClass() {
+        new MapGlueConfig().bind(Unsupported.class, "test.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeanPropertyInvalidFirstValue() {
+        new MapGlueConfig(Collections.singletonMap(
+            "db.pool.size", "-1")).bind(PoolSettings.class, "db.pool.");
+    }
+
+    public static final class PoolSettings {
+
+        private final int size;
+
+        private final long timeout;
+
+        private final boolean enabled;
+
+        private final String name;
+
+        private final Integer maxIdle;
+
+        @ConstructorProperties({ "size", "timeout", "enabled", "name",
+                "max.idle" })
+        public PoolSettings(final int _size, final long _timeout,
+            final boolean _enabled, final String _name,
+            final Integer _maxIdle) {
+
+            if (_size < 0) {
+                throw new IllegalArgumentException("size < 0");
+            }
+            size = _size;
+            timeout = _timeout;
+            enabled = _enabled;
+            name = _name;
+            maxIdle = _maxIdle;
+        }
+
+    }
+
+    public static final class Settings {
+
+        private int size;
+
+        private String name = "default";
+
+        private File directory;
+
+        private double ratio;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(final int _size) {
+            size = _size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Settings setName(final String _name) {
+            name = _name;
+            return this;
+        }
+
+        public File getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(final File _directory) {
+            directory = _directory;
+        }
+
+        public double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(final double _ratio) {
+            ratio = _ratio;
+        }
+
+    }
+
+    public static final class Unsupported {
+
+        public Unsupported(final String value) {
+        }
+
+    }
+
+}
@@ -26,9 +26,33 @@
 package de.awtools.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -71,6 +95,314 @@ public class CombinedGlueConfigTest {
         assertEquals("c:\\temp", cc.getProperty("test.file"));
     }
 
+    @Test
+    public void testCombinedGlueConfigCompiled() throws Exception {
+        cc.setCompiled(true);
+        cc.load();
+        assertTrue(cc.isCompiled());
+        GlueConfigTestUtils.assertProperties(cc, PROPERTIES);
+        assertEquals(11, cc.getInt("test.int.10"));
+        assertNull(cc.getProperty("test.undefined"));
+    }
+
+    @Test
+    public void testCombinedGlueConfigCompiledSetProperty() throws Exception {
+        cc.setCompiled(true);
+        cc.load();
+        assertEquals("Christian", cc.getProperty("value1"));
+        cc.setProperty("value1", "Lars");
+        assertEquals("Lars", cc.getProperty("value1"));
+
+        cc.addConfig(new MapGlueConfig(Collections.singletonMap(
+            "test.new", "neu")));
+        assertEquals("neu", cc.getProperty("test.new"));
+    }
+
+    @Test
+    public void testCombinedGlueConfigAsMap() throws Exception {
+        Map<String, String> map = cc.asMap();
+        GlueConfigTestUtils.assertProperties(cc.asProperties(), PROPERTIES);
+        assertEquals(PROPERTIES.length, map.size());
+        assertSame(map, cc.asMap());
+
+        cc.setProperty("value1", "Lars");
+        assertEquals("Christian", map.get("value1"));
+        assertEquals("Lars", cc.asMap().get("value1"));
+    }
+
+    @Test
+    public void testCombinedGlueConfigDistinctKeys() throws Exception {
+        Set<String> keys = new HashSet<String>();
+        int count = 0;
+        for (Iterator<String> i = cc.getKeyIterator(); i.hasNext();) {
+            keys.add(i.next());
+            count++;
+        }
+        assertEquals(keys.size(), count);
+        assertEquals(PROPERTIES.length, cc.size());
+        assertTrue(cc.containsKey("value1"));
+        assertFalse(cc.containsKey("test.undefined"));
+
+        cc.setProperty("test.new", "neu");
+        assertEquals(PROPERTIES.length + 1, cc.size());
+        assertTrue(cc.containsKey("test.new"));
+    }
+
+    @Test
+    public void testCombinedGlueConfigCompiledLoadFailure() throws Exception {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new AbstractGlueConfig() {
+            @Override
+            protected Object doGetProperty(final String key) {
+                return null;
+            }
+
+            public Iterator<String> getKeyIterator() {
+                throw new IllegalStateException("halb geladen");
+            }
+
+            public void load() throws IOException {
+                propertiesChanged();
+                throw new IOException("kaputt");
+            }
+
+            public void save() {
+            }
+
+            public void setProperty(final String key, final String value) {
+            }
+        });
+        combined.setCompiled(true);
+        try {
+            combined.load();
+            fail("IOException expected");
+        } catch (IOException ex) {
+            // Der Fehler der Konfiguration bleibt erhalten.
+            assertEquals("kaputt", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testCombinedGlueConfigParallelLoad() throws Exception {
+        CombinedGlueConfig parallel = new CombinedGlueConfig();
+        parallel.addConfig(new PropertiesGlueConfig(
+            slowUrl("value1 = langsam", 300)));
+        parallel.addConfig(new PropertiesGlueConfig(
+            slowUrl("value1 = schnell\nvalue2 = schnell", 0)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            parallel.setLoadExecutor(executor);
+            parallel.load();
+            // Die Rangfolge bleibt erhalten, egal wer zuerst fertig ist.
+            assertEquals("langsam", parallel.getString("value1"));
+            assertEquals("schnell", parallel.getString("value2"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCombinedGlueConfigLoadFailurePolicy() throws Exception {
+        URL missing = new URL(
+            getClass().getResource("test_1.properties"), "missing.properties");
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new PropertiesGlueConfig(missing),
+            LoadFailurePolicy.IGNORE, 0);
+        combined.addConfig(new PropertiesGlueConfig(
+            slowUrl("value1 = langsam", 1000)), LoadFailurePolicy.IGNORE, 100);
+        combined.addConfig(new PropertiesGlueConfig(
+            slowUrl("value2 = schnell", 0)));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            combined.setLoadExecutor(executor);
+            long start = System.currentTimeMillis();
+            combined.load();
+            assertTrue(System.currentTimeMillis() - start < 900);
+            assertNull(combined.getString("value1"));
+            assertEquals("schnell", combined.getString("value2"));
+
+            // Der abgebrochene Ladevorgang veröffentlicht nichts mehr.
+            Thread.sleep(1200);
+            assertNull(combined.getString("value1"));
+
+            combined.addConfig(new PropertiesGlueConfig(missing));
+            try {
+                combined.load();
+                fail("IOException expected");
+            } catch (IOException ex) {
+                // ok
+            }
+
+            // Nacheinander gilt dieselbe Fehlerbehandlung.
+            combined.setLoadExecutor(null);
+            try {
+                combined.load();
+                fail("IOException expected");
+            } catch (IOException ex) {
+                // ok
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCombinedGlueConfigLoadRejected() throws Exception {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        MapGlueConfig first = new MapGlueConfig();
+        combined.addConfig(first);
+        combined.addConfig(new MapGlueConfig(), LoadFailurePolicy.IGNORE, 0);
+        combined.addConfig(new MapGlueConfig());
+
+        // Nimmt nur den ersten Ladevorgang an, ohne ihn auszuführen.
+        final List<Runnable> accepted = new ArrayList<Runnable>();
+        combined.setLoadExecutor(new Executor() {
+            public void execute(final Runnable command) {
+                if (!accepted.isEmpty()) {
+                    throw new RejectedExecutionException("voll");
+                }
+                accepted.add(command);
+            }
+        });
+        try {
+            combined.load();
+            fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException ex) {
+            assertEquals("voll", ex.getMessage());
+        }
+        assertEquals(1, accepted.size());
+        assertTrue(((Future<?>) accepted.get(0)).isCancelled());
+
+        try {
+            combined.addConfig(first, LoadFailurePolicy.IGNORE, 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException ex) {
+            // ok
+        }
+        assertEquals(3, combined.layers().size());
+    }
+
+    @Test
+    public void testCombinedGlueConfigAbsentKeys() throws Exception {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        MapGlueConfig overrides = new MapGlueConfig();
+        MapGlueConfig defaults = new MapGlueConfig();
+        combined.addConfig(overrides);
+        combined.addConfig(defaults);
+        assertNull(combined.getString("test.optional"));
+        assertNull(combined.getString("test.optional"));
+
+        // Änderungen verwerfen die gemerkten Schlüssel.
+        defaults.setProperty("test.optional", "vorhanden");
+        assertEquals("vorhanden", combined.getString("test.optional"));
+        assertNull(combined.getString("test.optional.2"));
+        combined.setProperty("test.optional.2", "gesetzt");
+        assertEquals("gesetzt", combined.getString("test.optional.2"));
+        assertEquals("gesetzt", overrides.getString("test.optional.2"));
+    }
+
+    @Test
+    public void testCombinedGlueConfigAbsentKeysLiveLayer() throws Exception {
+        final AtomicInteger lookups = new AtomicInteger();
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new SystemGlueConfig());
+        combined.addConfig(new AbstractGlueConfig() {
+            @Override
+            protected Object doGetProperty(final String key) {
+                lookups.incrementAndGet();
+                // Der Filter enthält den Schlüssel, der Wert ist leer.
+                return " ";
+            }
+
+            public Iterator<String> getKeyIterator() {
+                return Collections.singleton("test.optional").iterator();
+            }
+
+            public void load() {
+            }
+
+            public void save() {
+            }
+
+            public void setProperty(final String key, final String value) {
+            }
+        });
+
+        assertNull(combined.getString("test.optional"));
+        int count = lookups.get();
+        assertTrue(count > 0);
+        // Gemerkt: Nur noch die System-Eigenschaften werden gefragt.
+        assertNull(combined.getString("test.optional"));
+        assertEquals(count, lookups.get());
+
+        System.setProperty("test.optional", "system");
+        try {
+            assertEquals("system", combined.getString("test.optional"));
+        } finally {
+            System.clearProperty("test.optional");
+        }
+        assertNull(combined.getString("test.optional"));
+        assertEquals(count, lookups.get());
+    }
+
+    @Test
+    public void testCombinedGlueConfigUnchangedLoad() throws Exception {
+        Map<String, String> combined = cc.asMap();
+        cc.load();
+        assertSame(combined, cc.asMap());
+    }
+
+    @Test
+    public void testCombinedGlueConfigLiveSystemLayer() throws Exception {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new SystemGlueConfig());
+        combined.addConfig(new MapGlueConfig(
+            Collections.singletonMap("test.live", "map")));
+        assertEquals("map", combined.getString("test.live"));
+        assertEquals("map", combined.asMap().get("test.live"));
+        System.setProperty("test.live", "system");
+        try {
+            // Die System-Eigenschaften melden ihre Änderungen nicht.
+            assertEquals("system", combined.getString("test.live"));
+            assertEquals("system", combined.asMap().get("test.live"));
+        } finally {
+            System.clearProperty("test.live");
+        }
+    }
+
+    /**
+     * Liefert eine URL, deren Inhalt erst nach einer Wartezeit geliefert
+     * wird.
+     */
+    private static URL slowUrl(final String content, final long delayMillis)
+            throws IOException {
+
+        return new URL(null, "slow:" + content.hashCode(),
+            new URLStreamHandler() {
+                @Override
+                protected URLConnection openConnection(final URL url) {
+                    return new URLConnection(url) {
+                        @Override
+                        public void connect() {
+                        }
+
+                        @Override
+                        public InputStream getInputStream() throws IOException {
+                            try {
+                                Thread.sleep(delayMillis);
+                            } catch (InterruptedException ex) {
+                                throw new InterruptedIOException();
+                            }
+                            return new ByteArrayInputStream(
+                                content.getBytes("ISO-8859-1"));
+                        }
+                    };
+                }
+            });
+    }
+
     @Before
     public void setUp() throws Exception {
         cc = new CombinedGlueConfig();
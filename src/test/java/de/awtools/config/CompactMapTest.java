@@ -0,0 +1,125 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link CompactMap}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class CompactMapTest {
+
+    @Test
+    public void testCompactMap() {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int index = 0; index < 10000; index++) {
+            properties.put("compact.key." + index, "value." + index);
+        }
+        properties.put("compact.null", null);
+        // Zwei Schlüssel mit gleichem Hashwert.
+        properties.put("Aa", "1");
+        properties.put("BB", "2");
+
+        CompactMap map = new CompactMap(properties);
+        assertEquals(properties.size(), map.size());
+        assertEquals(properties, map);
+        assertEquals(map, properties);
+        assertEquals(properties.hashCode(), map.hashCode());
+        assertEquals("value.4711", map.get(new String("compact.key.4711")));
+        assertEquals("1", map.get("Aa"));
+        assertEquals("2", map.get("BB"));
+        assertNull(map.get("compact.missing"));
+        assertNull(map.get(Integer.valueOf(1)));
+        assertTrue(map.containsKey("compact.null"));
+        assertFalse(map.containsKey("compact.missing"));
+
+        Set<String> keys = new HashSet<String>();
+        for (String key : map.keySet()) {
+            assertTrue(keys.add(key));
+        }
+        assertEquals(properties.keySet(), keys);
+        assertTrue(map.keySet().contains("BB"));
+    }
+
+    @Test
+    public void testCompactMapEmpty() {
+        CompactMap map = new CompactMap(new HashMap<String, String>());
+        assertTrue(map.isEmpty());
+        assertNull(map.get("compact.key"));
+        assertFalse(map.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testCompactMapUnmodifiable() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("compact.key", "value");
+        CompactMap map = new CompactMap(properties);
+        try {
+            map.put("compact.other", "value");
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // Erwartet.
+        }
+        Iterator<String> keys = map.keySet().iterator();
+        keys.next();
+        try {
+            keys.remove();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // Erwartet.
+        }
+        try {
+            map.entrySet().iterator().next().setValue("other");
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // Erwartet.
+        }
+        assertEquals("value", map.get("compact.key"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompactMapNullKey() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(null, "value");
+        new CompactMap(properties);
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testet die {@link ConfigChangeListener} Unterstützung.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class ConfigChangeListenerTest {
+
+    /** Führt die Benachrichtigungen im aufrufenden Thread aus. */
+    private static final Executor DIRECT = new Executor() {
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private final List<ConfigChangeEvent> all =
+            Collections.synchronizedList(new ArrayList<ConfigChangeEvent>());
+
+    private final List<ConfigChangeEvent> prefixed =
+            Collections.synchronizedList(new ArrayList<ConfigChangeEvent>());
+
+    private final List<ConfigChangeEvent> single =
+            Collections.synchronizedList(new ArrayList<ConfigChangeEvent>());
+
+    private File file;
+
+    private PropertiesGlueConfig layer;
+
+    private CombinedGlueConfig cc;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("glueconfiglistener", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file,
+            "db.pool.size = 4\ndb.url = jdbc:a\nname = Andre\n", "ISO-8859-1");
+
+        layer = new PropertiesGlueConfig(file.toURI().toURL());
+        cc = new CombinedGlueConfig();
+        cc.addConfig(layer);
+        cc.load();
+
+        cc.setChangeExecutor(DIRECT);
+        cc.addChangeListener(new Collector(all));
+        cc.addPrefixChangeListener("db.pool.", new Collector(prefixed));
+        cc.addKeyChangeListener("name", new Collector(single));
+    }
+
+    @Test
+    public void testChangeListenerReloadDiff() throws Exception {
+        FileUtils.writeStringToFile(file,
+            "db.pool.size = 8\ndb.pool.max = 16\nname = Andre\n", "ISO-8859-1");
+        cc.load();
+
+        assertEquals(1, all.size());
+        ConfigChangeEvent event = all.get(0);
+        assertEquals(Collections.singleton("db.pool.max"), event.getAddedKeys());
+        assertEquals(Collections.singleton("db.url"), event.getRemovedKeys());
+        assertEquals(Collections.singleton("db.pool.size"),
+            event.getChangedKeys());
+        assertEquals("4", event.getOldValue("db.pool.size"));
+        assertEquals("8", event.getNewValue("db.pool.size"));
+        assertEquals("jdbc:a", event.getOldValue("db.url"));
+
+        assertEquals(1, prefixed.size());
+        assertTrue(prefixed.get(0).getRemovedKeys().isEmpty());
+        assertEquals(2, prefixed.get(0).getAddedKeys().size()
+            + prefixed.get(0).getChangedKeys().size());
+
+        // "name" hat sich nicht geändert.
+        assertTrue(single.isEmpty());
+    }
+
+    @Test
+    public void testChangeListenerLayerChange() throws Exception {
+        layer.setProperty("name", "Lars");
+
+        assertEquals(1, all.size());
+        assertEquals(1, single.size());
+        assertEquals("Andre", single.get(0).getOldValue("name"));
+        assertEquals("Lars", single.get(0).getNewValue("name"));
+        assertTrue(prefixed.isEmpty());
+    }
+
+    @Test
+    public void testChangeListenerRemove() throws Exception {
+        ConfigChangeListener listener = new Collector(all);
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setChangeExecutor(DIRECT);
+        mgc.addChangeListener(listener);
+        mgc.setProperty("a", "1");
+        mgc.removeChangeListener(listener);
+        mgc.setProperty("a", "2");
+
+        assertEquals(1, all.size());
+        assertEquals(Collections.singleton("a"), all.get(0).getAddedKeys());
+    }
+
+    @Test
+    public void testChangeListenerNullValue() throws Exception {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("a", "1");
+        mgc.setChangeExecutor(DIRECT);
+        mgc.addChangeListener(new Collector(all));
+        mgc.setProperty("b", null);
+        assertTrue(all.isEmpty());
+
+        mgc.setProperty("a", null);
+        assertEquals(1, all.size());
+        assertEquals(Collections.singleton("a"), all.get(0).getRemovedKeys());
+        assertEquals("1", all.get(0).getOldValue("a"));
+
+        mgc.setProperty("a", "2");
+        assertEquals(2, all.size());
+        assertEquals(Collections.singleton("a"), all.get(1).getAddedKeys());
+    }
+
+    /**
+     * Sammelt die Ereignisse.
+     */
+    private static final class Collector implements ConfigChangeListener {
+
+        private final List<ConfigChangeEvent> events;
+
+        private Collector(final List<ConfigChangeEvent> _events) {
+            events = _events;
+        }
+
+        public void configurationChanged(final ConfigChangeEvent event) {
+            events.add(event);
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link ConfigEvents}. Die Klassen von JFR werden über
+ * Reflection angesprochen, da die Tests für Java 8 übersetzt werden. Ohne
+ * JFR wird der Test übersprungen.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class ConfigEventsTest {
+
+    @Test
+    public void testConfigEvents() throws Exception {
+        Class<?> recordingClass = null;
+        try {
+            recordingClass = Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException ex) {
+            Assume.assumeNoException(ex);
+        }
+        assertFalse(ConfigEvents.lookupsEnabled);
+
+        File file = File.createTempFile("glueconfigevents", ".properties");
+        File dump = File.createTempFile("glueconfigevents", ".jfr");
+        FileUtils.writeStringToFile(file, "a = 1\nb = ${a}\n", "UTF-8");
+        long length = file.length();
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        Object recording =
+                recordingClass.getDeclaredConstructor().newInstance();
+        try {
+            PropertiesGlueConfig config =
+                    new PropertiesGlueConfig(file.toURI().toURL());
+            combined.addConfig(config);
+
+            for (String name : new String[] { "Load", "Save",
+                    "Interpolation", "SlowLookup" }) {
+                Object settings = invoke(recording, "enable",
+                    "de.awtools.config." + name);
+                invoke(settings, "withoutThreshold");
+            }
+            invoke(recording, "start");
+            assertTrue(ConfigEvents.lookupsEnabled);
+
+            combined.load();
+            config.load();
+            GlueConfig interpolated = config.interpolatedConfiguration();
+            assertEquals("1", interpolated.getString("b"));
+            config.setProperty("c", "3");
+            config.save();
+            for (int index = 0; index < 10000; index++) {
+                assertEquals("1", config.getString("a"));
+            }
+
+            invoke(recording, "stop");
+            assertFalse(ConfigEvents.lookupsEnabled);
+            invoke(recording, "dump", dump.toPath());
+        } finally {
+            invoke(recording, "close");
+            file.delete();
+        }
+
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        List<?> events = (List<?>) Class.forName(
+            "jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents",
+            Path.class).invoke(null, dump.toPath());
+        dump.delete();
+        String source = "PropertiesGlueConfig[" + file.toURI().toURL() + "]";
+        for (Object event : events) {
+            String name = (String) invoke(invoke(event, "getEventType"),
+                "getName");
+            Integer count = counts.get(name);
+            counts.put(name, Integer.valueOf((count == null) ? 1 : count + 1));
+            if (name.equals("de.awtools.config.Load")) {
+                boolean changed =
+                        (Boolean) invoke(event, "getValue", "changed");
+                long bytes = (Long) invoke(event, "getValue", "bytes");
+                if (combined.toString().equals(
+                        invoke(event, "getValue", "source"))) {
+                    // Die Summe über alle Konfigurationen.
+                    assertEquals(length, bytes);
+                } else {
+                    assertEquals(source, invoke(event, "getValue", "source"));
+                    // Eine frisch geschriebene Datei wird trotzdem gelesen.
+                    assertTrue(bytes == length || (!changed && bytes == 0));
+                }
+            } else if (name.equals("de.awtools.config.Save")) {
+                assertEquals(file.getPath(),
+                    invoke(event, "getValue", "source"));
+            } else if (name.equals("de.awtools.config.Interpolation")) {
+                assertEquals(2, invoke(event, "getValue", "keys"));
+            } else if (name.equals("de.awtools.config.SlowLookup")) {
+                assertEquals("a", invoke(event, "getValue", "key"));
+            }
+        }
+        assertEquals(Integer.valueOf(3), counts.get("de.awtools.config.Load"));
+        assertEquals(Integer.valueOf(1), counts.get("de.awtools.config.Save"));
+        assertEquals(Integer.valueOf(1),
+            counts.get("de.awtools.config.Interpolation"));
+        assertTrue(counts.containsKey("de.awtools.config.SlowLookup"));
+    }
+
+    @Test
+    public void testConfigEventsWithoutRecording() throws Exception {
+        assertFalse(ConfigEvents.lookupsEnabled);
+        Object event = ConfigEvents.LOAD.begin();
+        ConfigEvents.LOAD.commit(event, "test", Long.valueOf(0),
+            Boolean.FALSE);
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("a", "1");
+        assertEquals("1", config.getString("a"));
+    }
+
+    /**
+     * Ruft eine öffentliche Methode über Reflection auf.
+     *
+     * @param target Das Objekt.
+     * @param name Der Name der Methode.
+     * @param args Die Argumente. Die Typen der Parameter müssen den Klassen
+     *     der Argumente entsprechen.
+     * @return Das Ergebnis.
+     * @throws Exception Fehler beim Aufruf.
+     */
+    private static Object invoke(final Object target, final String name,
+        final Object... args) throws Exception {
+
+        // Nur Methoden öffentlicher Klassen lassen sich aufrufen.
+        Class<?> type = target.getClass();
+        while (!Modifier.isPublic(type.getModifiers())) {
+            type = type.getSuperclass();
+        }
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)
+                    && method.getParameterTypes().length == args.length
+                    && (args.length == 0
+                        || method.getParameterTypes()[0].isInstance(args[0]))) {
+                return method.invoke(target, args);
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+}
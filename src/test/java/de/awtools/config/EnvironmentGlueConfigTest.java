@@ -0,0 +1,134 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link EnvironmentGlueConfig}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class EnvironmentGlueConfigTest {
+
+    @Test
+    public void testEnvironmentGlueConfigRelaxedNames() {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("DB_POOL_SIZE", "10");
+        env.put("db_pool_size", "20");
+        env.put("JAVA_HOME", "/opt/java");
+        env.put("java.home", "/usr/lib/jvm");
+
+        EnvironmentGlueConfig config = new EnvironmentGlueConfig(env);
+        assertEquals(10, config.getInt("DB_POOL_SIZE"));
+        assertEquals(20, config.getInt("db_pool_size"));
+        assertEquals(10, config.getInt("db.pool.size"));
+        assertEquals("/opt/java", config.getString("JAVA_HOME"));
+        assertEquals("/usr/lib/jvm", config.getString("java.home"));
+        assertNull(config.getString("DB.POOL.SIZE"));
+        assertEquals("10", config.subset("db.pool.").getString("size"));
+
+        // Die Aliase dienen nur der Suche.
+        assertTrue(config.containsKey("db.pool.size"));
+        assertEquals(4, config.size());
+        assertEquals(env, config.asMap());
+        Set<String> keys = new HashSet<String>();
+        for (Iterator<String> i = config.getKeyIterator(); i.hasNext();) {
+            keys.add(i.next());
+        }
+        assertEquals(env.keySet(), keys);
+        assertEquals("db.pool.size",
+            EnvironmentGlueConfig.relaxedName("DB_POOL_SIZE"));
+    }
+
+    @Test
+    public void testEnvironmentGlueConfigLoad() throws IOException {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("APP_TIMEOUT", "1000");
+        EnvironmentGlueConfig config = new EnvironmentGlueConfig(env);
+        IntProperty timeout = config.intHandle("app.timeout", -1);
+        assertEquals(1000, timeout.getAsInt());
+
+        env.put("APP_TIMEOUT", "2000");
+        assertEquals(1000, config.getInt("app.timeout"));
+        config.load();
+        assertEquals(2000, config.getInt("app.timeout"));
+        assertEquals(2000, timeout.getAsInt());
+
+        env.remove("APP_TIMEOUT");
+        config.load();
+        assertFalse(config.containsKey("app.timeout"));
+        assertEquals(-1, timeout.getAsInt());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEnvironmentGlueConfigSetProperty() {
+        new EnvironmentGlueConfig().setProperty("key", "value");
+    }
+
+    @Test
+    public void testEnvironmentGlueConfigCombined() {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("TEST_INT_10", "11");
+        env.put("TEST_INT", "12");
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new EnvironmentGlueConfig(env));
+        combined.addConfig(new MapGlueConfig(
+            Collections.singletonMap("test.int.10", "10")));
+        assertEquals(11, combined.getInt("test.int.10"));
+        assertTrue(combined.containsKey("TEST_INT_10"));
+        assertTrue(combined.containsKey("test.int"));
+        assertEquals(3, combined.size());
+        assertEquals("11", combined.asMap().get("test.int.10"));
+        assertFalse(combined.asMap().containsKey("test.int"));
+
+        // Im kompilierten Modus gilt dieselbe Rangfolge.
+        combined.setCompiled(true);
+        assertEquals(11, combined.getInt("test.int.10"));
+        assertTrue(combined.containsKey("test.int"));
+        assertEquals(3, combined.size());
+
+        EnvironmentGlueConfig system = new EnvironmentGlueConfig();
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            assertEquals(entry.getValue(), system.getString(entry.getKey()));
+        }
+    }
+
+}
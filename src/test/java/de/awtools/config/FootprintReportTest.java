@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link FootprintReport}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class FootprintReportTest {
+
+    @Test
+    public void testFootprintReport() {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new MapGlueConfig(properties(100)));
+        combined.addConfig(new MapGlueConfig(properties(100)));
+
+        // Gleiche Strings der beiden Konfigurationen sind eine Instanz.
+        List<GlueConfig> layers = combined.layers();
+        assertSame(layers.get(0).getString("footprint.key.1"),
+            layers.get(1).getString("footprint.key.1"));
+
+        FootprintReport report = combined.footprint();
+        assertEquals(2, report.getLayers().size());
+        FootprintReport.Layer first = report.getLayers().get(0);
+        FootprintReport.Layer second = report.getLayers().get(1);
+        assertEquals(100, first.getEntries());
+        assertEquals(layers.get(0).toString(), first.getName());
+
+        // 100 Schlüssel und ein Wert, 99 Werte sind Duplikate.
+        long value = StringPool.sizeOf("true");
+        long bytes = value;
+        for (int index = 0; index < 100; index++) {
+            bytes += StringPool.sizeOf("footprint.key." + index);
+        }
+        assertEquals(bytes, first.getBytes());
+        assertEquals(99 * value, first.getSavedBytes());
+        assertEquals(0, second.getBytes());
+        assertEquals(bytes + 99 * value, second.getSavedBytes());
+        assertEquals(first.getBytes(), report.getBytes());
+        assertEquals(first.getSavedBytes() + second.getSavedBytes(),
+            report.getSavedBytes());
+    }
+
+    @Test
+    public void testFootprintReportInterpolation() {
+        Map<String, String> properties = properties(10);
+        properties.put("footprint.ref", "${footprint.key.1}");
+        MapGlueConfig config = new MapGlueConfig(properties);
+        GlueConfig interpolated = config.interpolatedConfiguration();
+        assertSame(config.getString("footprint.key.1"),
+            interpolated.getString("footprint.ref"));
+        assertSame(config.getString("footprint.key.2"),
+            interpolated.getString("footprint.key.2"));
+    }
+
+    /**
+     * Erzeugt Eigenschaften mit eigenen String-Instanzen.
+     *
+     * @param count Die Anzahl der Eigenschaften.
+     * @return Die Eigenschaften.
+     */
+    private static Map<String, String> properties(final int count) {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int index = 0; index < count; index++) {
+            properties.put("footprint.key." + index, new String("true"));
+        }
+        return properties;
+    }
+
+}
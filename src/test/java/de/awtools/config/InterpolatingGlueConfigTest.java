@@ -0,0 +1,199 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link InterpolatingGlueConfig}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class InterpolatingGlueConfigTest {
+
+    @Test
+    public void testInterpolatingGlueConfig() throws IOException {
+        URL resource = getClass().getResource(
+            "/de/awtools/config/test.properties");
+        PropertiesGlueConfig config = new PropertiesGlueConfig(resource);
+        config.load();
+
+        GlueConfig view = config.interpolatedView();
+        assertSame(view, config.interpolatedView());
+        assertEquals("Andre", view.getString("value1"));
+        assertEquals("Andre_Winkler", view.getString("value2"));
+        assertEquals(10, view.getInt("test.int.10"));
+        assertNull(view.getString("undefined"));
+        assertEquals("${value1}_Winkler", config.getString("value2"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigFollowsChanges() {
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("host", "localhost");
+        config.setProperty("port", "8080");
+        config.setProperty("url", "http://${host}:${port}/${path}");
+        config.setProperty("login", "${url}/login");
+
+        GlueConfig view = new InterpolatingGlueConfig(config);
+        assertEquals("http://localhost:8080/${path}/login",
+            view.getString("login"));
+
+        // Indirekte Abhängigkeit: login -> url -> host
+        config.setProperty("host", "example.org");
+        assertEquals("http://example.org:8080/${path}/login",
+            view.getString("login"));
+
+        // Ein bisher unbekannter Schlüssel wird nachgetragen.
+        config.setProperty("path", "app");
+        assertEquals("http://example.org:8080/app", view.getString("url"));
+        assertEquals("http://example.org:8080/app/login",
+            view.getString("login"));
+
+        // Änderungen über die Sicht landen in der Konfiguration.
+        view.setProperty("port", "9090");
+        assertEquals("9090", config.getString("port"));
+        assertEquals("http://example.org:9090/app/login",
+            view.getString("login"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigCombined() {
+        MapGlueConfig first = new MapGlueConfig();
+        MapGlueConfig second = new MapGlueConfig();
+        second.setProperty("name", "Winkler");
+        second.setProperty("greeting", "Hallo ${name}");
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(first);
+        combined.addConfig(second);
+
+        GlueConfig view = combined.interpolatedView();
+        assertEquals("Hallo Winkler", view.getString("greeting"));
+        first.setProperty("name", "Andre");
+        assertEquals("Hallo Andre", view.getString("greeting"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigCycle() {
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("a", "${b}");
+        config.setProperty("b", "${a}");
+        GlueConfig view = config.interpolatedView();
+        assertEquals("${a}", view.getString("a"));
+        assertEquals("${b}", view.getString("b"));
+
+        config.setProperty("b", "B");
+        assertEquals("B", view.getString("a"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigCycleCached() {
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("a", "${b}");
+        config.setProperty("b", "${c}");
+        config.setProperty("c", "${a}");
+        InterpolatingGlueConfig view = new InterpolatingGlueConfig(config);
+        String value = view.getString("a");
+        assertEquals("${a}", value);
+        assertSame(value, view.getString("a"));
+
+        // Eine Änderung im Zyklus verwirft den zwischengespeicherten Wert.
+        config.setProperty("c", "C");
+        assertEquals("C", view.getString("a"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigClose() {
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("name", "Andre");
+        InterpolatingGlueConfig view = new InterpolatingGlueConfig(config);
+        view.setChangeExecutor(new Executor() {
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        final List<ConfigChangeEvent> events =
+            new ArrayList<ConfigChangeEvent>();
+        view.addChangeListener(new ConfigChangeListener() {
+            public void configurationChanged(final ConfigChangeEvent event) {
+                events.add(event);
+            }
+        });
+        config.setProperty("name", "Winkler");
+        assertEquals(1, events.size());
+
+        view.close();
+        config.setProperty("name", "Andre");
+        assertEquals(1, events.size());
+        assertEquals("Andre", view.getString("name"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigDeepChain() {
+        MapGlueConfig config = new MapGlueConfig();
+        int hops = 10000;
+        for (int i = 0; i < hops; i++) {
+            config.setProperty("key" + i, "${key" + (i + 1) + "}");
+        }
+        config.setProperty("key" + hops, "Ende");
+        InterpolatingGlueConfig view = new InterpolatingGlueConfig(config);
+        assertEquals("Ende", view.getString("key0"));
+        assertEquals("Ende", view.getString("key5000"));
+
+        // Ein Zyklus am Ende der Kette.
+        config.setProperty("key" + hops, "${key0}");
+        assertEquals("${key0}", view.getString("key0"));
+    }
+
+    @Test
+    public void testInterpolatingGlueConfigNotRetained() {
+        MapGlueConfig config = new MapGlueConfig();
+        config.setProperty("name", "Andre");
+        InterpolatingGlueConfig view = new InterpolatingGlueConfig(config);
+        assertEquals("Andre", view.getString("name"));
+        WeakReference<InterpolatingGlueConfig> reference =
+            new WeakReference<InterpolatingGlueConfig>(view);
+        view = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(reference.get());
+        config.setProperty("name", "Winkler");
+    }
+
+}
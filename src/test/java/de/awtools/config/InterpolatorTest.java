@@ -0,0 +1,109 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link Interpolator}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class InterpolatorTest {
+
+    @Test
+    public void testInterpolatorNestedChain() {
+        // Die Reihenfolge der Schlüssel darf keine Rolle spielen.
+        Map<String, String> properties = new LinkedHashMap<String, String>();
+        properties.put("a", "${b}-a");
+        properties.put("b", "${c}-b");
+        properties.put("c", "${d}-c");
+        properties.put("d", "d");
+        properties.put("e", "${a}|${a}|${unknown}");
+
+        Map<String, String> result = Interpolator.interpolate(properties);
+        assertEquals("d-c-b-a", result.get("a"));
+        assertEquals("d-c-b", result.get("b"));
+        assertEquals("d-c", result.get("c"));
+        assertEquals("d", result.get("d"));
+        assertEquals("d-c-b-a|d-c-b-a|${unknown}", result.get("e"));
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    public void testInterpolatorLongChain() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("key0", "x");
+        for (int i = 1; i < 20000; i++) {
+            properties.put("key" + i, "${key" + (i - 1) + "}");
+        }
+        Map<String, String> result = Interpolator.interpolate(properties);
+        assertEquals("x", result.get("key19999"));
+    }
+
+    @Test
+    public void testInterpolatorCycle() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("self", "[${self}]");
+        properties.put("a", "${b}");
+        properties.put("b", "${a}");
+        properties.put("c", "${a}");
+
+        Map<String, String> result = Interpolator.interpolate(properties);
+        assertEquals("[${self}]", result.get("self"));
+        // Der Zyklus bleibt als Text stehen, je nach Einstiegspunkt.
+        String a = result.get("a");
+        String b = result.get("b");
+        assertEquals(true, "${a}".equals(a) && "${a}".equals(b)
+            || "${b}".equals(a) && "${b}".equals(b));
+        assertEquals(a, result.get("c"));
+    }
+
+    @Test
+    public void testInterpolatorParse() {
+        assertNull(Interpolator.Template.parse("plain"));
+        assertNull(Interpolator.Template.parse("open ${never closed"));
+        assertNull(Interpolator.Template.parse(null));
+
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("a", "A");
+        values.put("b", "${a}");
+        assertEquals("xAy${b", Interpolator.replace("x${a}y${b", values));
+        assertEquals("${a}", Interpolator.replace("${b}", values));
+        assertEquals("${}", Interpolator.replace("${}", values));
+        assertEquals("AA", AbstractGlueConfig.replacePlaceholder("${a}${a}",
+            values));
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link KeyFilter}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class KeyFilterTest {
+
+    @Test
+    public void testKeyFilter() {
+        List<String> keys = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) {
+            keys.add("db.pool." + i + ".size");
+        }
+        KeyFilter filter = new KeyFilter(keys.iterator(), keys.size());
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("db.pool." + i + ".timeout")) {
+                falsePositives++;
+            }
+        }
+        assertTrue("False positives: " + falsePositives, falsePositives < 500);
+    }
+
+    @Test
+    public void testKeyFilterEmpty() {
+        List<String> keys = Collections.emptyList();
+        KeyFilter filter = new KeyFilter(keys.iterator(), 0);
+        assertFalse(filter.mightContain("a"));
+        assertFalse(filter.mightContain(""));
+    }
+
+}
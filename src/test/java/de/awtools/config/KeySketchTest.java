@@ -0,0 +1,79 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link KeySketch}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class KeySketchTest {
+
+    @Test
+    public void testKeySketch() {
+        KeySketch sketch = new KeySketch(256, 4);
+        for (int index = 0; index < 5000; index++) {
+            String key = "test.key." + index;
+            sketch.increment(key);
+            sketch.offer(key);
+            if (index % 10 == 0) {
+                for (int hot = 0; hot < 4; hot++) {
+                    String hotKey = "test.hot." + hot;
+                    for (int count = 0; count <= hot; count++) {
+                        sketch.increment(hotKey);
+                    }
+                    sketch.offer(hotKey);
+                }
+            }
+        }
+
+        for (int hot = 0; hot < 4; hot++) {
+            assertTrue(sketch.estimate("test.hot." + hot) >= 500 * (hot + 1));
+        }
+        assertTrue(sketch.estimate("test.key.1") >= 1);
+
+        Map<String, Long> top = sketch.top();
+        assertEquals(4, top.size());
+        assertEquals("test.hot.3", top.keySet().iterator().next());
+        for (String key : top.keySet()) {
+            assertTrue(key, key.startsWith("test.hot."));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeySketchWidth() {
+        new KeySketch(100, 4);
+    }
+
+}
@@ -27,10 +27,16 @@ package de.awtools.config;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 
 import org.junit.Test;
 
@@ -49,6 +55,22 @@ public class MapGlueConfigTest {
         assertTrue(mgc.getProperties().isEmpty());
     }
 
+    @Test
+    public void testMapGlueConfigCompact() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("test.a", "1");
+        properties.put("test.b", "2");
+        MapGlueConfig mgc = MapGlueConfig.compact(properties);
+        assertEquals(properties, mgc.asMap());
+        assertEquals(1, mgc.getInt("test.a"));
+        assertFalse(mgc.containsKey("test.c"));
+
+        mgc.setProperty("test.c", "3");
+        assertEquals(3, mgc.getInt("test.c"));
+        assertTrue(mgc.asMap() instanceof CompactMap);
+        assertEquals(3, mgc.size());
+    }
+
     @Test
     public void testMapGlueConfigGetterSetter() {
         MapGlueConfig mgc = new MapGlueConfig();
@@ -56,6 +78,97 @@ public class MapGlueConfigTest {
         assertEquals("Andre Winkler", mgc.getProperty("test.winkler"));
     }
 
+    @Test
+    public void testMapGlueConfigTypedValues() {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("test.int", "10");
+        assertEquals(10, mgc.getInt("test.int"));
+        assertEquals(10L, mgc.getLong("test.int"));
+
+        mgc.setProperty("test.int", "20");
+        assertEquals(20, mgc.getInt("test.int"));
+        assertEquals(20L, mgc.getLong("test.int"));
+
+        mgc.setProperty("test.int", "zwanzig");
+        assertEquals(5, mgc.getInt("test.int", 5));
+        assertEquals(5, mgc.getInt("test.int", 5));
+        assertEquals(6L, mgc.getLong("test.int", 6));
+
+        mgc.setProperty("test.bool", "true");
+        assertTrue(mgc.getBool("test.bool"));
+        mgc.setProperty("test.bool", "false");
+        assertFalse(mgc.getBool("test.bool", true));
+    }
+
+    @Test
+    public void testMapGlueConfigAsMap() throws IOException {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("a", "1");
+        Map<String, String> map = mgc.asMap();
+        assertSame(map, mgc.asMap());
+        assertEquals("1", map.get("a"));
+
+        // Die Momentaufnahme ändert sich nicht mehr.
+        mgc.setProperty("a", "2");
+        assertEquals("1", map.get("a"));
+        assertEquals("2", mgc.asMap().get("a"));
+        try {
+            map.put("b", "3");
+            fail("UnsupportedOperationException expected!");
+        } catch (UnsupportedOperationException ex) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testMapGlueConfigAsProperties() throws IOException {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("a", "1");
+        mgc.setProperty("b", "2");
+        Properties properties = mgc.asProperties();
+        assertEquals("1", properties.getProperty("a"));
+        assertEquals("x", properties.getProperty("c", "x"));
+        assertEquals(2, properties.size());
+        assertEquals(mgc.getProperties(), properties);
+
+        StringWriter out = new StringWriter();
+        properties.store(out, null);
+        Properties copy = new Properties();
+        copy.load(new StringReader(out.toString()));
+        assertEquals(copy, properties);
+
+        try {
+            properties.setProperty("c", "3");
+            fail("UnsupportedOperationException expected!");
+        } catch (UnsupportedOperationException ex) {
+            // ok
+        }
+        try {
+            properties.clear();
+            fail("UnsupportedOperationException expected!");
+        } catch (UnsupportedOperationException ex) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testMapGlueConfigNullValue() {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("a", "1");
+        mgc.setProperty("x", null);
+        assertEquals(1, mgc.getProperties().size());
+        assertEquals(1, mgc.size());
+        assertFalse(mgc.containsKey("x"));
+
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("a", "1");
+        properties.put("x", null);
+        assertEquals(1, new MapGlueConfig(properties).size());
+        MapGlueConfig compact = MapGlueConfig.compact(properties);
+        assertEquals(1, compact.getProperties().size());
+        assertFalse(compact.asMap().containsKey("x"));
+    }
+
     @Test
     public void testMapGlueConfigLoadSave() throws IOException {
         MapGlueConfig mgc = new MapGlueConfig();
@@ -0,0 +1,271 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testet die Klassen {@link MappedGlueConfig} und
+ * {@link MappedGlueConfigWriter}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class MappedGlueConfigTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("mappedglueconfigtest", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testMappedGlueConfigFromProperties() throws Exception {
+        URL url = MappedGlueConfigTest.class.getResource("test.properties");
+        MappedGlueConfigWriter.write(url, file);
+
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+
+        Map<String, String> expected = PropertiesParser.parse(url);
+        assertEquals(expected.size(), config.getEntryCount());
+        assertEquals(expected.size(), config.size());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), config.getString(entry.getKey()));
+        }
+        assertNull(config.getString("undefined.key"));
+        assertEquals(10, config.getInt("test.int.10", -1));
+    }
+
+    @Test
+    public void testMappedGlueConfigSortedKeys() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            properties.put("key." + i, "value." + i);
+        }
+        properties.put("umlaut.äöü", "ß€");
+        properties.put("leer", "");
+        MappedGlueConfigWriter.write(properties, file);
+
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+        assertEquals("ß€", config.getString("umlaut.äöü"));
+        assertNull(config.getString("umlaut.äö"));
+        assertEquals("", config.getString("leer"));
+        assertEquals("value.999", config.getString("key.999"));
+        assertNull(config.getString("key.1000"));
+
+        List<String> keys = new ArrayList<String>();
+        for (Iterator<String> i = config.getKeyIterator(); i.hasNext();) {
+            keys.add(i.next());
+        }
+        assertEquals(new ArrayList<String>(
+            new TreeMap<String, String>(properties).keySet()), keys);
+    }
+
+    @Test
+    public void testMappedGlueConfigSnapshotView() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int i = 0; i < 100; i++) {
+            properties.put("key." + i, "value." + i);
+        }
+        properties.put("ohne.wert", null);
+        MappedGlueConfigWriter.write(properties, file);
+        properties.remove("ohne.wert");
+
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+        Map<String, String> view = config.asMap();
+        assertEquals(properties, view);
+        assertEquals(properties, new HashMap<String, String>(view));
+        assertSame(view, config.asMap());
+        assertEquals("value.42", view.get("key.42"));
+        assertFalse(view.containsKey("ohne.wert"));
+        assertEquals(100, config.getProperties().size());
+        assertEquals(10, config.subset("key.4").size());
+
+        config.load();
+        assertNotSame(view, config.asMap());
+        assertEquals(properties, config.asMap());
+    }
+
+    @Test
+    public void testMappedGlueConfigFromGlueConfig() throws Exception {
+        MapGlueConfig first = new MapGlueConfig();
+        first.setProperty("a", "1");
+        MapGlueConfig second = new MapGlueConfig();
+        second.setProperty("a", "2");
+        second.setProperty("b", "3");
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(first);
+        combined.addConfig(second);
+        MappedGlueConfigWriter.write(combined, file);
+
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+        assertEquals(2, config.getEntryCount());
+        assertEquals("1", config.getString("a"));
+        assertEquals("3", config.getString("b"));
+
+        // Neu schreiben und laden ersetzt den Stand.
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("c", "4");
+        MappedGlueConfigWriter.write(properties, file);
+        config.load();
+        assertEquals(1, config.getEntryCount());
+        assertNull(config.getString("a"));
+        assertEquals("4", config.getString("c"));
+    }
+
+    @Test
+    public void testMappedGlueConfigIsReadOnly() throws Exception {
+        MappedGlueConfigWriter.write(new HashMap<String, String>(), file);
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+        assertEquals(0, config.getEntryCount());
+        assertFalse(config.getKeyIterator().hasNext());
+        try {
+            config.setProperty("a", "b");
+            fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException ex) {
+            // ok
+        }
+        try {
+            config.save();
+            fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException ex) {
+            // ok
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMappedGlueConfigInvalidFile() throws Exception {
+        URL url = MappedGlueConfigTest.class.getResource("test.properties");
+        new MappedGlueConfig(new File(url.toURI())).load();
+    }
+
+    @Test
+    public void testMappedGlueConfigCorruptFile() throws Exception {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("a", "1");
+        properties.put("b", "2");
+        MappedGlueConfigWriter.write(properties, file);
+        MappedGlueConfig config = new MappedGlueConfig(file);
+        config.load();
+        int slots = readInt(MappedGlueConfig.HEADER_SIZE - 4);
+        int start = MappedGlueConfig.HEADER_SIZE + 8 * slots;
+
+        // Kein freier Slot: find() würde endlos suchen. Die Datei wird
+        // vorher ersetzt, die eingeblendete Datei bleibt unverändert.
+        MappedGlueConfigWriter.write(properties, file);
+        for (int slot = 0; slot < slots; slot++) {
+            writeInt(MappedGlueConfig.HEADER_SIZE + 8 * slot + 4, start);
+        }
+        assertCorrupt(config);
+
+        // Ein Slot zeigt in die Mitte eines Eintrags.
+        MappedGlueConfigWriter.write(properties, file);
+        for (int slot = 0; slot < slots; slot++) {
+            int position = MappedGlueConfig.HEADER_SIZE + 8 * slot + 4;
+            if (readInt(position) != 0) {
+                writeInt(position, readInt(position) + 2);
+                break;
+            }
+        }
+        assertCorrupt(config);
+
+        // Eine Länge reicht über das Ende der Datei hinaus.
+        MappedGlueConfigWriter.write(properties, file);
+        writeInt(start, Integer.MAX_VALUE - 2);
+        assertCorrupt(config);
+
+        MappedGlueConfigWriter.write(properties, file);
+        writeInt(start + 5, 1000);
+        assertCorrupt(config);
+
+        // Die zuletzt geladene Datei bleibt gültig.
+        assertEquals("1", config.getString("a"));
+        assertEquals("2", config.getString("b"));
+    }
+
+    private void assertCorrupt(final MappedGlueConfig config) {
+        try {
+            config.load();
+            fail("Corrupt file accepted.");
+        } catch (IOException ex) {
+            // ok
+        }
+    }
+
+    private int readInt(final long position) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            raf.seek(position);
+            return raf.readInt();
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void writeInt(final long position, final int value)
+        throws IOException {
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(position);
+            raf.writeInt(value);
+        } finally {
+            raf.close();
+        }
+    }
+
+}
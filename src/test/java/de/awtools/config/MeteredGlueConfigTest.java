@@ -0,0 +1,181 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link MeteredGlueConfig}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class MeteredGlueConfigTest {
+
+    @Test
+    public void testMeteredGlueConfigCounters() {
+        Map<String, String> properties = new HashMap<String, String>();
+        for (int index = 0; index < 100; index++) {
+            properties.put("test.key." + index, String.valueOf(index));
+        }
+        MeteredGlueConfig metered =
+                new MeteredGlueConfig(new MapGlueConfig(properties), 1);
+        for (int index = 0; index < 1000; index++) {
+            assertEquals(7, metered.getInt("test.key.7"));
+        }
+        for (int index = 0; index < 100; index++) {
+            metered.getString("test.key." + index);
+            metered.getString("test.missing." + index);
+        }
+
+        LookupMetrics metrics = metered.metrics();
+        assertEquals(1200, metrics.getLookups());
+        assertEquals(100, metrics.getMisses());
+        assertEquals(100.0 / 1200, metrics.getMissRate(), 0.0001);
+
+        Iterator<Map.Entry<String, Long>> hot =
+                metrics.getHotKeys().entrySet().iterator();
+        Map.Entry<String, Long> hottest = hot.next();
+        assertEquals("test.key.7", hottest.getKey());
+        assertTrue(hottest.getValue().longValue() >= 1001);
+        assertTrue(metrics.getHotKeys().size() <= 32);
+
+        long measured = 0;
+        for (long count : metrics.getLatencyHistogram()) {
+            measured += count;
+        }
+        assertEquals(1200, measured);
+        assertTrue(metrics.getLatencyQuantile(0.5) > 0);
+        assertTrue(metrics.getLatencyQuantile(0.5)
+            <= metrics.getLatencyQuantile(0.99));
+        assertTrue(metrics.getLayerHits().isEmpty());
+    }
+
+    @Test
+    public void testMeteredGlueConfigLayers() {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        MapGlueConfig first = new MapGlueConfig(
+            Collections.singletonMap("test.first", "1"));
+        MapGlueConfig second = new MapGlueConfig(
+            Collections.singletonMap("test.second", "2"));
+        combined.addConfig(first);
+        combined.addConfig(second);
+
+        MeteredGlueConfig metered = new MeteredGlueConfig(combined);
+        assertEquals(1, metered.getInt("test.first"));
+        assertEquals(2, metered.getInt("test.second"));
+        assertEquals(2, metered.getInt("test.second"));
+        assertEquals(0, metered.getInt("test.undefined"));
+        assertEquals(0, metered.getInt("test.undefined"));
+
+        LookupMetrics metrics = metered.metrics();
+        Iterator<Long> hits = metrics.getLayerHits().values().iterator();
+        assertEquals(1, hits.next().longValue());
+        assertEquals(2, hits.next().longValue());
+        assertEquals(2, metrics.getLayerMisses());
+        assertTrue(metrics.getLayerHits().containsKey(first.toString()));
+    }
+
+    @Test
+    public void testMeteredGlueConfigChanges() {
+        MapGlueConfig source = new MapGlueConfig();
+        MeteredGlueConfig metered = new MeteredGlueConfig(source);
+        IntProperty handle = metered.intHandle("test.int", -1);
+        assertEquals(-1, handle.getAsInt());
+
+        source.setProperty("test.int", "5");
+        assertEquals(5, handle.getAsInt());
+        metered.setProperty("test.int", "6");
+        assertEquals(6, source.getInt("test.int"));
+        assertEquals(6, handle.getAsInt());
+
+        // Die Momentaufnahme zählt keine Zugriffe.
+        long lookups = metered.metrics().getLookups();
+        assertEquals(source.asMap(), metered.asMap());
+        assertEquals(lookups, metered.metrics().getLookups());
+    }
+
+    @Test
+    public void testMeteredGlueConfigClose() {
+        final MapGlueConfig map = new MapGlueConfig();
+        map.setChangeExecutor(new Executor() {
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        final List<ConfigChangeListener> listeners =
+            new ArrayList<ConfigChangeListener>();
+        // Eine Quelle, die keine AbstractGlueConfig ist.
+        GlueConfig source = (GlueConfig) Proxy.newProxyInstance(
+            GlueConfig.class.getClassLoader(),
+            new Class<?>[] { GlueConfig.class }, new InvocationHandler() {
+                public Object invoke(final Object proxy, final Method method,
+                    final Object[] args) throws Throwable {
+
+                    if (method.getName().equals("addChangeListener")) {
+                        listeners.add((ConfigChangeListener) args[0]);
+                    } else if (method.getName().equals(
+                        "removeChangeListener")) {
+
+                        listeners.remove(args[0]);
+                    }
+                    return method.invoke(map, args);
+                }
+            });
+
+        MeteredGlueConfig metered = new MeteredGlueConfig(source);
+        IntProperty handle = metered.intHandle("test.int", -1);
+        assertEquals(1, listeners.size());
+        map.setProperty("test.int", "5");
+        assertEquals(5, handle.getAsInt());
+
+        metered.close();
+        assertTrue(listeners.isEmpty());
+        map.setProperty("test.int", "7");
+        assertEquals(5, handle.getAsInt());
+        assertEquals(7, metered.getInt("test.int"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeteredGlueConfigSampling() {
+        new MeteredGlueConfig(new MapGlueConfig(), 3);
+    }
+
+}
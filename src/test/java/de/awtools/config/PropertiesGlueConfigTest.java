@@ -29,8 +29,18 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Before;
@@ -151,6 +161,257 @@ public class PropertiesGlueConfigTest {
         Assert.assertEquals("Lars", config.getProperty("test.string.undefined", "Lars"));
     }
 
+    @Test
+    public void testPropertiesGlueConfigConcurrentReload() throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger misses = new AtomicInteger();
+        Thread[] readers = new Thread[4];
+        for (int index = 0; index < readers.length; index++) {
+            readers[index] = new Thread() {
+                @Override
+                public void run() {
+                    while (running.get()) {
+                        if (config.getString("test.string.andre") == null) {
+                            misses.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            readers[index].start();
+        }
+
+        try {
+            for (int index = 0; index < 200; index++) {
+                config.load();
+                config.setProperty("test.reload", String.valueOf(index));
+            }
+        } finally {
+            running.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+        Assert.assertEquals(0, misses.get());
+    }
+
+    @Test
+    public void testPropertiesGlueConfigWatching() throws Exception {
+        File file = File.createTempFile("glueconfigwatch", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "watch.value = 1\n", "ISO-8859-1");
+
+        PropertiesGlueConfig watched =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        watched.load();
+        watched.startWatching(50);
+        try {
+            Assert.assertTrue(watched.isWatching());
+            FileUtils.writeStringToFile(file, "watch.value = 2\n", "ISO-8859-1");
+
+            long timeout = System.currentTimeMillis() + 30000;
+            while (watched.getInt("watch.value") != 2
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(2, watched.getInt("watch.value"));
+        } finally {
+            watched.stopWatching();
+        }
+        Assert.assertFalse(watched.isWatching());
+    }
+
+    @Test
+    public void testPropertiesGlueConfigWatchingWriteBehind()
+            throws Exception {
+
+        File file = File.createTempFile("glueconfigwatchwrite", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "value = 0\n", "ISO-8859-1");
+
+        PropertiesGlueConfig config =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        config.load();
+        final List<ConfigChangeEvent> events =
+            Collections.synchronizedList(new ArrayList<ConfigChangeEvent>());
+        config.setChangeExecutor(new Executor() {
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        config.addChangeListener(new ConfigChangeListener() {
+            public void configurationChanged(final ConfigChangeEvent event) {
+                events.add(event);
+            }
+        });
+        config.startWatching(50);
+        config.startWriteBehind(60000);
+        try {
+            config.setProperty("value", "1");
+            config.flush().get(10, TimeUnit.SECONDS);
+            config.setProperty("other", "2");
+            Assert.assertEquals(2, events.size());
+
+            // Der eigene Schreibvorgang lädt nichts neu.
+            Thread.sleep(1000);
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(1, config.getInt("value"));
+            Assert.assertEquals(2, config.getInt("other"));
+
+            // Fremde Änderungen werden weiterhin geladen.
+            FileUtils.writeStringToFile(file, "value = 3\n", "ISO-8859-1");
+            long timeout = System.currentTimeMillis() + 30000;
+            while (config.getInt("value") != 3
+                    && System.currentTimeMillis() < timeout) {
+                Thread.sleep(20);
+            }
+            Assert.assertEquals(3, config.getInt("value"));
+        } finally {
+            config.stopWatching();
+            config.stopWriteBehind().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testPropertiesGlueConfigIncrementalLoad() throws Exception {
+        File file = File.createTempFile("glueconfigreload", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "reload.value = 1\n", "ISO-8859-1");
+        long modified = System.currentTimeMillis() - 10000;
+        file.setLastModified(modified);
+
+        PropertiesGlueConfig reloaded =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        reloaded.load();
+        Map<String, String> loaded = reloaded.asMap();
+        reloaded.load();
+        Assert.assertSame(loaded, reloaded.asMap());
+
+        // Der zuletzt geladene Stand ersetzt die Änderungen.
+        reloaded.setProperty("reload.value", "2");
+        reloaded.load();
+        Assert.assertSame(loaded, reloaded.asMap());
+        Assert.assertEquals(1, reloaded.getInt("reload.value"));
+
+        // Neuer Zeitstempel, gleicher Inhalt.
+        file.setLastModified(modified + 1000);
+        reloaded.load();
+        Assert.assertSame(loaded, reloaded.asMap());
+
+        FileUtils.writeStringToFile(file, "reload.value = 3\n", "ISO-8859-1");
+        reloaded.load();
+        Assert.assertEquals(3, reloaded.getInt("reload.value"));
+
+        // Gleiche Größe und gleicher, aber noch unsicherer Zeitstempel.
+        modified = file.lastModified();
+        FileUtils.writeStringToFile(file, "reload.value = 4\n", "ISO-8859-1");
+        file.setLastModified(modified);
+        reloaded.load();
+        Assert.assertEquals(4, reloaded.getInt("reload.value"));
+    }
+
+    @Test
+    public void testPropertiesGlueConfigBlankValues() throws Exception {
+        File file = File.createTempFile("glueconfigblank", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "a =\nb = 1\nc =  \n",
+            "ISO-8859-1");
+
+        PropertiesGlueConfig blank =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        blank.load();
+        Map<String, String> map = blank.asMap();
+        Assert.assertEquals(1, map.size());
+        Assert.assertFalse(map.containsKey("a"));
+        Assert.assertFalse(map.containsKey("c"));
+        Assert.assertEquals("1", map.get("b"));
+
+        Assert.assertEquals(1, blank.size());
+        Assert.assertFalse(blank.containsKey("a"));
+        Assert.assertTrue(blank.containsKey("b"));
+        Assert.assertFalse(blank.getProperties().containsKey("a"));
+        Assert.assertEquals(1, blank.getProperties().size());
+
+        blank.setProperty("d", "4");
+        blank.setProperty("b", " ");
+        Assert.assertFalse(blank.asMap().containsKey("b"));
+        Assert.assertNull(blank.getString("b"));
+        Assert.assertEquals("4", blank.asMap().get("d"));
+    }
+
+    @Test
+    public void testPropertiesGlueConfigWriteBehind() throws Exception {
+        File file = File.createTempFile("glueconfigwrite", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "write.value = 0\n", "ISO-8859-1");
+
+        PropertiesGlueConfig writing =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        writing.load();
+        writing.startWriteBehind(60000);
+        try {
+            Assert.assertTrue(writing.isWriteBehind());
+            writing.setProperty("write.value", "1");
+            writing.setProperty("write.other", "2");
+            writing.save();
+            Assert.assertEquals("write.value = 0\n",
+                FileUtils.readFileToString(file, "ISO-8859-1"));
+
+            writing.flush().get(10, TimeUnit.SECONDS);
+            PropertiesGlueConfig written =
+                    new PropertiesGlueConfig(file.toURI().toURL());
+            written.load();
+            Assert.assertEquals(1, written.getInt("write.value"));
+            Assert.assertEquals(2, written.getInt("write.other"));
+
+            writing.setProperty("write.value", "3");
+        } finally {
+            writing.stopWriteBehind().get(10, TimeUnit.SECONDS);
+        }
+        Assert.assertFalse(writing.isWriteBehind());
+        PropertiesGlueConfig written =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        written.load();
+        Assert.assertEquals(3, written.getInt("write.value"));
+
+        // Keine temporären Dateien bleiben zurück.
+        String[] temps = file.getParentFile().list();
+        for (String name : temps) {
+            Assert.assertFalse(name, name.startsWith(file.getName())
+                && name.endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    public void testPropertiesFileWriterFlushAfterStop() throws Exception {
+        File file = File.createTempFile("glueconfigstop", "properties");
+        file.deleteOnExit();
+        FileUtils.writeStringToFile(file, "write.value = 0\n", "ISO-8859-1");
+
+        PropertiesGlueConfig writing =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        writing.load();
+        for (int index = 1; index <= 20; index++) {
+            PropertiesFileWriter writer =
+                    new PropertiesFileWriter(writing, file, 60000);
+            writing.setProperty("write.value", String.valueOf(index));
+            writer.schedule();
+            CompletableFuture<Void> stopped = writer.stop();
+            // Direkt nach stop() ist der Schreibvorgang oft noch offen.
+            writer.flush().get(10, TimeUnit.SECONDS);
+            stopped.get(10, TimeUnit.SECONDS);
+
+            // Nach stop() wird im aufrufenden Thread geschrieben.
+            writing.setProperty("write.value", "-" + index);
+            writer.schedule().get(10, TimeUnit.SECONDS);
+            writer.flush().get(10, TimeUnit.SECONDS);
+
+            PropertiesGlueConfig written =
+                    new PropertiesGlueConfig(file.toURI().toURL());
+            written.load();
+            Assert.assertEquals(-index, written.getInt("write.value"));
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         URL testResource = this.getClass().getResource("test.properties");
@@ -0,0 +1,102 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link PropertiesParser} gegen
+ * {@link Properties#load(java.io.InputStream)}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class PropertiesParserTest {
+
+    private static final String[] INPUTS = new String[] {
+        "",
+        "a=b",
+        "a = b\nc : d\ne f\n",
+        "  # Kommentar\n! Kommentar \\\nkey=value",
+        "key\\ with\\ blanks = value with blanks  ",
+        "key\\=a\\:b = c",
+        "tab\\tkey = \\t\\r\\n\\f\\x\\\\",
+        "unicode = \\u00e4\\u00F6\\u00fc",
+        "latin = \u00e4\u00f6\u00fc\u00df",
+        "multi = eins, \\\n        zwei, \\\r\n\tdrei\n",
+        "cr = a\rlf = b\ncrlf = c\r\n",
+        "empty\nempty2 =\nempty3 :   \n",
+        "eof = fortsetzung\\",
+        "double = a\\\\\nnext = b",
+        "dup = 1\ndup = 2",
+        "   \n\t\f\n\r\n  key   =   =value",
+        "key:=value",
+        "cont = a\\\n\nnext = b",
+        "# Kommentar am Ende",
+        "value1 = Andre\nvalue2 = ${value1}_Winkler\n"
+    };
+
+    @Test
+    public void testPropertiesParserLikeProperties() throws Exception {
+        for (String input : INPUTS) {
+            byte[] bytes = input.getBytes("ISO-8859-1");
+            Properties expected = new Properties();
+            expected.load(new ByteArrayInputStream(bytes));
+
+            Map<String, String> expectedMap = new HashMap<String, String>();
+            for (String key : expected.stringPropertyNames()) {
+                expectedMap.put(key, expected.getProperty(key));
+            }
+            assertEquals(input, expectedMap,
+                PropertiesParser.parse(ByteBuffer.wrap(bytes)));
+        }
+    }
+
+    @Test
+    public void testPropertiesParserUrl() throws Exception {
+        URL url = getClass().getResource("test.properties");
+        Map<String, String> map = PropertiesParser.parse(url);
+        assertEquals("${value1}_Winkler", map.get("value2"));
+        assertEquals("c:\\temp", map.get("test.file"));
+        assertEquals(10, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPropertiesParserMalformedUnicode() throws Exception {
+        PropertiesParser.parse(ByteBuffer.wrap(
+            "key = \\u00zz".getBytes("ISO-8859-1")));
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * Testet die Handles {@link IntProperty}, {@link LongProperty} und
+ * {@link BooleanProperty}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class PropertyHandleTest {
+
+    @Test
+    public void testPropertyHandleMapGlueConfig() {
+        MapGlueConfig mgc = new MapGlueConfig();
+        IntProperty size = mgc.intHandle("pool.size", 8);
+        LongProperty timeout = mgc.longHandle("pool.timeout", 100);
+        BooleanProperty enabled = mgc.boolHandle("pool.enabled", false);
+
+        assertEquals("pool.size", size.getKey());
+        assertEquals(8, size.getAsInt());
+        assertEquals(100, timeout.getAsLong());
+        assertFalse(enabled.getAsBoolean());
+
+        mgc.setProperty("pool.size", "16");
+        mgc.setProperty("pool.timeout", "5000");
+        mgc.setProperty("pool.enabled", "true");
+        assertEquals(16, size.getAsInt());
+        assertEquals(5000, timeout.getAsLong());
+        assertTrue(enabled.getAsBoolean());
+
+        mgc.setProperty("pool.size", "viele");
+        assertEquals(8, size.getAsInt());
+    }
+
+    @Test
+    public void testPropertyHandleCombinedGlueConfig() throws Exception {
+        File file = File.createTempFile("glueconfighandle", "properties");
+        file.deleteOnExit();
+        store(file, "pool.size", "4");
+
+        PropertiesGlueConfig layer =
+                new PropertiesGlueConfig(file.toURI().toURL());
+        MapGlueConfig defaults = new MapGlueConfig();
+        defaults.setProperty("pool.size", "2");
+
+        layer.load();
+
+        // MapGlueConfig#load() wird nicht unterstützt.
+        CombinedGlueConfig cc = new CombinedGlueConfig();
+        cc.addConfig(layer);
+        cc.addConfig(defaults);
+
+        IntProperty size = cc.intHandle("pool.size", 8);
+        assertEquals(4, size.getAsInt());
+
+        // Direktes Neuladen der eingebetteten Konfiguration.
+        store(file, "pool.size", "32");
+        layer.load();
+        assertEquals(32, size.getAsInt());
+
+        layer.setProperty("pool.size", "");
+        assertEquals(2, size.getAsInt());
+
+        cc.setCompiled(true);
+        defaults.setProperty("pool.size", "3");
+        assertEquals(3, size.getAsInt());
+        assertEquals(3, cc.getInt("pool.size"));
+    }
+
+    @Test
+    public void testPropertyHandleRefreshesChangedKeyOnly() {
+        final AtomicInteger refreshs = new AtomicInteger();
+        PropertyHandle handle = new PropertyHandle("pool.size") {
+            @Override
+            void refresh(final GlueConfig config) {
+                refreshs.incrementAndGet();
+            }
+        };
+        MapGlueConfig mgc = new MapGlueConfig();
+        PropertyHandles handles = new PropertyHandles();
+        handles.register(handle, mgc);
+        assertEquals(1, refreshs.get());
+
+        handles.refresh(mgc, "pool.timeout");
+        assertEquals(1, refreshs.get());
+        handles.refresh(mgc, "pool.size");
+        assertEquals(2, refreshs.get());
+        handles.refresh(mgc, null);
+        assertEquals(3, refreshs.get());
+    }
+
+    @Test
+    public void testPropertyHandleInterpolatingGlueConfig() {
+        MapGlueConfig mgc = new MapGlueConfig();
+        mgc.setProperty("pool.min", "2");
+        mgc.setProperty("pool.size", "${pool.min}");
+        InterpolatingGlueConfig igc = new InterpolatingGlueConfig(mgc);
+
+        IntProperty size = igc.intHandle("pool.size", 8);
+        assertEquals(2, size.getAsInt());
+
+        // Die Änderung der Referenz erreicht auch das Handle.
+        mgc.setProperty("pool.min", "4");
+        assertEquals(4, size.getAsInt());
+        assertEquals(4, igc.getInt("pool.size"));
+    }
+
+    private static void store(final File file, final String key,
+        final String value) throws Exception {
+
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, null);
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+}
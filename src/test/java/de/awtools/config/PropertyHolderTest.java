@@ -26,9 +26,15 @@
 package de.awtools.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.SystemUtils;
@@ -82,6 +88,84 @@ public class PropertyHolderTest {
             config.getProperty("Aus_dem_System"));
     }
 
+    @Test
+    public void testPropertyHandleSurvivesReload() throws Exception {
+        PropertyHolder config =
+                new PropertyHolder("util-user-home-test.properties",
+                    "/property-holder-test.properties");
+        config.load();
+
+        IntProperty handle = config.intHandle("handle.int", 1);
+        assertEquals(1, handle.getAsInt());
+
+        config.setProperty("handle.int", "2");
+        assertEquals(2, handle.getAsInt());
+        config.save();
+
+        config.load();
+        assertEquals(2, handle.getAsInt());
+    }
+
+    @Test
+    public void testSystemPropertiesLiveOrSnapshot() throws Exception {
+        PropertyHolder live =
+                new PropertyHolder("util-user-home-test.properties",
+                    "/property-holder-test.properties");
+        live.load();
+        PropertyHolder snapshot =
+                new PropertyHolder("util-user-home-test.properties",
+                    "/property-holder-test.properties");
+        snapshot.setSystemSnapshotEnabled(true);
+        snapshot.load();
+
+        System.setProperty("Aus_dem_System", "Geändert");
+        try {
+            assertEquals("Geändert", live.getProperty("Aus_dem_System"));
+            assertEquals("Wert aus dem System",
+                snapshot.getProperty("Aus_dem_System"));
+            snapshot.load();
+            assertEquals("Geändert", snapshot.getProperty("Aus_dem_System"));
+        } finally {
+            System.setProperty("Aus_dem_System", "Wert aus dem System");
+        }
+    }
+
+    @Test
+    public void testUnchangedSnapshotIsReused() throws Exception {
+        PropertyHolder config =
+                new PropertyHolder("util-user-home-test.properties",
+                    "/property-holder-test.properties");
+        config.load();
+        final List<ConfigChangeEvent> events =
+            new ArrayList<ConfigChangeEvent>();
+        config.setChangeExecutor(new Executor() {
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        config.addChangeListener(new ConfigChangeListener() {
+            public void configurationChanged(final ConfigChangeEvent event) {
+                events.add(event);
+            }
+        });
+
+        Map<String, String> map = config.asMap();
+        assertSame(map, config.asMap());
+        config.load();
+        assertSame(map, config.asMap());
+        assertTrue(events.isEmpty());
+
+        // Eine Änderung der System-Eigenschaften wird trotzdem erkannt.
+        System.setProperty("Aus_dem_System", "Geändert");
+        try {
+            assertEquals("Geändert", config.asMap().get("Aus_dem_System"));
+            config.load();
+            assertEquals(1, events.size());
+        } finally {
+            System.setProperty("Aus_dem_System", "Wert aus dem System");
+        }
+    }
+
     @Before
     public void setUp() throws IOException {
         userFile =
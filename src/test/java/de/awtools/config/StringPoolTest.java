@@ -0,0 +1,87 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link StringPool}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class StringPoolTest {
+
+    @Test
+    public void testStringPoolIntern() {
+        StringPool pool = new StringPool();
+        String first = new String("true");
+        String second = new String("true");
+        assertNotSame(first, second);
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertNull(pool.intern((String) null));
+        assertEquals(1, pool.size());
+
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put(new String("a"), new String("true"));
+        Map<String, String> interned = pool.intern(properties);
+        assertEquals(properties, interned);
+        assertSame(first, interned.get("a"));
+    }
+
+    @Test
+    public void testStringPoolWeak() throws Exception {
+        StringPool pool = new StringPool();
+        for (int index = 0; index < 1000; index++) {
+            pool.intern("pool.test." + index);
+        }
+        assertEquals(1000, pool.size());
+        for (int attempt = 0; attempt < 50 && pool.size() > 0; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(pool.size() < 1000);
+    }
+
+    @Test
+    public void testStringPoolSizeOf() {
+        assertTrue(StringPool.sizeOf("") >= 40);
+        assertTrue(StringPool.sizeOf("0123456789abcdef")
+            > StringPool.sizeOf(""));
+        assertEquals(0, StringPool.sizeOf("abcdefgh") % 8);
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link SubsetGlueConfig}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class SubsetGlueConfigTest {
+
+    private MapGlueConfig config;
+
+    @Before
+    public void setUp() {
+        config = new MapGlueConfig();
+        config.setProperty("db", "ohne Punkt");
+        config.setProperty("db.pool.", "genau der Praefix");
+        config.setProperty("db.pool.size", "10");
+        config.setProperty("db.pool.timeout", "30");
+        config.setProperty("db.poolsize", "kein Treffer");
+        config.setProperty("db.url", "jdbc:mysql://localhost/test");
+        config.setProperty("da.pool.size", "kein Treffer");
+    }
+
+    @Test
+    public void testSubsetGlueConfig() {
+        GlueConfig pool = config.subset("db.pool.");
+        assertSame(pool, config.subset("db.pool."));
+        assertEquals(10, pool.getInt("size"));
+        assertEquals(30, pool.getInt("timeout"));
+        assertNull(pool.getString("url"));
+        assertEquals(Arrays.asList("size", "timeout"), keys(pool));
+        assertEquals(2, pool.size());
+        assertEquals("10", pool.asMap().get("size"));
+
+        assertFalse(config.subset("xyz.").getKeyIterator().hasNext());
+        assertEquals(7, keys(config.subset("")).size());
+    }
+
+    @Test
+    public void testSubsetGlueConfigIsLive() {
+        GlueConfig pool = config.subset("db.pool.");
+        IntProperty size = pool.intHandle("size", -1);
+        config.setProperty("db.pool.size", "20");
+        config.setProperty("db.pool.max", "50");
+        assertEquals(20, size.getAsInt());
+        assertEquals(Arrays.asList("max", "size", "timeout"), keys(pool));
+
+        pool.setProperty("min", "1");
+        assertEquals("1", config.getString("db.pool.min"));
+        assertEquals(1, pool.getInt("min"));
+    }
+
+    @Test
+    public void testSubsetGlueConfigCombined() {
+        MapGlueConfig defaults = new MapGlueConfig();
+        defaults.setProperty("db.pool.size", "5");
+        defaults.setProperty("db.pool.validate", "true");
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(config);
+        combined.addConfig(defaults);
+
+        GlueConfig pool = combined.subset("db.pool.");
+        assertEquals(Arrays.asList("size", "timeout", "validate"), keys(pool));
+        assertEquals(10, pool.getInt("size"));
+        assertEquals(true, pool.getBool("validate"));
+
+        defaults.setProperty("db.pool.idle", "60");
+        assertEquals(60, pool.getInt("idle"));
+        assertEquals(4, pool.size());
+    }
+
+    @Test
+    public void testSubsetGlueConfigNested() {
+        GlueConfig pool = config.subset("db.").subset("pool.");
+        assertSame(config.subset("db.pool."), pool);
+        assertEquals(10, pool.getInt("size"));
+
+        // Die Momentaufnahme wird bis zur nächsten Änderung wiederverwendet.
+        assertSame(pool.asMap(), pool.asMap());
+        config.setProperty("db.pool.size", "20");
+        assertEquals("20", pool.asMap().get("size"));
+        assertSame(pool.asMap(), pool.asMap());
+    }
+
+    @Test
+    public void testSubsetGlueConfigCachedIndex() {
+        InterpolatingGlueConfig view = new InterpolatingGlueConfig(config);
+        KeyIndex index = view.keyIndex();
+        assertSame(index, view.keyIndex());
+        GlueConfig pool = view.subset("db.pool.");
+        assertSame(pool.asMap(), pool.asMap());
+
+        config.setProperty("db.pool.max", "50");
+        assertNotSame(index, view.keyIndex());
+        assertEquals(Arrays.asList("max", "size", "timeout"), keys(pool));
+    }
+
+    @Test
+    public void testSubsetGlueConfigLiveLayer() {
+        CombinedGlueConfig combined = new CombinedGlueConfig();
+        combined.addConfig(new SystemGlueConfig());
+        combined.addConfig(config);
+        assertFalse(combined.reportsAllChanges());
+
+        KeyIndex index = combined.keyIndex();
+        assertSame(index, combined.keyIndex());
+        GlueConfig pool = combined.subset("db.pool.");
+        assertEquals(10, pool.getInt("size"));
+        assertSame(pool.asMap(), pool.asMap());
+        assertSame(index, combined.keyIndex());
+
+        // Die System-Eigenschaften melden ihre Änderungen nicht.
+        System.setProperty("db.pool.live", "1");
+        try {
+            assertEquals(Arrays.asList("live", "size", "timeout"),
+                keys(pool));
+            assertNotSame(index, combined.keyIndex());
+        } finally {
+            System.clearProperty("db.pool.live");
+        }
+    }
+
+    private static List<String> keys(final GlueConfig config) {
+        List<String> keys = new ArrayList<String>();
+        for (Iterator<String> i = config.getKeyIterator(); i.hasNext();) {
+            keys.add(i.next());
+        }
+        return keys;
+    }
+
+}
@@ -26,8 +26,11 @@
 package de.awtools.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -54,6 +57,43 @@ public class SystemGlueConfigTest {
         assertEquals("Andre Winkler", System.getProperty("test.winkler"));
     }
 
+    @Test
+    public void testSystemGlueConfigSnapshot() throws IOException {
+        System.setProperty("test.snapshot", "alt");
+        SystemGlueConfig sgc = new SystemGlueConfig(true, false);
+        assertTrue(sgc.isSnapshotMode());
+        assertEquals(System.getProperties(), sgc.getProperties());
+        assertEquals("alt", sgc.getString("test.snapshot"));
+        assertNull(sgc.getString("test.snapshot.undefined"));
+        assertNull(sgc.getString(""));
+
+        System.setProperty("test.snapshot", "neu");
+        assertEquals("alt", sgc.getString("test.snapshot"));
+        sgc.refresh();
+        assertEquals("neu", sgc.getString("test.snapshot"));
+
+        IntProperty handle = sgc.intHandle("test.snapshot.int", -1);
+        System.setProperty("test.snapshot.int", "7");
+        sgc.load();
+        assertEquals(7, handle.getAsInt());
+
+        sgc.setProperty("test.snapshot", "gesetzt");
+        assertEquals("gesetzt", sgc.getString("test.snapshot"));
+        assertEquals("gesetzt", System.getProperty("test.snapshot"));
+    }
+
+    @Test
+    public void testSystemGlueConfigEnvironment() {
+        SystemGlueConfig sgc = new SystemGlueConfig(true, true);
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (System.getProperty(entry.getKey()) == null) {
+                assertEquals(entry.getValue(), sgc.getString(entry.getKey()));
+            }
+        }
+        assertEquals(System.getProperty("user.home"),
+            sgc.getString("user.home"));
+    }
+
     @Test
     public void testSystemGlueConfigSave() throws IOException {
         SystemGlueConfig sgc = new SystemGlueConfig();
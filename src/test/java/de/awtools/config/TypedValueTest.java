@@ -0,0 +1,79 @@
+/*
+ * $Id$
+ * ============================================================================
+ * Project awtools-config
+ * Copyright (c) 2004-2026 by Andre Winkler. All rights reserved.
+ * ============================================================================
+ *          GNU LESSER GENERAL PUBLIC LICENSE
+ *  TERMS AND CONDITIONS FOR COPYING, DISTRIBUTION AND MODIFICATION
+ *
+ *  This library is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU Lesser General Public
+ *  License as published by the Free Software Foundation; either
+ *  version 2.1 of the License, or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this library; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ *
+ */
+
+package de.awtools.config;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Testet die Klasse {@link TypedValue}.
+ *
+ * @author  $Author$
+ * @version $Revision$ $Date$
+ */
+public class TypedValueTest {
+
+    private static final String[] VALUES = new String[] {
+        "0", "10", "-10", "+10", "007", "", "-", "+", "1a", " 1", "1.0",
+        "NumberFormatException", "2147483647", "2147483648", "-2147483648",
+        "-2147483649", "9223372036854775807", "9223372036854775808",
+        "-9223372036854775808", "-9223372036854775809",
+        "١٢", "true", "TRUE", "false"
+    };
+
+    @Test
+    public void testTypedValueLikeJdk() {
+        for (String value : VALUES) {
+            TypedValue typedValue = new TypedValue(value);
+
+            Integer expectedInt = null;
+            try {
+                expectedInt = Integer.parseInt(value);
+            } catch (NumberFormatException ex) {
+                // Kein int.
+            }
+            assertEquals(value, expectedInt != null, typedValue.intValid);
+            if (expectedInt != null) {
+                assertEquals(value, expectedInt.intValue(), typedValue.intValue);
+            }
+
+            Long expectedLong = null;
+            try {
+                expectedLong = Long.parseLong(value);
+            } catch (NumberFormatException ex) {
+                // Kein long.
+            }
+            assertEquals(value, expectedLong != null, typedValue.longValid);
+            if (expectedLong != null) {
+                assertEquals(value, expectedLong.longValue(), typedValue.longValue);
+            }
+
+            assertEquals(value, Boolean.parseBoolean(value), typedValue.boolValue);
+        }
+    }
+
+}